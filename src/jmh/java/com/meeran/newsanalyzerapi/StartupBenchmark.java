@@ -0,0 +1,126 @@
+package com.meeran.newsanalyzerapi;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cold start of the packaged application in each deployment mode: plain jar, AppCDS archive,
+ * AOT bean definitions, and both (the Dockerfile's fast-start target). Every invocation starts
+ * a fresh JVM on the extracted jar that exits once the application context has been refreshed,
+ * so the score is the time to a started context including JVM startup.
+ *
+ * Needs the jar built with AOT output: ./mvnw -Pfast-start,benchmark verify -Djmh.args="Startup -f 1 -wi 1 -i 5"
+ * CDS archives are trained on the first trial of each mode and reused from target/startup.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    // The tests' placeholder provider settings; no provider is called before the context is refreshed
+    private static final String PLACEHOLDER_CONFIG = "src/test/resources/application.properties";
+
+    @Param({ "jar", "cds", "aot", "aot-cds" })
+    public String mode;
+
+    private Path applicationJar;
+    private List<String> command;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        Path packagedJar = packagedJar();
+        boolean aot = mode.startsWith("aot");
+        if (aot && !hasAotInitializer(packagedJar)) {
+            throw new IllegalStateException(packagedJar + " has no AOT output; build it with -Pfast-start");
+        }
+
+        Path extracted = Paths.get("target", "startup", "extracted");
+        applicationJar = extracted.resolve(packagedJar.getFileName());
+        if (!Files.exists(applicationJar)
+                || Files.getLastModifiedTime(applicationJar).compareTo(Files.getLastModifiedTime(packagedJar)) < 0) {
+            run(List.of(java(), "-Djarmode=tools", "-jar", packagedJar.toString(), "extract", "--force",
+                    "--destination", extracted.toString()));
+        }
+
+        List<String> jvmOptions = new ArrayList<>();
+        if (aot) {
+            jvmOptions.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.endsWith("cds")) {
+            Path archive = extracted.resolve(mode + ".jsa");
+            if (!Files.exists(archive)
+                    || Files.getLastModifiedTime(archive).compareTo(Files.getLastModifiedTime(applicationJar)) < 0) {
+                List<String> training = new ArrayList<>(jvmOptions);
+                training.add("-XX:ArchiveClassesAtExit=" + archive);
+                run(startCommand(training));
+            }
+            jvmOptions.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command = startCommand(jvmOptions);
+    }
+
+    @Benchmark
+    public int startToRefreshedContext() throws IOException, InterruptedException {
+        return run(command);
+    }
+
+    private List<String> startCommand(List<String> jvmOptions) {
+        List<String> startCommand = new ArrayList<>();
+        startCommand.add(java());
+        startCommand.addAll(jvmOptions);
+        startCommand.add("-Dspring.context.exit=onRefresh");
+        startCommand.add("-Dlogging.level.root=WARN");
+        startCommand.add("-jar");
+        startCommand.add(applicationJar.toString());
+        startCommand.add("--spring.config.additional-location=file:" + PLACEHOLDER_CONFIG);
+        return startCommand;
+    }
+
+    private static int run(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Exit code " + exitCode + " from " + String.join(" ", command));
+        }
+        return exitCode;
+    }
+
+    private static Path packagedJar() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("target"))) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .filter(file -> !file.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No packaged jar in target/"));
+        }
+    }
+
+    private static boolean hasAotInitializer(Path jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            return jarFile.getEntry("BOOT-INF/classes/com/meeran/newsanalyzerapi/"
+                    + "NewsAnalyzerApiApplication__ApplicationContextInitializer.class") != null;
+        }
+    }
+
+    private static String java() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
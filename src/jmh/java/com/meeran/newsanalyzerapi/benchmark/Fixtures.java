@@ -0,0 +1,44 @@
+package com.meeran.newsanalyzerapi.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+/**
+ * Recorded-shape payloads under src/jmh/resources/fixtures: a 20-article NewsAPI.org page,
+ * the matching Mediastack page, and Gemini/OpenRouter responses wrapping a full analysis.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static byte[] bytes(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String text(String name) {
+        return new String(bytes(name), StandardCharsets.UTF_8);
+    }
+
+    public static List<Article> articles() {
+        try {
+            return new ObjectMapper().readValue(bytes("newsapi-response.json"), NewsApiResponse.class).articles();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import com.meeran.newsanalyzerapi.benchmark.Fixtures;
+import com.meeran.newsanalyzerapi.dto.Article;
+
+/**
+ * Cost of keying the "analysis" cache by a page of articles: the fingerprinted
+ * {@link AnalysisKey}, its persistent-tier form, and the SimpleKey it replaced as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CacheKeyBenchmark {
+
+    private List<Article> articles;
+    private AnalysisKey key;
+
+    @Setup
+    public void setUp() {
+        articles = Fixtures.articles();
+        key = AnalysisKey.of("Climate change", articles, "english");
+    }
+
+    @Benchmark
+    public AnalysisKey analysisKey() {
+        return AnalysisKey.of("Climate change", articles, "english");
+    }
+
+    @Benchmark
+    public int analysisKeyHashCode() {
+        return key.hashCode();
+    }
+
+    @Benchmark
+    public String persistentStoreKey() {
+        return TieredCache.storeKey(key);
+    }
+
+    @Benchmark
+    public int simpleKeyHashCode() {
+        return new SimpleKey("Climate change", articles, "english").hashCode();
+    }
+}
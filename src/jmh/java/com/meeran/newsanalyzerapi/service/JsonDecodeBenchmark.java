@@ -0,0 +1,54 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.benchmark.Fixtures;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.MediastackDto;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+/**
+ * Jackson deserialization of the payloads on every uncached request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] problemAnalysis;
+    private byte[] newsApiResponse;
+    private byte[] mediastackResponse;
+
+    @Setup
+    public void setUp() {
+        problemAnalysis = Fixtures.bytes("problem-analysis.json");
+        newsApiResponse = Fixtures.bytes("newsapi-response.json");
+        mediastackResponse = Fixtures.bytes("mediastack-response.json");
+    }
+
+    @Benchmark
+    public ProblemAnalysis problemAnalysis() throws IOException {
+        return objectMapper.readValue(problemAnalysis, ProblemAnalysis.class);
+    }
+
+    @Benchmark
+    public NewsApiResponse newsApiResponse() throws IOException {
+        return objectMapper.readValue(newsApiResponse, NewsApiResponse.class);
+    }
+
+    @Benchmark
+    public MediastackDto.Response mediastackResponse() throws IOException {
+        return objectMapper.readValue(mediastackResponse, MediastackDto.Response.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.benchmark.Fixtures;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+/**
+ * Turning a raw provider response body into a {@link ProblemAnalysis}: pulling the text out
+ * of the Gemini or OpenRouter envelope, stripping the markdown fence, and parsing the JSON.
+ * {@code treeExtractAndParse} is the former String/JsonNode path, kept as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LlmResponseBenchmark {
+
+    @Param({ "gemini", "openrouter" })
+    public String provider;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AnalysisService analysisService;
+    private LlmProvider llmProvider;
+    private String responseBody;
+    private byte[] responseBytes;
+    private String pointer;
+    private String fencedText;
+
+    @Setup
+    public void setUp() throws IOException {
+        analysisService = new AnalysisService(null, null, null, null, null, null, null);
+        String apiUrl = "openrouter".equals(provider)
+                ? "https://openrouter.ai/api/v1/chat/completions"
+                : "https://generativelanguage.googleapis.com/v1beta/models/";
+        llmProvider = new LlmProvider("primary", provider, apiUrl, "key", "model", "model", "model");
+        responseBody = Fixtures.text(provider + "-response.json");
+        responseBytes = Fixtures.bytes(provider + "-response.json");
+        pointer = "openrouter".equals(provider) ? "/choices/0/message/content" : "/candidates/0/content/parts/0/text";
+        fencedText = objectMapper.readTree(responseBody).at(pointer).asText();
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return AnalysisService.sanitizeLlmText(fencedText);
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return analysisService.decodeLlmResponse(llmProvider, responseBytes, LlmResponseDecoder.AS_STRING).value();
+    }
+
+    @Benchmark
+    public ProblemAnalysis extractAndParse() throws IOException {
+        return analysisService.decodeLlmResponse(llmProvider, responseBytes, analysisService::readAnalysis).value();
+    }
+
+    @Benchmark
+    public ProblemAnalysis treeExtractAndParse() throws IOException {
+        String text = objectMapper.readTree(responseBody).at(pointer).asText();
+        return objectMapper.readValue(AnalysisService.sanitizeLlmText(text), ProblemAnalysis.class);
+    }
+}
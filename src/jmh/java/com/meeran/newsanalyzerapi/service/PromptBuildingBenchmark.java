@@ -0,0 +1,54 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.meeran.newsanalyzerapi.benchmark.Fixtures;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.service.PromptAssembler.PackedArticles;
+
+/**
+ * Building the analysis prompt from a page of articles: dedupe, ranking and packing of the
+ * article content, then formatting the English or Tamil template around it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PromptBuildingBenchmark {
+
+    private static final String TOPIC = "Climate change";
+    private static final int TOKEN_BUDGET = 3000;
+
+    @Param({ "english", "tamil" })
+    public String language;
+
+    private List<Article> articles;
+    private PromptAssembler promptAssembler;
+    private AnalysisService analysisService;
+
+    @Setup
+    public void setUp() {
+        articles = Fixtures.articles();
+        promptAssembler = TestLlmProviders.promptAssembler();
+        analysisService = new AnalysisService(null, null, null, null, promptAssembler, null, null);
+    }
+
+    @Benchmark
+    public String analysisPrompt() {
+        return analysisService.buildAnalysisPrompt(TOPIC, articles, language, TOKEN_BUDGET);
+    }
+
+    @Benchmark
+    public PackedArticles consolidatedContent() {
+        return promptAssembler.pack(TOPIC, articles, TOKEN_BUDGET);
+    }
+}
@@ -0,0 +1,89 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+/**
+ * Cache key for an analysis: normalized topic and language plus a 128-bit fingerprint of
+ * the articles it was generated from. The fingerprint covers the sorted, de-duplicated
+ * (URL, title) pairs, so reordered or repeated articles map to the same key, and the key
+ * stays a few dozen bytes however many articles there are.
+ */
+public record AnalysisKey(String topic, String language, long fingerprintHigh, long fingerprintLow) {
+
+    public static final String DEFAULT_LANGUAGE = "english";
+
+    public static AnalysisKey of(String topic, List<Article> articles, String language) {
+        ArticleFingerprint fingerprint = ArticleFingerprint.of(articles);
+        String normalizedLanguage = TopicNormalizer.normalize(language);
+        return new AnalysisKey(TopicNormalizer.normalize(topic),
+                normalizedLanguage.isEmpty() ? DEFAULT_LANGUAGE : normalizedLanguage,
+                fingerprint.high(), fingerprint.low());
+    }
+
+    // Compact and stable: also used as the key of the persistent cache tier
+    @Override
+    public String toString() {
+        return language + "|" + topic + "|" + ArticleFingerprint.hex(fingerprintHigh, fingerprintLow);
+    }
+
+    // Inverse of toString(), for keys sent to peer instances; topics may themselves contain '|'
+    public static AnalysisKey parse(String text) {
+        int languageEnd = text.indexOf('|');
+        int topicEnd = text.lastIndexOf('|');
+        if (languageEnd < 0 || topicEnd == languageEnd || text.length() - topicEnd - 1 != 32) {
+            throw new IllegalArgumentException("Not an analysis key: " + text);
+        }
+        String hex = text.substring(topicEnd + 1);
+        return new AnalysisKey(text.substring(languageEnd + 1, topicEnd), text.substring(0, languageEnd),
+                Long.parseUnsignedLong(hex.substring(0, 16), 16), Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+
+    /**
+     * 128-bit content fingerprint of an article list (truncated SHA-256).
+     */
+    public record ArticleFingerprint(long high, long low) {
+
+        public static ArticleFingerprint of(List<Article> articles) {
+            TreeSet<String> entries = new TreeSet<>();
+            if (articles != null) {
+                for (Article article : articles) {
+                    if (article != null) {
+                        entries.add(TopicNormalizer.normalize(article.url()) + '\n'
+                                + TopicNormalizer.normalize(article.title()));
+                    }
+                }
+            }
+            MessageDigest digest = sha256();
+            for (String entry : entries) {
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+            return new ArticleFingerprint(hash.getLong(), hash.getLong());
+        }
+
+        @Override
+        public String toString() {
+            return hex(high, low);
+        }
+
+        private static String hex(long high, long low) {
+            return String.format("%016x%016x", high, low);
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
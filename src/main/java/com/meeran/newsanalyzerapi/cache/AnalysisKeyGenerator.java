@@ -0,0 +1,29 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+/**
+ * Builds {@link AnalysisKey}s for {@code analyzeTopic(topic, articles[, language])}-shaped
+ * methods; anything else falls back to the default key.
+ */
+public class AnalysisKeyGenerator implements KeyGenerator {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object generate(Object target, Method method, Object... params) {
+        if (params.length >= 2 && params.length <= 3
+                && (params[0] == null || params[0] instanceof String)
+                && (params[1] == null || params[1] instanceof List<?>)
+                && (params.length == 2 || params[2] == null || params[2] instanceof String)) {
+            String language = params.length == 3 ? (String) params[2] : AnalysisKey.DEFAULT_LANGUAGE;
+            return AnalysisKey.of((String) params[0], (List<Article>) params[1], language);
+        }
+        return SimpleKeyGenerator.generateKey(params);
+    }
+}
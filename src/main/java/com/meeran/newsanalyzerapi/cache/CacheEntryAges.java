@@ -0,0 +1,49 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Reads how long ago a cache entry was written and how long it has left, for caches that
+ * track it (Caffeine with expireAfterWrite, and tiered and peer caches).
+ */
+public final class CacheEntryAges {
+
+    private CacheEntryAges() {
+    }
+
+    // Empty if the entry is absent or the cache does not expire entries after write
+    public static Optional<Duration> ageOf(Cache cache, Object key) {
+        if (cache instanceof PeerCache peer) {
+            return peer.ageOf(key);
+        }
+        if (cache instanceof TieredCache tiered) {
+            return tiered.ageOf(key);
+        }
+        if (cache instanceof CaffeineCache caffeine) {
+            return caffeine.getNativeCache().policy().expireAfterWrite()
+                    .flatMap(expiration -> expiration.ageOf(key));
+        }
+        return Optional.empty();
+    }
+
+    // Empty if the entry is absent or the cache does not expire entries after write
+    public static Optional<Duration> timeToLiveOf(Cache cache, Object key) {
+        if (cache instanceof PeerCache peer) {
+            return peer.timeToLiveOf(key);
+        }
+        if (cache instanceof TieredCache tiered) {
+            return tiered.timeToLiveOf(key);
+        }
+        if (cache instanceof CaffeineCache caffeine) {
+            com.github.benmanes.caffeine.cache.Policy<Object, Object> policy = caffeine.getNativeCache().policy();
+            return policy.expireAfterWrite()
+                    .flatMap(expiration -> expiration.ageOf(key).map(expiration.getExpiresAfter()::minus))
+                    .or(() -> policy.expireVariably().flatMap(expiration -> expiration.getExpiresAfter(key)));
+        }
+        return Optional.empty();
+    }
+}
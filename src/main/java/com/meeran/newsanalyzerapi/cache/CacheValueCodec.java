@@ -0,0 +1,153 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+/**
+ * Compact binary encoding of a cached value for the persistent cache tier.
+ * Strings are written as a varint (length + 1, 0 meaning null) followed by UTF-8 bytes.
+ * Every encoding starts with a format version byte so old files can be skipped after a change.
+ */
+public interface CacheValueCodec<T> {
+
+    Class<T> type();
+
+    byte[] encode(T value);
+
+    // Returns null when the bytes were written by an unknown format version
+    T decode(ByteBuffer bytes);
+
+    CacheValueCodec<ProblemAnalysis> PROBLEM_ANALYSIS = new CacheValueCodec<>() {
+        private static final byte VERSION = 1;
+
+        @Override
+        public Class<ProblemAnalysis> type() {
+            return ProblemAnalysis.class;
+        }
+
+        @Override
+        public byte[] encode(ProblemAnalysis analysis) {
+            Writer out = new Writer(1024);
+            out.writeByte(VERSION);
+            out.writeString(analysis.topic());
+            out.writeString(analysis.summary());
+            out.writeString(analysis.aggregatedProblem());
+            out.writeString(analysis.solutionProposal());
+            out.writeString(analysis.proposingViewpoint());
+            out.writeString(analysis.opposingViewpoint());
+            out.writeString(analysis.historicalPerspective());
+            out.writeString(analysis.motivationalProverb());
+            return out.toByteArray();
+        }
+
+        @Override
+        public ProblemAnalysis decode(ByteBuffer bytes) {
+            if (bytes.get() != VERSION) {
+                return null;
+            }
+            return new ProblemAnalysis(readString(bytes), readString(bytes), readString(bytes), readString(bytes),
+                    readString(bytes), readString(bytes), readString(bytes), readString(bytes));
+        }
+    };
+
+    CacheValueCodec<NewsApiResponse> NEWS_API_RESPONSE = new CacheValueCodec<>() {
+        private static final byte VERSION = 1;
+
+        @Override
+        public Class<NewsApiResponse> type() {
+            return NewsApiResponse.class;
+        }
+
+        @Override
+        public byte[] encode(NewsApiResponse response) {
+            Writer out = new Writer(4096);
+            out.writeByte(VERSION);
+            out.writeString(response.status());
+            out.writeVarInt(response.totalResults() == null ? 0 : response.totalResults() + 1);
+            List<Article> articles = response.articles() == null ? List.of() : response.articles();
+            out.writeVarInt(response.articles() == null ? 0 : articles.size() + 1);
+            for (Article article : articles) {
+                out.writeString(article.title());
+                out.writeString(article.description());
+                out.writeString(article.url());
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public NewsApiResponse decode(ByteBuffer bytes) {
+            if (bytes.get() != VERSION) {
+                return null;
+            }
+            String status = readString(bytes);
+            int totalResults = readVarInt(bytes);
+            int articleCount = readVarInt(bytes);
+            List<Article> articles = null;
+            if (articleCount > 0) {
+                articles = new ArrayList<>(articleCount - 1);
+                for (int i = 0; i < articleCount - 1; i++) {
+                    articles.add(new Article(readString(bytes), readString(bytes), readString(bytes)));
+                }
+            }
+            return new NewsApiResponse(status, totalResults == 0 ? null : totalResults - 1, articles);
+        }
+    };
+
+    static String readString(ByteBuffer bytes) {
+        int length = readVarInt(bytes);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(bytes.array(), bytes.arrayOffset() + bytes.position(), length - 1, StandardCharsets.UTF_8);
+        bytes.position(bytes.position() + length - 1);
+        return value;
+    }
+
+    static int readVarInt(ByteBuffer bytes) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    final class Writer extends ByteArrayOutputStream {
+
+        Writer(int initialSize) {
+            super(initialSize);
+        }
+
+        void writeByte(int value) {
+            write(value);
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length + 1);
+            write(utf8, 0, utf8.length);
+        }
+    }
+}
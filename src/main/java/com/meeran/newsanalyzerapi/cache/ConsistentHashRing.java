@@ -0,0 +1,62 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Assigns keys to cluster members by consistent hashing. Each member is placed on a 64-bit
+ * ring at a number of virtual points, and a key belongs to the member owning the first point
+ * at or after the key's hash. Every instance that sees the same member list picks the same
+ * owner, and adding or removing a member only moves the keys of the arcs it gains or loses.
+ */
+public final class ConsistentHashRing {
+
+    // Enough points per member that the share of keys per member stays within a few percent
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final List<String> members;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        this.members = List.copyOf(members.stream().distinct().sorted().toList());
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On a (very unlikely) collision the lexically smaller member keeps the point, on every instance
+                points.putIfAbsent(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    // Null when the ring has no members
+    public String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    static long hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import com.meeran.newsanalyzerapi.cache.PeerCacheClient.Fetched;
+
+/**
+ * Cache shared across instances: every key has an owner instance, picked by the
+ * {@link PeerMembership} hash ring. A miss in this instance's own cache (heap, and disk for
+ * tiered caches) asks the owner before the value is computed, and the answer is kept locally
+ * as a near-cache entry for the time it has left on the owner. A value computed here is also
+ * handed to its owner, so the next instance to miss finds it there.
+ *
+ * Peers only ever serve from their own levels, so a lookup is at most one hop. Peer failures
+ * and timeouts count as misses; they never fail a request.
+ */
+public class PeerCache implements Cache {
+    private static final Logger logger = LoggerFactory.getLogger(PeerCache.class);
+
+    private final Cache local;
+    private final PeerMembership membership;
+    private final PeerCacheClient client;
+    private final CacheValueCodec<Object> codec;
+    // Turns the key's string form, as sent to the owner, back into the local key
+    private final Function<String, Object> keyParser;
+    private final Duration ttl;
+    // Local misses the owner did or did not answer, and failed peer requests
+    private final LongAdder peerHits = new LongAdder();
+    private final LongAdder peerMisses = new LongAdder();
+    private final LongAdder peerErrors = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public PeerCache(Cache local, PeerMembership membership, PeerCacheClient client, CacheValueCodec<?> codec,
+            Function<String, Object> keyParser, Duration ttl) {
+        this.local = local;
+        this.membership = membership;
+        this.client = client;
+        this.codec = (CacheValueCodec<Object>) codec;
+        this.keyParser = keyParser;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    public Cache getLocal() {
+        return local;
+    }
+
+    public long peerHitCount() {
+        return peerHits.sum();
+    }
+
+    public long peerMissCount() {
+        return peerMisses.sum();
+    }
+
+    public long peerErrorCount() {
+        return peerErrors.sum();
+    }
+
+    // Time since the entry was written; near-cache entries keep the age they had on the owner
+    public Optional<Duration> ageOf(Object key) {
+        if (ttl == null) {
+            return Optional.empty();
+        }
+        return timeToLiveOf(key).map(ttl::minus);
+    }
+
+    public Optional<Duration> timeToLiveOf(Object key) {
+        return CacheEntryAges.timeToLiveOf(local, key);
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = local.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<Object> remote = fetchFromOwner(key);
+        Object value = remote == null ? null : remote.join();
+        return value == null ? null : new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        return local.get(key, () -> {
+            T value = valueLoader.call();
+            pushToOwner(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> cached = local.retrieve(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Completes with null on a peer miss, which the caching aspect treats as a miss
+        return fetchFromOwner(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        Supplier<CompletableFuture<T>> loadAndPush = () -> valueLoader.get().thenApply(value -> {
+            pushToOwner(key, value);
+            return value;
+        });
+        CompletableFuture<Object> remote = local.retrieve(key) == null ? fetchFromOwner(key) : null;
+        if (remote == null) {
+            return local.retrieve(key, loadAndPush);
+        }
+        return remote.thenCompose(value -> value != null
+                ? CompletableFuture.completedFuture((T) value)
+                : local.retrieve(key, loadAndPush));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        pushToOwner(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = local.putIfAbsent(key, value);
+        if (existing == null) {
+            pushToOwner(key, value);
+        }
+        return existing;
+    }
+
+    // Evictions stay local; the owner's copy expires on its own TTL
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return local.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return local.invalidate();
+    }
+
+    /**
+     * Answers a peer's lookup from this instance's own levels only; null on a miss.
+     */
+    public Fetched lookupForPeer(String keyText) {
+        Object key = keyParser.apply(keyText);
+        ValueWrapper wrapper = local.get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value == null || !codec.type().isInstance(value)) {
+            return null;
+        }
+        return new Fetched(codec.encode(value), timeToLiveOf(key).orElse(null));
+    }
+
+    /**
+     * Stores a value a peer computed for a key this instance owns.
+     */
+    public void storeFromPeer(String keyText, byte[] encoded) {
+        Object key = keyParser.apply(keyText);
+        Object value = codec.decode(ByteBuffer.wrap(encoded));
+        if (value != null) {
+            local.put(key, value);
+        }
+    }
+
+    // Null when this instance owns the key or its owner is backing off after a failure
+    private CompletableFuture<Object> fetchFromOwner(Object key) {
+        String keyText = String.valueOf(key);
+        String owner = membership.remoteOwnerOf(keyText);
+        if (owner == null || !client.isAvailable(owner)) {
+            return null;
+        }
+        return client.fetch(owner, getName(), keyText).handle((fetched, ex) -> {
+            if (ex != null) {
+                peerErrors.increment();
+                logger.debug("Cache '{}' lookup of key {} on {} failed: {}", getName(), keyText, owner, ex.getMessage());
+                return null;
+            }
+            try {
+                Object value = fetched == null ? null : codec.decode(ByteBuffer.wrap(fetched.value()));
+                if (value == null) {
+                    peerMisses.increment();
+                    return null;
+                }
+                peerHits.increment();
+                putNear(key, value, fetched.timeToLive());
+                return value;
+            } catch (RuntimeException e) {
+                peerErrors.increment();
+                logger.warn("Cache '{}' could not decode key {} from {}: {}", getName(), keyText, owner, e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    // Values computed here are handed to their owner so other instances find them there
+    private void pushToOwner(Object key, Object value) {
+        if (value == null || !codec.type().isInstance(value)) {
+            return;
+        }
+        String keyText = String.valueOf(key);
+        String owner = membership.remoteOwnerOf(keyText);
+        if (owner == null || !client.isAvailable(owner)) {
+            return;
+        }
+        client.push(owner, getName(), keyText, codec.encode(value)).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                peerErrors.increment();
+                logger.debug("Cache '{}' could not hand key {} to {}: {}", getName(), keyText, owner, ex.getMessage());
+            }
+        });
+    }
+
+    // Keeps a peer's value in the heap level only, for the time it has left on the owner
+    private void putNear(Object key, Object value, Duration timeToLive) {
+        CaffeineCache near = local instanceof TieredCache tiered ? tiered.getFirstLevel()
+                : local instanceof CaffeineCache caffeine ? caffeine : null;
+        if (near == null) {
+            local.put(key, value);
+            return;
+        }
+        if (timeToLive == null) {
+            near.put(key, value);
+            return;
+        }
+        Duration remaining = timeToLive.isNegative() || timeToLive.isZero() ? Duration.ofMillis(1) : timeToLive;
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine = near.getNativeCache();
+        caffeine.policy().expireVariably().ifPresentOrElse(
+                expiration -> expiration.put(key, value, remaining),
+                () -> near.put(key, value));
+    }
+}
@@ -0,0 +1,106 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Talks to the internal cache endpoint of other instances ({@code /internal/cache/{name}}).
+ * Values travel in their {@link CacheValueCodec} encoding with the time they have left to live
+ * in a header. Lookups have a short timeout, since a slow peer must cost less than computing
+ * the value; a peer that failed is skipped until its failure backoff has passed.
+ */
+public class PeerCacheClient {
+
+    public static final String PATH = "/internal/cache/";
+    public static final String TOKEN_HEADER = "X-Cache-Peer-Token";
+    public static final String TIME_TO_LIVE_HEADER = "X-Cache-Time-To-Live-Ms";
+
+    /**
+     * An encoded value and how long it has left on the peer (null for no expiry).
+     */
+    public record Fetched(byte[] value, Duration timeToLive) {}
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final Duration failureBackoff;
+    private final String token;
+    private final Clock clock;
+    // Peer base URL -> epoch millis until which it is skipped
+    private final Map<String, Long> unavailableUntil = new ConcurrentHashMap<>();
+
+    public PeerCacheClient(Duration timeout, Duration failureBackoff, String token, Clock clock) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.timeout = timeout;
+        this.failureBackoff = failureBackoff;
+        this.token = token;
+        this.clock = clock;
+    }
+
+    public boolean isAvailable(String peer) {
+        Long until = unavailableUntil.get(peer);
+        return until == null || until <= clock.millis();
+    }
+
+    // Completes with null when the peer does not have the key
+    public CompletableFuture<Fetched> fetch(String peer, String cacheName, String key) {
+        HttpRequest request = request(peer, cacheName, key).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() == 404) {
+                        return null;
+                    }
+                    checkOk(peer, response);
+                    Duration timeToLive = response.headers().firstValueAsLong(TIME_TO_LIVE_HEADER)
+                            .stream().mapToObj(Duration::ofMillis).findFirst().orElse(null);
+                    return new Fetched(response.body(), timeToLive);
+                })
+                .whenComplete((fetched, ex) -> recordOutcome(peer, ex));
+    }
+
+    public CompletableFuture<Void> push(String peer, String cacheName, String key, byte[] value) {
+        HttpRequest request = request(peer, cacheName, key)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(value))
+                .header("Content-Type", "application/octet-stream")
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> checkOk(peer, response))
+                .whenComplete((ignored, ex) -> recordOutcome(peer, ex));
+    }
+
+    private HttpRequest.Builder request(String peer, String cacheName, String key) {
+        URI uri = URI.create(peer + PATH + cacheName + "?key=" + URLEncoder.encode(key, StandardCharsets.UTF_8));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(timeout);
+        if (StringUtils.hasText(token)) {
+            builder.header(TOKEN_HEADER, token);
+        }
+        return builder;
+    }
+
+    private void recordOutcome(String peer, Throwable failure) {
+        if (failure == null) {
+            unavailableUntil.remove(peer);
+        } else {
+            unavailableUntil.put(peer, clock.millis() + failureBackoff.toMillis());
+        }
+    }
+
+    private static void checkOk(String peer, HttpResponse<?> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Cache peer " + peer + " answered " + response.statusCode());
+        }
+    }
+}
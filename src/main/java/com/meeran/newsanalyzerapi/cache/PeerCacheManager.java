@@ -0,0 +1,90 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Wraps the local cache manager (Caffeine, or tiered) and shares the configured caches with
+ * the other instances through {@link PeerCache}; every other cache is returned unchanged.
+ */
+public class PeerCacheManager implements CacheManager, DisposableBean {
+
+    /**
+     * How a shared cache's values and keys travel between instances, and its hard TTL (null for none).
+     */
+    public record PeerTier(CacheValueCodec<?> codec, Function<String, Object> keyParser, Duration ttl) {}
+
+    private final CacheManager delegate;
+    private final Map<String, PeerTier> tiers;
+    private final PeerMembership membership;
+    private final PeerCacheClient client;
+    private final ConcurrentMap<String, PeerCache> peerCaches = new ConcurrentHashMap<>();
+
+    public PeerCacheManager(CacheManager delegate, Map<String, PeerTier> tiers, PeerMembership membership,
+            PeerCacheClient client) {
+        this.delegate = delegate;
+        this.tiers = Map.copyOf(tiers);
+        this.membership = membership;
+        this.client = client;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        PeerCache peerCache = getPeerCache(name);
+        return peerCache != null ? peerCache : delegate.getCache(name);
+    }
+
+    // Null when the cache is not shared with peers
+    public PeerCache getPeerCache(String name) {
+        PeerTier tier = tiers.get(name);
+        if (tier == null) {
+            return null;
+        }
+        return peerCaches.computeIfAbsent(name, cacheName -> new PeerCache(delegate.getCache(cacheName), membership,
+                client, tier.codec(), tier.keyParser(), tier.ttl()));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    public PeerMembership getMembership() {
+        return membership;
+    }
+
+    @Scheduled(initialDelayString = "${cache.peers.dns-refresh-ms:30000}",
+            fixedDelayString = "${cache.peers.dns-refresh-ms:30000}")
+    public void refreshMembers() {
+        membership.refresh();
+    }
+
+    // The wrapped manager is not a bean of its own, so its scheduled compaction and shutdown are forwarded
+    @Scheduled(initialDelayString = "${cache.l2.compaction-interval-ms:600000}",
+            fixedDelayString = "${cache.l2.compaction-interval-ms:600000}")
+    public void compactStores() {
+        if (delegate instanceof TieredCacheManager tiered) {
+            tiered.compactStores();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Lets Actuator's cache metrics see through {@link PeerCache}: the local levels are bound as
+ * they would be without peers, and {@code cache.peer.gets} counts the local misses the owner
+ * instance did or did not answer, or that failed.
+ */
+public class PeerCacheMeterBinderProvider implements CacheMeterBinderProvider<PeerCache> {
+
+    private final TieredCacheMeterBinderProvider tieredProvider = new TieredCacheMeterBinderProvider();
+
+    @Override
+    public MeterBinder getMeterBinder(PeerCache cache, Iterable<Tag> tags) {
+        Tags cacheTags = Tags.concat(tags, "cache", cache.getName());
+        return registry -> {
+            if (cache.getLocal() instanceof TieredCache tiered) {
+                tieredProvider.getMeterBinder(tiered, tags).bindTo(registry);
+            } else if (cache.getLocal() instanceof CaffeineCache caffeine) {
+                new CaffeineCacheMetrics<>(caffeine.getNativeCache(), cache.getName(), tags).bindTo(registry);
+            }
+            FunctionCounter.builder("cache.peer.gets", cache, PeerCache::peerHitCount)
+                    .description("Local misses answered by the owner instance")
+                    .tags(cacheTags)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.peer.gets", cache, PeerCache::peerMissCount)
+                    .description("Local misses the owner instance could not answer either")
+                    .tags(cacheTags)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.peer.gets", cache, PeerCache::peerErrorCount)
+                    .description("Requests to peer instances that failed or timed out")
+                    .tags(cacheTags)
+                    .tag("result", "error")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * The instances sharing cache entries and the hash ring over them. Members are base URLs
+ * such as {@code http://10.0.0.7:8080}, either a static list or every address a DNS name
+ * resolves to (e.g. a headless service), re-resolved on {@link #refresh()}. This instance is
+ * identified by its own base URL, which must be spelled as in the member list.
+ */
+public class PeerMembership {
+    private static final Logger logger = LoggerFactory.getLogger(PeerMembership.class);
+
+    private final List<String> staticMembers;
+    private final String dnsName;
+    private final int port;
+    private final String self;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+
+    public PeerMembership(List<String> staticMembers, String dnsName, int port, String self, int virtualNodes) {
+        this.staticMembers = staticMembers.stream().map(PeerMembership::baseUrl).filter(StringUtils::hasText).toList();
+        this.dnsName = dnsName;
+        this.port = port;
+        this.self = baseUrl(self);
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(StringUtils.hasText(dnsName) ? List.of() : this.staticMembers, virtualNodes);
+        refresh();
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    // The member owning the key, or null when it is this instance or there are no members
+    public String remoteOwnerOf(String key) {
+        String owner = ring.ownerOf(key);
+        return owner == null || owner.equals(self) ? null : owner;
+    }
+
+    // Re-resolves the DNS name; the previous members are kept if the lookup fails
+    public void refresh() {
+        if (!StringUtils.hasText(dnsName)) {
+            return;
+        }
+        List<String> members;
+        try {
+            members = Arrays.stream(InetAddress.getAllByName(dnsName))
+                    .map(address -> "http://" + hostLiteral(address) + ":" + port)
+                    .distinct()
+                    .sorted()
+                    .toList();
+        } catch (UnknownHostException e) {
+            logger.warn("Could not resolve cache peers from '{}'; keeping {} members: {}", dnsName,
+                    ring.members().size(), e.getMessage());
+            return;
+        }
+        if (!members.equals(ring.members())) {
+            ring = new ConsistentHashRing(members, virtualNodes);
+            logger.info("Cache peers from '{}' are now {} (this instance is {}).", dnsName, members, self);
+        }
+    }
+
+    // This instance's base URL when none is configured: its primary address and the server port
+    public static String defaultSelf(int port) {
+        try {
+            return "http://" + hostLiteral(InetAddress.getLocalHost()) + ":" + port;
+        } catch (UnknownHostException e) {
+            return "http://localhost:" + port;
+        }
+    }
+
+    private static String hostLiteral(InetAddress address) {
+        String host = address.getHostAddress();
+        return host.contains(":") ? "[" + host + "]" : host;
+    }
+
+    private static String baseUrl(String url) {
+        String trimmed = url == null ? "" : url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,387 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only key/value file backing one cache. Writes are appended through a
+ * {@link FileChannel}; reads go through read-only memory mappings of the file, so a
+ * lookup is an index probe plus a copy out of the page cache. The in-memory index
+ * (key to offset) is rebuilt by scanning the file on first access rather than at startup.
+ *
+ * The file is mapped in fixed-size segments, each mapped once when the log first reaches it,
+ * so appending does not map the file again and offsets are not limited to what one mapping
+ * can address. Mapping a segment grows the file (sparsely) to the segment's end; the log ends
+ * where the records do, and the file is cut back to that on close. The rare record that
+ * straddles two segments is read from the channel instead.
+ *
+ * Record layout:
+ * <pre>
+ * int  length of the rest of the record
+ * long expiresAt (epoch millis)
+ * int  key length, key bytes (UTF-8)
+ * int  value length (-1 for a removal), value bytes
+ * int  CRC32 of everything after the length field
+ * </pre>
+ * A torn record at the end of the file (e.g. after a crash mid-write) fails its length
+ * or CRC check and is truncated away on load.
+ */
+public class PersistentCacheStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentCacheStore.class);
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int TOMBSTONE = -1;
+    static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private record Location(long offset, int recordBytes, long expiresAt) {}
+
+    private final Path file;
+    private final Clock clock;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final int segmentBytes;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private volatile boolean loaded;
+    private FileChannel channel;
+    private long fileSize;
+    private long liveBytes;
+
+    public PersistentCacheStore(Path file, Clock clock) {
+        this(file, clock, DEFAULT_SEGMENT_BYTES);
+    }
+
+    PersistentCacheStore(Path file, Clock clock, int segmentBytes) {
+        this.file = file;
+        this.clock = clock;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Value bytes plus the absolute expiry time they were written with.
+     */
+    public record Entry(ByteBuffer value, long expiresAt) {}
+
+    public Entry get(String key) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            if (location == null || location.expiresAt() <= clock.millis()) {
+                return null;
+            }
+            ByteBuffer record = readRecord(location);
+            if (record == null) {
+                return null;
+            }
+            record.position(record.position() + Long.BYTES);
+            int keyLength = record.getInt();
+            record.position(record.position() + keyLength);
+            int valueLength = record.getInt();
+            byte[] value = new byte[valueLength];
+            record.get(value);
+            return new Entry(ByteBuffer.wrap(value), location.expiresAt());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read cache file " + file, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String key, byte[] value, long expiresAt) {
+        append(key, value, expiresAt);
+    }
+
+    public void remove(String key) {
+        ensureLoaded();
+        if (index.containsKey(key)) {
+            append(key, null, 0);
+        }
+    }
+
+    public void clear() {
+        ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            segments.clear();
+            channel.truncate(0);
+            index.clear();
+            fileSize = 0;
+            liveBytes = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear cache file " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        ensureLoaded();
+        return index.size();
+    }
+
+    public long fileSize() {
+        lock.readLock().lock();
+        try {
+            return fileSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the live, unexpired records once at least
+     * {@code minGarbageRatio} of it is overwritten, removed or expired data.
+     * Returns true if the file was rewritten.
+     */
+    public boolean compact(double minGarbageRatio) {
+        if (!loaded) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            long now = clock.millis();
+            index.entrySet().removeIf(entry -> {
+                if (entry.getValue().expiresAt() <= now) {
+                    liveBytes -= entry.getValue().recordBytes();
+                    return true;
+                }
+                return false;
+            });
+            if (fileSize == 0 || (fileSize - liveBytes) < fileSize * minGarbageRatio) {
+                return false;
+            }
+
+            long before = fileSize;
+            Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            Map<String, Location> newIndex = new ConcurrentHashMap<>();
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = 0;
+                for (Map.Entry<String, Location> entry : index.entrySet()) {
+                    ByteBuffer record = readRecord(entry.getValue());
+                    if (record == null) {
+                        continue;
+                    }
+                    ByteBuffer whole = ByteBuffer.allocate(HEADER_BYTES + record.remaining());
+                    whole.putInt(record.remaining()).put(record).flip();
+                    int recordBytes = whole.remaining();
+                    while (whole.hasRemaining()) {
+                        out.write(whole);
+                    }
+                    newIndex.put(entry.getKey(), new Location(position, recordBytes, entry.getValue().expiresAt()));
+                    position += recordBytes;
+                }
+                out.force(true);
+            }
+            // Swap before closing so a failed move leaves the current file open and usable
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+            segments.clear();
+            openChannel();
+            index.clear();
+            index.putAll(newIndex);
+            liveBytes = fileSize;
+            logger.info("Compacted cache file {}: {} -> {} bytes, {} entries.", file, before, fileSize, index.size());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Compaction of cache file {} failed; keeping the existing file.", file, e);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                // Drop the unused tail of the last mapped segment so the file ends with the log
+                segments.clear();
+                channel.truncate(fileSize);
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not close cache file {}", file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(String key, byte[] value, long expiresAt) {
+        ensureLoaded();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? TOMBSTONE : value.length;
+        int bodyBytes = Long.BYTES + Integer.BYTES + keyBytes.length + Integer.BYTES
+                + Math.max(valueLength, 0) + Integer.BYTES;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyBytes);
+        record.putInt(bodyBytes)
+                .putLong(expiresAt)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .putInt(valueLength);
+        if (value != null) {
+            record.put(value);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, bodyBytes - Integer.BYTES);
+        record.putInt((int) crc.getValue()).flip();
+
+        lock.writeLock().lock();
+        try {
+            long offset = fileSize;
+            while (record.hasRemaining()) {
+                channel.write(record, offset + record.position());
+            }
+            fileSize += HEADER_BYTES + bodyBytes;
+            mapSegmentsUpTo(fileSize);
+            Location previous = value == null
+                    ? index.remove(key)
+                    : index.put(key, new Location(offset, HEADER_BYTES + bodyBytes, expiresAt));
+            if (previous != null) {
+                liveBytes -= previous.recordBytes();
+            }
+            if (value != null) {
+                liveBytes += HEADER_BYTES + bodyBytes;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to cache file " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the record body (after the length field) with a verified CRC, or null if it is corrupt.
+    // Caller must hold the read or write lock.
+    private ByteBuffer readRecord(Location location) throws IOException {
+        ByteBuffer body = region(location.offset() + HEADER_BYTES, location.recordBytes() - HEADER_BYTES);
+        return verify(body.duplicate()) ? body : null;
+    }
+
+    // The bytes at [position, position + length): a view of the segment mapping holding them,
+    // or a copy read from the channel when they straddle two segments
+    private ByteBuffer region(long position, int length) throws IOException {
+        int segment = (int) (position / segmentBytes);
+        int start = (int) (position % segmentBytes);
+        if (start + length <= segmentBytes) {
+            ByteBuffer view = segments.get(segment).duplicate();
+            view.position(start).limit(start + length);
+            return view.slice();
+        }
+        ByteBuffer copy = ByteBuffer.allocate(length);
+        while (copy.hasRemaining()) {
+            if (channel.read(copy, position + copy.position()) < 0) {
+                throw new EOFException("Record at " + position + " runs past the end of cache file " + file);
+            }
+        }
+        return copy.flip();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open cache file " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        openChannel();
+        long now = clock.millis();
+        long position = 0;
+        while (position + HEADER_BYTES <= fileSize) {
+            int bodyBytes = region(position, HEADER_BYTES).getInt();
+            if (bodyBytes <= 0 || position + HEADER_BYTES + bodyBytes > fileSize) {
+                break;
+            }
+            ByteBuffer body = region(position + HEADER_BYTES, bodyBytes);
+            if (!verify(body.duplicate())) {
+                break;
+            }
+            long expiresAt = body.getLong();
+            byte[] keyBytes = new byte[body.getInt()];
+            body.get(keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            int valueLength = body.getInt();
+            int recordBytes = HEADER_BYTES + bodyBytes;
+
+            Location previous = valueLength == TOMBSTONE || expiresAt <= now
+                    ? index.remove(key)
+                    : index.put(key, new Location(position, recordBytes, expiresAt));
+            if (previous != null) {
+                liveBytes -= previous.recordBytes();
+            }
+            if (valueLength != TOMBSTONE && expiresAt > now) {
+                liveBytes += recordBytes;
+            }
+            position += recordBytes;
+        }
+        if (position < fileSize) {
+            // Includes the zero-filled tail of the last segment when the file was not closed cleanly
+            logger.warn("Truncating {} bytes of incomplete data at the end of cache file {}.", fileSize - position, file);
+            segments.clear();
+            channel.truncate(position);
+            fileSize = position;
+            mapSegmentsUpTo(fileSize);
+        }
+        logger.info("Loaded cache file {} with {} live entries in {}ms.", file, index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileSize = channel.size();
+        mapSegmentsUpTo(fileSize);
+    }
+
+    // Maps the segments not mapped yet that hold bytes before end; existing mappings stay valid
+    private void mapSegmentsUpTo(long end) throws IOException {
+        while ((long) segments.size() * segmentBytes < end) {
+            segments.add(channel.map(FileChannel.MapMode.READ_ONLY, (long) segments.size() * segmentBytes,
+                    segmentBytes));
+        }
+    }
+
+    private static boolean verify(ByteBuffer body) {
+        if (body.remaining() < Long.BYTES + 3 * Integer.BYTES) {
+            return false;
+        }
+        int checked = body.remaining() - Integer.BYTES;
+        CRC32 crc = new CRC32();
+        ByteBuffer content = body.duplicate();
+        content.limit(content.position() + checked);
+        crc.update(content);
+        return (int) crc.getValue() == body.getInt(body.position() + checked);
+    }
+}
@@ -0,0 +1,256 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Two-level cache: the Caffeine cache answers hot lookups from the heap, and every value
+ * written to it is also appended to a {@link PersistentCacheStore}. An L1 miss falls back
+ * to the file and promotes the hit into Caffeine for whatever is left of its original TTL,
+ * so a restarted instance serves what the previous one had computed.
+ *
+ * Persistent-tier failures are logged and treated as misses; they never fail a request.
+ */
+public class TieredCache implements Cache {
+    private static final Logger logger = LoggerFactory.getLogger(TieredCache.class);
+
+    // Longer keys (e.g. SimpleKey with the full article list) are stored by their SHA-256
+    private static final int MAX_PLAIN_KEY_LENGTH = 256;
+
+    private final CaffeineCache l1;
+    private final PersistentCacheStore l2;
+    private final CacheValueCodec<Object> codec;
+    private final Duration ttl;
+    private final Clock clock;
+    // L1 misses answered from, or also missed by, the persistent tier
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder diskMisses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public TieredCache(CaffeineCache l1, PersistentCacheStore l2, CacheValueCodec<?> codec, Duration ttl, Clock clock) {
+        this.l1 = l1;
+        this.l2 = l2;
+        this.codec = (CacheValueCodec<Object>) codec;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return l1.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1.getNativeCache();
+    }
+
+    public CaffeineCache getFirstLevel() {
+        return l1;
+    }
+
+    public long diskHitCount() {
+        return diskHits.sum();
+    }
+
+    public long diskMissCount() {
+        return diskMisses.sum();
+    }
+
+    // Time since the entry was written; entries read back from disk keep the age they had
+    public Optional<Duration> ageOf(Object key) {
+        return timeToLiveOf(key).map(ttl::minus);
+    }
+
+    // Time until the entry expires
+    public Optional<Duration> timeToLiveOf(Object key) {
+        if (ttl == null) {
+            return Optional.empty();
+        }
+        return l1.getNativeCache().policy().expireVariably()
+                .flatMap(expiration -> expiration.getExpiresAfter(key));
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = l1.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object stored = loadFromStore(key);
+        return stored == null ? null : new SimpleValueWrapper(stored);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        return l1.get(key, () -> {
+            T value = valueLoader.call();
+            persist(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> cached = l1.retrieve(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object stored = loadFromStore(key);
+        return stored == null ? null : CompletableFuture.completedFuture(stored);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        CompletableFuture<?> cached = retrieve(key);
+        if (cached != null) {
+            return (CompletableFuture<T>) cached;
+        }
+        return l1.retrieve(key, () -> valueLoader.get().thenApply(value -> {
+            persist(key, value);
+            return value;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l1.put(key, value);
+        persist(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l1.putIfAbsent(key, value);
+        if (existing == null) {
+            persist(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.evict(key);
+        removeFromStore(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = l1.evictIfPresent(key);
+        removeFromStore(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        l1.clear();
+        clearStore();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = l1.invalidate();
+        clearStore();
+        return hadEntries;
+    }
+
+    private Object loadFromStore(Object key) {
+        try {
+            PersistentCacheStore.Entry entry = l2.get(storeKey(key));
+            Object value = entry == null ? null : codec.decode(entry.value());
+            if (value == null) {
+                diskMisses.increment();
+                return null;
+            }
+            diskHits.increment();
+            promote(key, value, entry.expiresAt());
+            logger.debug("Cache '{}' served key {} from disk.", getName(), key);
+            return value;
+        } catch (RuntimeException e) {
+            logger.warn("Could not read key {} from the persistent '{}' cache: {}", key, getName(), e.getMessage());
+            diskMisses.increment();
+            return null;
+        }
+    }
+
+    // Puts a value read from disk into Caffeine with only the TTL it has left
+    private void promote(Object key, Object value, long expiresAt) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine = l1.getNativeCache();
+        long remainingMs = expiresAt - clock.millis();
+        caffeine.policy().expireVariably().ifPresentOrElse(
+                expiration -> expiration.put(key, value, Duration.ofMillis(Math.max(remainingMs, 1))),
+                () -> l1.put(key, value));
+    }
+
+    private void persist(Object key, Object value) {
+        if (value == null || !codec.type().isInstance(value)) {
+            return;
+        }
+        try {
+            long expiresAt = ttl == null ? Long.MAX_VALUE : clock.millis() + ttl.toMillis();
+            l2.put(storeKey(key), codec.encode(value), expiresAt);
+        } catch (RuntimeException e) {
+            logger.warn("Could not write key {} to the persistent '{}' cache: {}", key, getName(), e.getMessage());
+        }
+    }
+
+    private void removeFromStore(Object key) {
+        try {
+            l2.remove(storeKey(key));
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove key {} from the persistent '{}' cache: {}", key, getName(), e.getMessage());
+        }
+    }
+
+    private void clearStore() {
+        try {
+            l2.clear();
+        } catch (RuntimeException e) {
+            logger.warn("Could not clear the persistent '{}' cache: {}", getName(), e.getMessage());
+        }
+    }
+
+    static String storeKey(Object key) {
+        String text = String.valueOf(key);
+        if (text.length() <= MAX_PLAIN_KEY_LENGTH) {
+            return text;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Wraps the Caffeine cache manager and puts a {@link PersistentCacheStore} behind the
+ * caches that have one; every other cache is returned unchanged.
+ */
+public class TieredCacheManager implements CacheManager, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(TieredCacheManager.class);
+
+    /**
+     * Persistent tier of one cache: its file store, value codec and hard TTL (null for none).
+     */
+    public record PersistentTier(PersistentCacheStore store, CacheValueCodec<?> codec, Duration ttl) {}
+
+    private final CaffeineCacheManager delegate;
+    private final Map<String, PersistentTier> tiers;
+    private final double compactionGarbageRatio;
+    private final Clock clock;
+    private final ConcurrentMap<String, Cache> tieredCaches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CaffeineCacheManager delegate, Map<String, PersistentTier> tiers,
+                              double compactionGarbageRatio, Clock clock) {
+        this.delegate = delegate;
+        this.tiers = Map.copyOf(tiers);
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.clock = clock;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        PersistentTier tier = tiers.get(name);
+        if (tier == null) {
+            return delegate.getCache(name);
+        }
+        return tieredCaches.computeIfAbsent(name, cacheName -> {
+            CaffeineCache l1 = (CaffeineCache) delegate.getCache(cacheName);
+            return new TieredCache(l1, tier.store(), tier.codec(), tier.ttl(), clock);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CaffeineCacheManager getDelegate() {
+        return delegate;
+    }
+
+    // Only files that have been loaded are compacted; an untouched file is left for its first reader.
+    @Scheduled(initialDelayString = "${cache.l2.compaction-interval-ms:600000}",
+            fixedDelayString = "${cache.l2.compaction-interval-ms:600000}")
+    public void compactStores() {
+        tiers.forEach((name, tier) -> {
+            try {
+                tier.store().compact(compactionGarbageRatio);
+            } catch (RuntimeException e) {
+                logger.warn("Compaction of the persistent '{}' cache failed.", name, e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        tiers.values().forEach(tier -> tier.store().close());
+    }
+}
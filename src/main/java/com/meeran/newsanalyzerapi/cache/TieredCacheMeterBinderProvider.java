@@ -0,0 +1,35 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Lets Actuator's cache metrics see through {@link TieredCache}: the usual {@code cache.*}
+ * meters come from its Caffeine level, and {@code cache.disk.gets} counts the L1 misses
+ * the persistent tier did or did not answer.
+ */
+public class TieredCacheMeterBinderProvider implements CacheMeterBinderProvider<TieredCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TieredCache cache, Iterable<Tag> tags) {
+        Tags cacheTags = Tags.concat(tags, "cache", cache.getName());
+        return registry -> {
+            new CaffeineCacheMetrics<>(cache.getFirstLevel().getNativeCache(), cache.getName(), tags).bindTo(registry);
+            FunctionCounter.builder("cache.disk.gets", cache, TieredCache::diskHitCount)
+                    .description("L1 misses answered from the persistent tier")
+                    .tags(cacheTags)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.disk.gets", cache, TieredCache::diskMissCount)
+                    .description("L1 misses the persistent tier could not answer either")
+                    .tags(cacheTags)
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of user-typed text for cache and coalescing keys: Unicode NFKC
+ * (so full-width or composed/decomposed forms match), trimmed, inner whitespace
+ * collapsed to one space, lower-cased.
+ */
+public final class TopicNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TopicNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,83 @@
+package com.meeran.newsanalyzerapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Runs the primary and hedged secondary news fetches in parallel
+    @Bean
+    public ThreadPoolTaskExecutor newsFetchExecutor(@Value("${news.hedge.pool-size:16}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("news-fetch-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Drives SSE analysis streams so servlet threads are released while the LLM is generating
+    @Bean
+    public ThreadPoolTaskExecutor analysisStreamExecutor(@Value("${analysis.stream.pool-size:16}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("analysis-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs batch analyses in blocking mode; each batch is further limited by analysis.batch.concurrency
+    @Bean
+    public ThreadPoolTaskExecutor analysisBatchExecutor(@Value("${analysis.batch.pool-size:16}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 16);
+        executor.setThreadNamePrefix("analysis-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Workers of the analysis job API; a full queue makes submissions fail fast with 429
+    @Bean
+    public ThreadPoolTaskExecutor analysisJobExecutor(@Value("${analysis.jobs.workers:4}") int workers,
+            @Value("${analysis.jobs.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analysis-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Background refresh-ahead of soft-expired analyses; a full queue just skips the refresh
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(@Value("${cache.refresh-ahead.pool-size:2}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 32);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Refills the random topic pool in the background; RandomTopicPool submits one refill at a time
+    @Bean
+    public ThreadPoolTaskExecutor randomTopicRefillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("random-topic-refill-");
+        executor.initialize();
+        return executor;
+    }
+}
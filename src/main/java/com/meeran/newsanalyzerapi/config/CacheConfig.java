@@ -0,0 +1,260 @@
+package com.meeran.newsanalyzerapi.config;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.catalina.connector.Connector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.meeran.newsanalyzerapi.cache.AnalysisKey;
+import com.meeran.newsanalyzerapi.cache.AnalysisKeyGenerator;
+import com.meeran.newsanalyzerapi.cache.CacheValueCodec;
+import com.meeran.newsanalyzerapi.cache.ConsistentHashRing;
+import com.meeran.newsanalyzerapi.cache.PeerCacheClient;
+import com.meeran.newsanalyzerapi.cache.PeerCacheManager;
+import com.meeran.newsanalyzerapi.cache.PeerCacheManager.PeerTier;
+import com.meeran.newsanalyzerapi.cache.PeerCacheMeterBinderProvider;
+import com.meeran.newsanalyzerapi.cache.PeerMembership;
+import com.meeran.newsanalyzerapi.cache.PersistentCacheStore;
+import com.meeran.newsanalyzerapi.cache.TieredCacheManager;
+import com.meeran.newsanalyzerapi.cache.TieredCacheManager.PersistentTier;
+import com.meeran.newsanalyzerapi.cache.TieredCacheMeterBinderProvider;
+
+/**
+ * Builds the cache manager from the standard spring.cache.* properties, plus:
+ * <ul>
+ *   <li>per-cache specs ({@code spring.cache.caffeine.spec.<name>}), which Boot itself ignores;</li>
+ *   <li>an optional disk-persistent tier ({@code cache.l2.*}) behind the analysis and news caches;</li>
+ *   <li>optional sharing of those caches with the other instances of a cluster ({@code cache.peers.*}),
+ *       served on a connector of its own when {@code cache.peers.port} differs from {@code server.port};</li>
+ *   <li>hit/miss/eviction statistics on every cache, published by Actuator as {@code cache.*} meters.</li>
+ * </ul>
+ */
+@Configuration
+@EnableScheduling
+public class CacheConfig {
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    private static final Map<String, CacheValueCodec<?>> PERSISTENT_CODECS = Map.of(
+            "analysis", CacheValueCodec.PROBLEM_ANALYSIS,
+            "newsArticles", CacheValueCodec.NEWS_API_RESPONSE);
+
+    // String form of each shared cache's keys back to the key; newsArticles is keyed by the topic itself
+    private static final Map<String, Function<String, Object>> PEER_KEY_PARSERS = Map.of(
+            "analysis", AnalysisKey::parse,
+            "newsArticles", key -> key);
+
+    @Value("${spring.cache.cache-names:}")
+    private String[] cacheNames;
+
+    @Value("${spring.cache.caffeine.spec:}")
+    private String defaultSpec;
+
+    @Value("${cache.l2.enabled:false}")
+    private boolean persistentEnabled;
+
+    @Value("${cache.l2.directory:cache-data}")
+    private String persistentDirectory;
+
+    @Value("${cache.l2.caches:analysis,newsArticles}")
+    private String[] persistentCaches;
+
+    // Compact a file once at least this share of it is stale
+    @Value("${cache.l2.compaction-garbage-ratio:0.5}")
+    private double compactionGarbageRatio;
+
+    @Value("${cache.peers.enabled:false}")
+    private boolean peersEnabled;
+
+    // Static member list (base URLs); ignored when cache.peers.dns-name is set
+    @Value("${cache.peers.members:}")
+    private String[] peerMembers;
+
+    // Every address this name resolves to is a member, at cache.peers.port
+    @Value("${cache.peers.dns-name:}")
+    private String peerDnsName;
+
+    @Value("${cache.peers.port:${server.port:8080}}")
+    private int peerPort;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // This instance's base URL as it appears among the members; defaults to its primary address
+    @Value("${cache.peers.self:}")
+    private String peerSelf;
+
+    @Value("${cache.peers.caches:analysis,newsArticles}")
+    private String[] peerCaches;
+
+    @Value("${cache.peers.timeout-ms:300}")
+    private long peerTimeoutMs;
+
+    @Value("${cache.peers.failure-backoff-ms:5000}")
+    private long peerFailureBackoffMs;
+
+    @Value("${cache.peers.token:}")
+    private String peerToken;
+
+    // Async mode lets @Cacheable methods returning CompletableFuture share the same caches
+    // (and keys) as their blocking counterparts; plain synchronous access keeps working.
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setAsyncCacheMode(true);
+        if (StringUtils.hasText(defaultSpec)) {
+            caffeine.setCacheSpecification(withStats(defaultSpec));
+        } else {
+            caffeine.setCaffeine(Caffeine.newBuilder().recordStats());
+        }
+        if (cacheNames.length > 0) {
+            caffeine.setCacheNames(List.of(cacheNames));
+        }
+
+        Set<String> persistent = persistentEnabled ? supportedCacheNames(persistentCaches, "persisted") : Set.of();
+        Set<String> shared = peersEnabled ? supportedCacheNames(peerCaches, "shared with peers") : Set.of();
+        Set<String> names = new LinkedHashSet<>(List.of(cacheNames));
+        names.addAll(persistent);
+        names.addAll(shared);
+
+        Clock clock = Clock.systemUTC();
+        Map<String, PersistentTier> tiers = new LinkedHashMap<>();
+        Map<String, PeerTier> peerTiers = new LinkedHashMap<>();
+        for (String name : names) {
+            String spec = environment.getProperty("spring.cache.caffeine.spec." + name, defaultSpec);
+            Duration ttl = expireAfterWrite(spec);
+            if (persistent.contains(name) || shared.contains(name)) {
+                caffeine.registerCustomCache(name, buildVariableExpiryCache(withStats(spec), ttl));
+            } else if (!spec.equals(defaultSpec)) {
+                caffeine.registerCustomCache(name, Caffeine.from(withStats(spec)).buildAsync());
+            }
+            if (persistent.contains(name)) {
+                Path file = Path.of(persistentDirectory, name + ".cache");
+                tiers.put(name, new PersistentTier(new PersistentCacheStore(file, clock), PERSISTENT_CODECS.get(name), ttl));
+                logger.info("Cache '{}' is persisted to {} (ttl {}).", name, file.toAbsolutePath(), ttl);
+            }
+            if (shared.contains(name)) {
+                peerTiers.put(name, new PeerTier(PERSISTENT_CODECS.get(name), PEER_KEY_PARSERS.get(name), ttl));
+            }
+        }
+
+        CacheManager local = tiers.isEmpty() ? caffeine
+                : new TieredCacheManager(caffeine, tiers, compactionGarbageRatio, clock);
+        if (peerTiers.isEmpty()) {
+            return local;
+        }
+        if (!StringUtils.hasText(peerToken)) {
+            throw new IllegalStateException("cache.peers.token must be set when cache.peers.enabled=true; "
+                    + "without it any client could read and overwrite shared cache entries");
+        }
+        String self = StringUtils.hasText(peerSelf) ? peerSelf : PeerMembership.defaultSelf(peerPort);
+        PeerMembership membership = new PeerMembership(List.of(peerMembers), peerDnsName, peerPort, self,
+                ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        PeerCacheClient client = new PeerCacheClient(Duration.ofMillis(peerTimeoutMs),
+                Duration.ofMillis(peerFailureBackoffMs), peerToken, clock);
+        logger.info("Caches {} are shared with peers {} (this instance is {}).", peerTiers.keySet(),
+                membership.ring().members(), membership.self());
+        return new PeerCacheManager(local, peerTiers, membership, client);
+    }
+
+    // Peers reach /internal/cache on cache.peers.port; a port other than server.port gets its own
+    // connector, so it can be kept off the public load balancer (see PeerCacheController)
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> peerCacheConnector() {
+        return factory -> {
+            if (peersEnabled && peerPort != serverPort) {
+                Connector connector = new Connector();
+                connector.setPort(peerPort);
+                factory.addAdditionalTomcatConnectors(connector);
+                logger.info("Peer cache endpoint is served on port {}.", peerPort);
+            }
+        };
+    }
+
+    // Keys "analysis" entries by normalized topic/language plus an article fingerprint
+    @Bean
+    public KeyGenerator analysisKeyGenerator() {
+        return new AnalysisKeyGenerator();
+    }
+
+    // Actuator binds the Caffeine level of two-level caches like any other Caffeine cache
+    @Bean
+    public TieredCacheMeterBinderProvider tieredCacheMeterBinderProvider() {
+        return new TieredCacheMeterBinderProvider();
+    }
+
+    // Actuator binds shared caches' local levels plus their peer lookups
+    @Bean
+    public PeerCacheMeterBinderProvider peerCacheMeterBinderProvider() {
+        return new PeerCacheMeterBinderProvider();
+    }
+
+    // Both the persistent tier and peers need a binary codec for the cache's values
+    private static Set<String> supportedCacheNames(String[] configured, String purpose) {
+        Set<String> names = Arrays.stream(configured).map(String::trim).filter(StringUtils::hasText)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String name : names) {
+            if (!PERSISTENT_CODECS.containsKey(name)) {
+                throw new IllegalStateException("Cache '" + name + "' cannot be " + purpose + "; supported caches: "
+                        + PERSISTENT_CODECS.keySet());
+            }
+        }
+        return names;
+    }
+
+    // Same spec, but with expireAfterWrite expressed as a per-entry expiry so entries read back
+    // from disk can be given only the TTL they have left.
+    private static AsyncCache<Object, Object> buildVariableExpiryCache(String spec, Duration ttl) {
+        String withoutExpiry = Arrays.stream(spec.split(","))
+                .map(String::trim)
+                .filter(option -> StringUtils.hasText(option) && !option.startsWith("expireAfterWrite"))
+                .collect(Collectors.joining(","));
+        Caffeine<Object, Object> builder = Caffeine.from(withoutExpiry);
+        if (ttl != null) {
+            builder.expireAfter(Expiry.writing((key, value) -> ttl));
+        }
+        return builder.buildAsync();
+    }
+
+    private static String withStats(String spec) {
+        if (!StringUtils.hasText(spec)) {
+            return "recordStats";
+        }
+        return spec.contains("recordStats") ? spec : spec + ",recordStats";
+    }
+
+    // Lets Caffeine parse the duration so every spec format it accepts works here too
+    private static Duration expireAfterWrite(String spec) {
+        if (!StringUtils.hasText(spec)) {
+            return null;
+        }
+        return Caffeine.from(spec).build().policy().expireAfterWrite()
+                .map(Policy.FixedExpiration::getExpiresAfter)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,102 @@
+package com.meeran.newsanalyzerapi.config;
+
+import java.time.Duration;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.meeran.newsanalyzerapi.service.RequestDeadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Starts a {@link RequestDeadline} for each request to one endpoint and binds it to the thread
+ * handling the request. The budget is the endpoint's configured one; a client can ask for a
+ * shorter one (not a longer one) with the X-Request-Deadline-Ms header. An async request keeps
+ * its deadline across dispatches.
+ *
+ * Requests that finish after their deadline has passed or been cancelled are counted as
+ * {@code request.deadline.missed}, tagged with the endpoint and the reason (exceeded, cancelled).
+ */
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline-Ms";
+
+    private static final String DEADLINE_ATTRIBUTE = RequestDeadline.class.getName();
+    private static final String SCOPE_ATTRIBUTE = RequestDeadline.Scope.class.getName();
+
+    private final Duration budget;
+    private final Duration minAttempt;
+    private final Counter exceededCounter;
+    private final Counter cancelledCounter;
+
+    public RequestDeadlineInterceptor(String endpoint, Duration budget, Duration minAttempt,
+            MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.minAttempt = minAttempt;
+        this.exceededCounter = Counter.builder("request.deadline.missed")
+                .description("Requests that ran out of their deadline budget")
+                .tags("endpoint", endpoint, "reason", "exceeded")
+                .register(meterRegistry);
+        this.cancelledCounter = Counter.builder("request.deadline.missed")
+                .description("Requests whose work was cancelled because the client went away")
+                .tags("endpoint", endpoint, "reason", "cancelled")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline deadline = (RequestDeadline) request.getAttribute(DEADLINE_ATTRIBUTE);
+        if (deadline == null) {
+            deadline = RequestDeadline.after(budgetOf(request), minAttempt);
+            request.setAttribute(DEADLINE_ATTRIBUTE, deadline);
+        }
+        request.setAttribute(SCOPE_ATTRIBUTE, deadline.bind());
+        return true;
+    }
+
+    // The request thread is released while async work carries on with the deadline it captured
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        unbind(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        unbind(request);
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        RequestDeadline deadline = (RequestDeadline) request.getAttribute(DEADLINE_ATTRIBUTE);
+        if (deadline != null && deadline.isExpired()) {
+            (deadline.isCancelled() ? cancelledCounter : exceededCounter).increment();
+        }
+    }
+
+    private Duration budgetOf(HttpServletRequest request) {
+        String requested = request.getHeader(DEADLINE_HEADER);
+        if (requested != null) {
+            try {
+                long millis = Long.parseLong(requested.trim());
+                if (millis > 0 && millis < budget.toMillis()) {
+                    return Duration.ofMillis(millis);
+                }
+            } catch (NumberFormatException e) {
+                // Not a budget; the endpoint's own applies
+            }
+        }
+        return budget;
+    }
+
+    private static void unbind(HttpServletRequest request) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope != null) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            ((RequestDeadline.Scope) scope).close();
+        }
+    }
+}
@@ -1,20 +1,20 @@
 package com.meeran.newsanalyzerapi.config;
 
-import java.time.Duration;
-
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.meeran.newsanalyzerapi.service.UpstreamHttpClients;
+
 @Configuration
 public class RestTemplateConfig {
 
+    // Each request goes out through the pool and bulkhead of the provider it is addressed to,
+    // with that provider's timeouts (see UpstreamHttpClients and the <slot>.http.* properties).
     @Bean
-    public RestTemplate restTemplate() {
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
-        factory.setConnectTimeout(Duration.ofSeconds(25));
-        factory.setReadTimeout(Duration.ofSeconds(25));
-        return new RestTemplate(factory);
+    public RestTemplate restTemplate(UpstreamHttpClients upstreamHttpClients) {
+        RestTemplate restTemplate = new RestTemplate(upstreamHttpClients.requestFactory());
+        restTemplate.getInterceptors().add(upstreamHttpClients.bulkheadInterceptor());
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
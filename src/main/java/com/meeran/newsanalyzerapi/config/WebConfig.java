@@ -1,18 +1,66 @@
 package com.meeran.newsanalyzerapi.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Async analyses may outlive the container's default async timeout (30s on Tomcat)
+    @Value("${analysis.async.request-timeout-ms:180000}")
+    private long asyncRequestTimeoutMs;
+
+    // Per-endpoint request deadlines; see RequestDeadlineInterceptor
+    @Value("${deadline.enabled:false}")
+    private boolean deadlineEnabled;
+    @Value("${deadline.analyze-ms:30000}")
+    private long analyzeDeadlineMs;
+    @Value("${deadline.stream-ms:120000}")
+    private long streamDeadlineMs;
+    @Value("${deadline.min-attempt-ms:1000}")
+    private long minAttemptMs;
+
+    private final MeterRegistry meterRegistry;
+
+    public WebConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncRequestTimeoutMs);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!deadlineEnabled) {
+            return;
+        }
+        registry.addInterceptor(deadlineInterceptor("analyze", analyzeDeadlineMs)).addPathPatterns("/api/v1/analyze");
+        registry.addInterceptor(deadlineInterceptor("stream", streamDeadlineMs))
+                .addPathPatterns("/api/v1/analyze/stream");
+    }
+
+    private RequestDeadlineInterceptor deadlineInterceptor(String endpoint, long budgetMs) {
+        return new RequestDeadlineInterceptor(endpoint, Duration.ofMillis(budgetMs), Duration.ofMillis(minAttemptMs),
+                meterRegistry);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Apply to all endpoints under /api/
             .allowedOrigins("http://localhost:3000", "https://news-analyzer-ui.vercel.app") // Allow your frontend origin
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Specify allowed methods
             .allowedHeaders("*")
+            .exposedHeaders("X-Resolved-Topic", "ETag")
             .allowCredentials(true);
     }
-}
\ No newline at end of file
+}
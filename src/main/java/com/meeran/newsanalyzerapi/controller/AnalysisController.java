@@ -1,72 +1,280 @@
 package com.meeran.newsanalyzerapi.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriUtils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.BatchRequest;
 import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
-import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
 import com.meeran.newsanalyzerapi.service.AnalysisService;
-import com.meeran.newsanalyzerapi.service.NewsService;
+import com.meeran.newsanalyzerapi.service.BatchAnalysisService;
+import com.meeran.newsanalyzerapi.service.DeadlineExceededException;
+import com.meeran.newsanalyzerapi.service.NoArticlesFoundException;
+import com.meeran.newsanalyzerapi.service.RandomTopicPool;
+import com.meeran.newsanalyzerapi.service.RenderedAnalysis;
+import com.meeran.newsanalyzerapi.service.RequestDeadline;
+import com.meeran.newsanalyzerapi.service.TopicAnalysisService;
 
 @RestController
 @RequestMapping("/api/v1/analyze")
 public class AnalysisController {
     private static final Logger log = LoggerFactory.getLogger(AnalysisController.class);
 
-    private final NewsService newsService;
+    static final String RESOLVED_TOPIC_HEADER = "X-Resolved-Topic";
+
+    @Value("${analysis.async.enabled:false}")
+    private boolean asyncEnabled;
+    @Value("${analysis.stream.timeout-ms:180000}")
+    private long streamTimeoutMs;
+    @Value("${analysis.batch.max-topics:50}")
+    private int batchMaxTopics;
+    @Value("${analysis.batch.timeout-ms:600000}")
+    private long batchTimeoutMs;
+
+    private final TopicAnalysisService topicAnalysisService;
     private final AnalysisService analysisService;
+    private final BatchAnalysisService batchAnalysisService;
+    private final RandomTopicPool randomTopicPool;
+    private final AsyncTaskExecutor streamExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public AnalysisController(NewsService newsService, AnalysisService analysisService) {
-        this.newsService = newsService;
+    public AnalysisController(TopicAnalysisService topicAnalysisService, AnalysisService analysisService,
+            BatchAnalysisService batchAnalysisService, RandomTopicPool randomTopicPool,
+            @Qualifier("analysisStreamExecutor") AsyncTaskExecutor streamExecutor) {
+        this.topicAnalysisService = topicAnalysisService;
         this.analysisService = analysisService;
+        this.batchAnalysisService = batchAnalysisService;
+        this.randomTopicPool = randomTopicPool;
+        this.streamExecutor = streamExecutor;
     }
 
+    /**
+     * Analyzes a topic. With analysis.async.enabled=true the news and LLM calls run over the
+     * non-blocking client and the servlet thread is released until the analysis completes;
+     * otherwise the analysis is computed on the request thread as before.
+     *
+     * The analysis is written from its pre-serialized bytes (gzipped if the client accepts it)
+     * with a strong ETag and a max-age of the time the cached entry has left; Spring answers a
+     * matching If-None-Match with 304 Not Modified. When the topic was resolved to a similar,
+     * recently analyzed topic, X-Resolved-Topic names it (percent-encoded UTF-8).
+     *
+     * With deadline.enabled=true the request has deadline.analyze-ms (or the shorter
+     * X-Request-Deadline-Ms) to complete and is answered 504 once that has passed. In async
+     * mode, the upstream calls still in flight are cancelled when the client goes away or the
+     * deadline passes.
+     */
     @GetMapping
-    public ResponseEntity<?> getAnalysisByTopic(
+    public DeferredResult<ResponseEntity<?>> getAnalysisByTopic(
             @RequestParam String topic,
-            @RequestParam(defaultValue = "english") String language) {
+            @RequestParam(defaultValue = "english") String language,
+            @RequestHeader HttpHeaders requestHeaders) {
         log.info("Received request to analyze topic: {} in language: {}", topic, language);
+        RequestDeadline deadline = RequestDeadline.current();
+        DeferredResult<ResponseEntity<?>> result = deadline.isBounded()
+                ? new DeferredResult<>(Math.max(1, deadline.remaining().toMillis()),
+                        () -> toErrorResponse(topic, new DeadlineExceededException("the analysis completed", false)))
+                : new DeferredResult<>();
+        result.onTimeout(deadline::cancel);
+        result.onError(ex -> deadline.cancel());
         if (topic == null || topic.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body("{\"error\": \"Topic cannot be empty.\"}");
+            result.setResult(ResponseEntity.badRequest().body("{\"error\": \"Topic cannot be empty.\"}"));
+            return result;
         }
 
-        try {
-            NewsApiResponse newsResponse = newsService.fetchArticlesForTopic(topic);
+        String resolvedTopic = topicAnalysisService.resolveTopic(topic);
+        if (!asyncEnabled) {
+            try {
+                result.setResult(toResponse(topic, resolvedTopic,
+                        topicAnalysisService.analyzeRendered(resolvedTopic, language), requestHeaders));
+            } catch (RuntimeException e) {
+                result.setResult(toErrorResponse(topic, e));
+            }
+            return result;
+        }
+
+        topicAnalysisService.analyzeRenderedAsync(resolvedTopic, language).whenComplete((analysis, ex) -> {
+            if (ex == null) {
+                result.setResult(toResponse(topic, resolvedTopic, analysis, requestHeaders));
+            } else {
+                result.setResult(toErrorResponse(topic,
+                        ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex));
+            }
+        });
+        return result;
+    }
 
+    private ResponseEntity<?> toResponse(String topic, String resolvedTopic, RenderedAnalysis analysis,
+            HttpHeaders requestHeaders) {
+        if (analysis != null) {
+            boolean gzip = acceptsGzip(requestHeaders);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(analysis.etag(gzip))
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .cacheControl(analysis.timeToLive(Instant.now())
+                            .map(ttl -> CacheControl.maxAge(ttl).cachePublic())
+                            .orElseGet(CacheControl::noCache));
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            if (!resolvedTopic.equals(topic)) {
+                response.header(RESOLVED_TOPIC_HEADER, UriUtils.encode(resolvedTopic, StandardCharsets.UTF_8));
+            }
+            return response.body(gzip ? analysis.gzipped() : analysis.json());
+        }
+
+        // Fallback for analysis failure
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"Failed to analyze the topic after retrieving articles: " + topic + "\"}");
+    }
+
+    private ResponseEntity<?> toErrorResponse(String topic, Throwable e) {
+        if (e instanceof NoArticlesFoundException) {
             // Handle case where no articles were found
-            if (newsResponse == null || newsResponse.articles().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("{\"error\": \"No recent news articles found for the topic: " + topic
-                                + ". Please try another topic.\"}");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        if (e instanceof DeadlineExceededException) {
+            log.warn("Analysis stopped for topic: {}: {}", topic, e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        log.error("Analysis failed for topic: {}", topic, e);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+    }
+
+    // True if Accept-Encoding lists gzip without q=0
+    static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String header : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
             }
+        }
+        return false;
+    }
 
-            // Proceed with analysis if articles were found
-            ProblemAnalysis analysis = analysisService.analyzeTopic(topic, newsResponse.articles(), language);
+    /**
+     * Server-Sent Events variant of {@link #getAnalysisByTopic}. Emits a "field" event
+     * ({"field": ..., "value": ...}) for every analysis field as the LLM produces it,
+     * then a "complete" event with the full analysis, or an "error" event. Runs under the
+     * deadline.stream-ms deadline when deadlines are enabled; the LLM stream is abandoned when
+     * the client goes away.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnalysisByTopic(
+            @RequestParam String topic,
+            @RequestParam(defaultValue = "english") String language) {
+        log.info("Received request to stream analysis for topic: {} in language: {}", topic, language);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if (topic == null || topic.trim().isEmpty()) {
+            sendErrorAndComplete(emitter, "Topic cannot be empty.");
+            return emitter;
+        }
 
-            if (analysis != null) {
-                return ResponseEntity.ok(analysis);
+        RequestDeadline deadline = RequestDeadline.current();
+        emitter.onTimeout(deadline::cancel);
+        emitter.onError(ex -> deadline.cancel());
+        streamExecutor.execute(() -> {
+            try (RequestDeadline.Scope scope = deadline.bind()) {
+                ProblemAnalysis analysis = topicAnalysisService.analyzeStreaming(topic, language, (field, value) -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("field").data(Map.of("field", field, "value", value)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Client disconnected from analysis stream", e);
+                    }
+                });
+                emitter.send(SseEmitter.event().name("complete").data(analysis));
+                emitter.complete();
+            } catch (NoArticlesFoundException e) {
+                sendErrorAndComplete(emitter, e.getMessage());
+            } catch (DeadlineExceededException e) {
+                log.warn("Streaming analysis stopped for topic: {}: {}", topic, e.getMessage());
+                sendErrorAndComplete(emitter, e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                log.error("Streaming analysis failed for topic: {}", topic, e);
+                sendErrorAndComplete(emitter, e.getMessage());
             }
+        });
+        return emitter;
+    }
 
-            // Fallback for analysis failure
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("{\"error\": \"Failed to analyze the topic after retrieving articles: " + topic + "\"}");
+    /**
+     * Analyzes up to analysis.batch.max-topics topics and streams one NDJSON line per topic
+     * ({"topic", "status": ok|not_found|error, "analysis" or "error"}) in completion order,
+     * with at most analysis.batch.concurrency topics being analyzed at once.
+     */
+    @PostMapping(path = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter analyzeBatch(@RequestBody BatchRequest request) {
+        List<String> topics = request.topics() == null ? List.of() : request.topics();
+        String language = StringUtils.hasText(request.language()) ? request.language() : "english";
+        if (topics.isEmpty() || topics.size() > batchMaxTopics) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch must contain between 1 and " + batchMaxTopics + " topics.");
+        }
+        if (topics.stream().anyMatch(topic -> !StringUtils.hasText(topic))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Topic cannot be empty.");
+        }
+        log.info("Received batch request to analyze {} topics in language: {}", topics.size(), language);
 
-        } catch (RuntimeException e) {
-            log.error("Analysis failed for topic: {}", topic, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMs);
+        batchAnalysisService.analyze(topics, language, result -> {
+            try {
+                emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.APPLICATION_NDJSON);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Client disconnected from batch analysis", e);
+            }
+        }).whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(ex);
+            }
+        });
+        return emitter;
+    }
+
+    private void sendErrorAndComplete(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("error", String.valueOf(message))));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
         }
     }
 
@@ -84,9 +292,10 @@ public class AnalysisController {
         }
     }
 
+    // Served from the pre-generated pool when random-topic.pool.enabled=true
     @GetMapping("/random-topic")
     public ResponseEntity<String> getRandomSingleTopic() {
-        String randomTopic = analysisService.getRandomSingleTopic();
+        String randomTopic = randomTopicPool.next();
         return ResponseEntity.ok(randomTopic);
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.meeran.newsanalyzerapi.controller;
+
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisJob;
+import com.meeran.newsanalyzerapi.service.AnalysisJobService;
+import com.meeran.newsanalyzerapi.service.JobQueueFullException;
+
+/**
+ * Job mode for analyses that may outlast a client's or load balancer's timeout:
+ * submit with POST, then poll the returned job until it is no longer QUEUED or RUNNING.
+ */
+@RestController
+@RequestMapping("/api/v1/analyze/jobs")
+public class AnalysisJobController {
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobController.class);
+
+    private final AnalysisJobService jobService;
+
+    public AnalysisJobController(AnalysisJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    // 202 with the job and its Location, or 429 with Retry-After when the job queue is full
+    @PostMapping
+    public ResponseEntity<?> submitJob(
+            @RequestParam String topic,
+            @RequestParam(defaultValue = "english") String language) {
+        if (topic == null || topic.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("{\"error\": \"Topic cannot be empty.\"}");
+        }
+        try {
+            AnalysisJob job = jobService.submit(topic, language);
+            return ResponseEntity.accepted().location(URI.create("/api/v1/analyze/jobs/" + job.id())).body(job);
+        } catch (JobQueueFullException e) {
+            log.warn("Rejected analysis job for topic: {} ({})", topic, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        return jobService.find(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("{\"error\": \"Unknown or expired analysis job: " + id + "\"}"));
+    }
+}
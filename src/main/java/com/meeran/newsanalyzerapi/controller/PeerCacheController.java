@@ -0,0 +1,118 @@
+package com.meeran.newsanalyzerapi.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.meeran.newsanalyzerapi.cache.PeerCache;
+import com.meeran.newsanalyzerapi.cache.PeerCacheClient;
+import com.meeran.newsanalyzerapi.cache.PeerCacheClient.Fetched;
+import com.meeran.newsanalyzerapi.cache.PeerCacheManager;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Internal endpoint other instances use to read and hand over entries of the caches shared
+ * with peers (cache.peers.*). Answers 404 for every cache when peers are disabled, and for
+ * requests on server.port when cache.peers.port is a separate port. Requests must carry
+ * cache.peers.token in the X-Cache-Peer-Token header; without a configured token every request
+ * is refused (and CacheConfig does not start with peers enabled).
+ */
+@RestController
+@RequestMapping("/internal/cache")
+public class PeerCacheController {
+    private static final Logger log = LoggerFactory.getLogger(PeerCacheController.class);
+
+    private final CacheManager cacheManager;
+
+    @Value("${cache.peers.token:}")
+    private String token;
+    @Value("${cache.peers.port:${server.port:8080}}")
+    private int peerPort;
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    public PeerCacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping(value = "/{name}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> get(@PathVariable String name, @RequestParam String key,
+            @RequestHeader(value = PeerCacheClient.TOKEN_HEADER, required = false) String requestToken,
+            HttpServletRequest request) {
+        PeerCache cache = peerCache(name);
+        if (cache == null || !onPeerPort(request)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!authorized(requestToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Fetched fetched;
+        try {
+            fetched = cache.lookupForPeer(key);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (fetched == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM);
+        if (fetched.timeToLive() != null) {
+            response.header(PeerCacheClient.TIME_TO_LIVE_HEADER, String.valueOf(fetched.timeToLive().toMillis()));
+        }
+        return response.body(fetched.value());
+    }
+
+    @PutMapping(value = "/{name}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> put(@PathVariable String name, @RequestParam String key, @RequestBody byte[] value,
+            @RequestHeader(value = PeerCacheClient.TOKEN_HEADER, required = false) String requestToken,
+            HttpServletRequest request) {
+        PeerCache cache = peerCache(name);
+        if (cache == null || !onPeerPort(request)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!authorized(requestToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            cache.storeFromPeer(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Rejected cache '{}' entry {} from a peer: {}", name, key, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private PeerCache peerCache(String name) {
+        return cacheManager instanceof PeerCacheManager peers ? peers.getPeerCache(name) : null;
+    }
+
+    // With a separate peer port, the endpoint does not exist on the public one
+    private boolean onPeerPort(HttpServletRequest request) {
+        return peerPort == serverPort || request.getLocalPort() == peerPort;
+    }
+
+    private boolean authorized(String requestToken) {
+        if (!StringUtils.hasText(token)) {
+            return false;
+        }
+        return requestToken != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                requestToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
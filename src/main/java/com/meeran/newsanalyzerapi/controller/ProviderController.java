@@ -0,0 +1,28 @@
+package com.meeran.newsanalyzerapi.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.meeran.newsanalyzerapi.dto.ProviderStatus;
+import com.meeran.newsanalyzerapi.service.LlmProviderRegistry;
+
+@RestController
+@RequestMapping("/api/v1/providers")
+public class ProviderController {
+
+    private final LlmProviderRegistry providerRegistry;
+
+    public ProviderController(LlmProviderRegistry providerRegistry) {
+        this.providerRegistry = providerRegistry;
+    }
+
+    // Live LLM routing table: providers in the order the next call would try them
+    @GetMapping("/routing")
+    public ResponseEntity<List<ProviderStatus>> getRoutingTable() {
+        return ResponseEntity.ok(providerRegistry.snapshot());
+    }
+}
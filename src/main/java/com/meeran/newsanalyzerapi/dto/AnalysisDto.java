@@ -1,6 +1,9 @@
 package com.meeran.newsanalyzerapi.dto;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 public final class AnalysisDto {
 
@@ -18,4 +21,11 @@ public final class AnalysisDto {
         String historicalPerspective,
         String motivationalProverb
     ) {}
-}
\ No newline at end of file
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record BatchRequest(List<String> topics, String language) {}
+
+    // One NDJSON line of a batch response; status is "ok", "not_found" or "error"
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BatchResult(String topic, String status, ProblemAnalysis analysis, String error) {}
+}
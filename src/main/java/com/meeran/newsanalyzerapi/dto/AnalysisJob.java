@@ -0,0 +1,45 @@
+package com.meeran.newsanalyzerapi.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+/**
+ * State of an analysis job submitted through the job API. A job moves from QUEUED to
+ * RUNNING and ends as SUCCEEDED (with the analysis), NOT_FOUND or FAILED (with the error).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AnalysisJob(
+    String id,
+    String topic,
+    String language,
+    Status status,
+    ProblemAnalysis analysis,
+    String error,
+    Instant submittedAt,
+    Instant completedAt
+) {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, NOT_FOUND, FAILED }
+
+    public static AnalysisJob queued(String id, String topic, String language, Instant now) {
+        return new AnalysisJob(id, topic, language, Status.QUEUED, null, null, now, null);
+    }
+
+    public AnalysisJob running() {
+        return new AnalysisJob(id, topic, language, Status.RUNNING, null, null, submittedAt, null);
+    }
+
+    public AnalysisJob succeeded(ProblemAnalysis result, Instant now) {
+        return new AnalysisJob(id, topic, language, Status.SUCCEEDED, result, null, submittedAt, now);
+    }
+
+    public AnalysisJob failed(Status finalStatus, String message, Instant now) {
+        return new AnalysisJob(id, topic, language, finalStatus, null, message, submittedAt, now);
+    }
+
+    public boolean isDone() {
+        return status != Status.QUEUED && status != Status.RUNNING;
+    }
+}
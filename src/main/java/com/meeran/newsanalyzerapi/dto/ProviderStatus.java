@@ -0,0 +1,18 @@
+package com.meeran.newsanalyzerapi.dto;
+
+import java.time.Instant;
+
+// One row of the live LLM routing table
+public record ProviderStatus(
+    int rank,                  // position in the current routing order, -1 if skipped
+    String name,
+    String type,
+    String circuitState,
+    long expectedLatencyMs,    // latency plus error and rate-limit penalties
+    Long ewmaLatencyMs,        // null until the provider has answered
+    double errorRate,
+    long calls,
+    long failures,
+    long rateLimited,
+    Instant openUntil
+) {}
@@ -0,0 +1,279 @@
+package com.meeran.newsanalyzerapi.index;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+/**
+ * In-memory inverted index over article titles and descriptions, ranked with BM25.
+ *
+ * Articles are deduplicated by URL and grouped into time segments by when they were added.
+ * A segment is dropped whole once everything in it is older than the retention, so eviction
+ * never rewrites posting lists. Posting lists are parallel int arrays of document ids and term
+ * frequencies, trimmed to size when their segment stops taking articles. Title terms count
+ * twice, so a match in the headline outranks the same match in the description.
+ *
+ * Thread-safe: searches share a read lock, adds and evictions take the write lock.
+ */
+public class ArticleIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+            "from", "has", "have", "in", "is", "it", "its", "of", "on", "or", "that", "the", "this", "to", "was",
+            "were", "will", "with");
+
+    public record Hit(Article article, double score, int matchedTerms) {}
+
+    private final Duration segmentDuration;
+    private final Duration retention;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Oldest first; only the last one takes new articles
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<String, Segment> segmentByUrl = new HashMap<>();
+    private int totalDocuments;
+    private long totalLength;
+
+    public ArticleIndex(Duration segmentDuration, Duration retention) {
+        this.segmentDuration = segmentDuration;
+        this.retention = retention;
+    }
+
+    // Returns how many of the articles were new; ones without a URL or title are skipped
+    public int add(Collection<Article> articles, Instant now) {
+        lock.writeLock().lock();
+        try {
+            int added = 0;
+            for (Article article : articles) {
+                String url = urlKey(article);
+                if (url == null || article.title() == null || segmentByUrl.containsKey(url)) {
+                    continue;
+                }
+                Segment segment = activeSegment(now);
+                totalLength += segment.add(article);
+                totalDocuments++;
+                segmentByUrl.put(url, segment);
+                added++;
+            }
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops the segments whose newest possible article is older than the retention
+    public int evictExpired(Instant now) {
+        lock.writeLock().lock();
+        try {
+            Instant cutoff = now.minus(retention);
+            int evicted = 0;
+            while (!segments.isEmpty() && !segments.peekFirst().start.plus(segmentDuration).isAfter(cutoff)) {
+                Segment segment = segments.pollFirst();
+                for (Article article : segment.articles) {
+                    segmentByUrl.remove(urlKey(article));
+                }
+                totalDocuments -= segment.articles.size();
+                totalLength -= segment.totalLength;
+                evicted += segment.articles.size();
+            }
+            return evicted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best BM25 matches for the query, highest score first. Only articles containing at least
+     * minTermCoverage of the query's distinct terms are returned.
+     */
+    public List<Hit> search(String query, int limit, double minTermCoverage) {
+        List<String> queryTerms = List.copyOf(termFrequencies(query, 1).keySet());
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int requiredTerms = Math.max(1, (int) Math.ceil(minTermCoverage * queryTerms.size()));
+
+        lock.readLock().lock();
+        try {
+            if (totalDocuments == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / totalDocuments;
+            double[] idf = new double[queryTerms.size()];
+            for (int t = 0; t < queryTerms.size(); t++) {
+                int documentFrequency = 0;
+                for (Segment segment : segments) {
+                    Postings postings = segment.postings.get(queryTerms.get(t));
+                    documentFrequency += postings == null ? 0 : postings.size;
+                }
+                idf[t] = Math.log(1 + (totalDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            for (Segment segment : segments) {
+                segment.collect(queryTerms, idf, averageLength, requiredTerms, limit, best);
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return totalDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Segment activeSegment(Instant now) {
+        Segment last = segments.peekLast();
+        if (last != null && now.isBefore(last.start.plus(segmentDuration))) {
+            return last;
+        }
+        if (last != null) {
+            last.seal();
+        }
+        Segment segment = new Segment(now);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private static String urlKey(Article article) {
+        return article.url() == null || article.url().isBlank() ? null : article.url().trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct terms in order of first appearance, each counted with the given weight
+    static Map<String, Integer> termFrequencies(String text, int weight) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        addTerms(frequencies, text, weight);
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                frequencies.merge(word, weight, Integer::sum);
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final Instant start;
+        private final List<Article> articles = new ArrayList<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        // Weighted term count per document, indexed by document id
+        private int[] lengths = new int[64];
+        private long totalLength;
+
+        private Segment(Instant start) {
+            this.start = start;
+        }
+
+        private int add(Article article) {
+            int document = articles.size();
+            articles.add(article);
+            Map<String, Integer> frequencies = termFrequencies(article.title(), TITLE_WEIGHT);
+            addTerms(frequencies, article.description(), 1);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(document, entry.getValue());
+                length += entry.getValue();
+            }
+            if (document == lengths.length) {
+                lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            }
+            lengths[document] = length;
+            totalLength += length;
+            return length;
+        }
+
+        private void seal() {
+            lengths = Arrays.copyOf(lengths, articles.size());
+            postings.values().forEach(Postings::trim);
+        }
+
+        private void collect(List<String> queryTerms, double[] idf, double averageLength, int requiredTerms,
+                int limit, PriorityQueue<Hit> best) {
+            double[] scores = null;
+            int[] matched = null;
+            for (int t = 0; t < queryTerms.size(); t++) {
+                Postings termPostings = postings.get(queryTerms.get(t));
+                if (termPostings == null) {
+                    continue;
+                }
+                if (scores == null) {
+                    scores = new double[articles.size()];
+                    matched = new int[articles.size()];
+                }
+                for (int i = 0; i < termPostings.size; i++) {
+                    int document = termPostings.documents[i];
+                    int frequency = termPostings.frequencies[i];
+                    double norm = K1 * (1 - B + B * lengths[document] / averageLength);
+                    scores[document] += idf[t] * frequency * (K1 + 1) / (frequency + norm);
+                    matched[document]++;
+                }
+            }
+            if (scores == null) {
+                return;
+            }
+            for (int document = 0; document < scores.length; document++) {
+                if (matched[document] < requiredTerms) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Hit(articles.get(document), scores[document], matched[document]));
+                } else if (scores[document] > best.peek().score()) {
+                    best.poll();
+                    best.add(new Hit(articles.get(document), scores[document], matched[document]));
+                }
+            }
+        }
+    }
+
+    // Document ids in ascending order with their weighted term frequencies
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void trim() {
+            documents = Arrays.copyOf(documents, size);
+            frequencies = Arrays.copyOf(frequencies, size);
+        }
+    }
+}
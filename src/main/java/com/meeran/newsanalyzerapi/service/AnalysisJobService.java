@@ -0,0 +1,126 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.meeran.newsanalyzerapi.dto.AnalysisJob;
+import com.meeran.newsanalyzerapi.dto.AnalysisJob.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs analyses as jobs on the fixed {@code analysisJobExecutor} pool, so a client can
+ * submit a topic, get an id back at once and poll for the result instead of holding a
+ * connection open through the whole provider cascade. The pool's queue is bounded: when it
+ * is full, submissions fail with {@link JobQueueFullException} carrying a Retry-After
+ * estimate. A job for a topic that is already queued or running returns the existing job.
+ *
+ * Jobs call {@link TopicAnalysisService#analyze}, so finished analyses land in the
+ * "analysis" cache like any other request. Job states are kept for
+ * {@code analysis.jobs.retention} after their last update.
+ */
+@Service
+public class AnalysisJobService {
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private final TopicAnalysisService topicAnalysisService;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final Clock clock = Clock.systemUTC();
+    private final Cache<String, AnalysisJob> jobs;
+    // Coalescing key -> id of the queued or running job for it
+    private final Map<String, String> activeJobs = new ConcurrentHashMap<>();
+    private final LatencyTracker jobDurations = new LatencyTracker(50);
+    private final Counter rejectedCounter;
+
+    @Value("${analysis.jobs.default-retry-after-seconds:10}")
+    private long defaultRetryAfterSeconds;
+    @Value("${analysis.jobs.max-retry-after-seconds:120}")
+    private long maxRetryAfterSeconds;
+
+    public AnalysisJobService(TopicAnalysisService topicAnalysisService,
+            @Qualifier("analysisJobExecutor") ThreadPoolTaskExecutor jobExecutor,
+            @Value("${analysis.jobs.retention:1h}") Duration retention,
+            @Value("${analysis.jobs.max-retained:10000}") long maxRetained,
+            MeterRegistry meterRegistry) {
+        this.topicAnalysisService = topicAnalysisService;
+        this.jobExecutor = jobExecutor;
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(retention).maximumSize(maxRetained).build();
+        this.rejectedCounter = Counter.builder("analysis.jobs.rejected")
+                .description("Job submissions turned away because the job queue was full")
+                .register(meterRegistry);
+        Gauge.builder("analysis.jobs.queued", jobExecutor, executor -> executor.getQueueSize())
+                .description("Analysis jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    public synchronized AnalysisJob submit(String topic, String language) {
+        String key = RequestCoalescer.key(topic, language);
+        String activeId = activeJobs.get(key);
+        AnalysisJob active = activeId == null ? null : jobs.getIfPresent(activeId);
+        if (active != null && !active.isDone()) {
+            return active;
+        }
+
+        AnalysisJob job = AnalysisJob.queued(UUID.randomUUID().toString(), topic, language, clock.instant());
+        jobs.put(job.id(), job);
+        activeJobs.put(key, job.id());
+        try {
+            jobExecutor.execute(() -> run(job, key));
+        } catch (TaskRejectedException e) {
+            jobs.invalidate(job.id());
+            activeJobs.remove(key, job.id());
+            rejectedCounter.increment();
+            throw new JobQueueFullException(retryAfterSeconds());
+        }
+        logger.info("Queued analysis job {} for topic: {} in language: {}", job.id(), topic, language);
+        return job;
+    }
+
+    public Optional<AnalysisJob> find(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private void run(AnalysisJob job, String key) {
+        long start = clock.millis();
+        jobs.put(job.id(), job.running());
+        try {
+            jobs.put(job.id(), job.succeeded(topicAnalysisService.analyze(job.topic(), job.language()), clock.instant()));
+        } catch (NoArticlesFoundException e) {
+            jobs.put(job.id(), job.failed(Status.NOT_FOUND, e.getMessage(), clock.instant()));
+        } catch (RuntimeException e) {
+            logger.error("Analysis job {} failed for topic: {}", job.id(), job.topic(), e);
+            jobs.put(job.id(), job.failed(Status.FAILED, e.getMessage(), clock.instant()));
+        } finally {
+            activeJobs.remove(key, job.id());
+            jobDurations.record(clock.millis() - start);
+        }
+    }
+
+    // Time for the queue ahead of a new job to drain: median job duration per round of workers
+    long retryAfterSeconds() {
+        long medianMillis = jobDurations.percentile(0.5);
+        if (medianMillis < 0) {
+            return defaultRetryAfterSeconds;
+        }
+        int workers = Math.max(1, jobExecutor.getMaxPoolSize());
+        long rounds = 1 + jobExecutor.getQueueSize() / workers;
+        long seconds = (long) Math.ceil(medianMillis * rounds / 1000.0);
+        return Math.min(Math.max(seconds, 1), maxRetryAfterSeconds);
+    }
+}
@@ -0,0 +1,75 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+/**
+ * Serializes and gzips each cached analysis once, so answering a cache hit only copies bytes.
+ *
+ * Renderings are keyed by the identity of the analysis instance held in the "analysis" cache and
+ * hold it only weakly: when the entry is evicted or replaced (e.g. by refresh-ahead) the
+ * rendering goes with it, and the next analysis is rendered afresh with a new entity tag.
+ */
+@Component
+public class AnalysisRenderer {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Values must not reference their key, or the analysis would never become weakly reachable
+    private final Cache<ProblemAnalysis, RenderedAnalysis> renderings = Caffeine.newBuilder().weakKeys().build();
+    private Clock clock = Clock.systemUTC();
+
+    // timeToLive is only asked for the first time an analysis instance is rendered
+    public RenderedAnalysis render(ProblemAnalysis analysis, Supplier<Optional<Duration>> timeToLive) {
+        return renderings.get(analysis, key -> renderNow(key, timeToLive.get()));
+    }
+
+    private RenderedAnalysis renderNow(ProblemAnalysis analysis, Optional<Duration> timeToLive) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(analysis);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize analysis", e);
+        }
+        Instant expiresAt = timeToLive.map(clock.instant()::plus).orElse(null);
+        return new RenderedAnalysis(json, gzip(json), contentHash(json), expiresAt);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip analysis", e);
+        }
+        return out.toByteArray();
+    }
+
+    // First 128 bits of the SHA-256 of the JSON body, hex encoded
+    private static String contentHash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,90 +1,180 @@
 package com.meeran.newsanalyzerapi.service;
 
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.cache.AnalysisKey;
+import com.meeran.newsanalyzerapi.cache.CacheEntryAges;
 import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
 import com.meeran.newsanalyzerapi.dto.Article;
 import com.meeran.newsanalyzerapi.dto.GeminiDto;
+import com.meeran.newsanalyzerapi.service.LlmProvider.Purpose;
+import com.meeran.newsanalyzerapi.service.LlmResponseDecoder.Decoded;
+import com.meeran.newsanalyzerapi.service.LlmResponseDecoder.TextReader;
+import com.meeran.newsanalyzerapi.service.PromptAssembler.AssembledPrompt;
 
 @Service
 public class AnalysisService {
     private static final Logger logger = LoggerFactory.getLogger(AnalysisService.class);
     private final RestTemplate restTemplate;
+    private final NonBlockingHttpClient nonBlockingHttpClient;
+    private final LlmProviderRegistry providerRegistry;
+    private final CacheManager cacheManager;
+    private final PromptAssembler promptAssembler;
+    private final UpstreamMetrics metrics;
+    private final UpstreamRateLimiter rateLimiter;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public AnalysisService(RestTemplate restTemplate) {
+    // Share of LLM responses whose body is logged when DEBUG is enabled, and how much of each
+    @Value("${llm.log.response-sample-rate:0.01}")
+    private double responseLogSampleRate;
+    @Value("${llm.log.response-max-bytes:2048}")
+    private int responseLogMaxBytes;
+
+    public AnalysisService(RestTemplate restTemplate, NonBlockingHttpClient nonBlockingHttpClient,
+            LlmProviderRegistry providerRegistry, CacheManager cacheManager, PromptAssembler promptAssembler,
+            UpstreamMetrics metrics, UpstreamRateLimiter rateLimiter) {
         this.restTemplate = restTemplate;
+        this.nonBlockingHttpClient = nonBlockingHttpClient;
+        this.providerRegistry = providerRegistry;
+        this.cacheManager = cacheManager;
+        this.promptAssembler = promptAssembler;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
     }
 
-    // --- Primary Provider Config ---
-    @Value("${llm.primary.api.key}")
-    private String primaryApiKey;
-    @Value("${llm.primary.api.url}")
-    private String primaryApiUrl;
-    @Value("${llm.primary.model.analysis}")
-    private String primaryAnalysisModel;
-    @Value("${llm.primary.model.suggestions}")
-    private String primarySuggestionsModel;
-    @Value("${llm.primary.model.random}")
-    private String primaryRandomModel;
-
-    // --- Secondary Provider Config ---
-    @Value("${llm.secondary.provider}")
-    private String secondaryProvider;
-    @Value("${llm.secondary.api.key}")
-    private String secondaryApiKey;
-    @Value("${llm.secondary.api.url}")
-    private String secondaryApiUrl;
-    @Value("${llm.secondary.model.analysis}")
-    private String secondaryAnalysisModel;
-    @Value("${llm.secondary.model.suggestions}")
-    private String secondarySuggestionsModel;
-    @Value("${llm.secondary.model.random}")
-    private String secondaryRandomModel;
-
-    // --- Third Provider Config ---
-    @Value("${llm.third.provider}")
-    private String thirdProvider;
-    @Value("${llm.third.api.key}")
-    private String thirdApiKey;
-    @Value("${llm.third.api.url}")
-    private String thirdApiUrl;
-    @Value("${llm.third.model.analysis}")
-    private String thirdAnalysisModel;
-    @Value("${llm.third.model.suggestions}")
-    private String thirdSuggestionsModel;
-    @Value("${llm.third.model.random}")    
-    private String thirdRandomModel;
-
     // Backwards compatibility method
-    @Cacheable("analysis")
+    @Cacheable(value = "analysis", keyGenerator = "analysisKeyGenerator")
     public ProblemAnalysis analyzeTopic(String topic, List<Article> articles) {
         return analyzeTopic(topic, articles, "english");
     }
     
-    @Cacheable("analysis")
+    @Cacheable(value = "analysis", keyGenerator = "analysisKeyGenerator")
     public ProblemAnalysis analyzeTopic(String topic, List<Article> articles, String language) {
-        String consolidatedContent = articles.stream()
-                .map(article -> "Title: " + article.title() + "\nDescription: " + article.description())
-                .collect(Collectors.joining("\n\n"));
+        return generateAnalysis(topic, articles, language);
+    }
+
+    // Uncached analysis; used by the "analysis" cache loader and by refresh-ahead.
+    public ProblemAnalysis generateAnalysis(String topic, List<Article> articles, String language) {
+        AnalysisPrompts prompts = new AnalysisPrompts(topic, articles, language);
+
+        try {
+            return executeWithFailover(Purpose.ANALYSIS, prompts, "application/json", this::readAnalysis);
+        } catch (LlmProvidersUnavailableException e) {
+            throw analysisFailure(e.getCause());
+        } finally {
+            prompts.recordSent();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #analyzeTopic(String, List, String)}. Shares the
+     * "analysis" cache and key with it and uses the same provider routing.
+     */
+    @Cacheable(value = "analysis", keyGenerator = "analysisKeyGenerator")
+    public CompletableFuture<ProblemAnalysis> analyzeTopicAsync(String topic, List<Article> articles, String language) {
+        AnalysisPrompts prompts = new AnalysisPrompts(topic, articles, language);
+        return executeWithFailoverAsync(providerRegistry.routingOrder().iterator(), Purpose.ANALYSIS, prompts,
+                "application/json", this::readAnalysis, RequestDeadline.current(), null)
+                .whenComplete((analysis, ex) -> prompts.recordSent())
+                .exceptionallyCompose(ex -> CompletableFuture.failedFuture(
+                        analysisFailure(unwrap(ex) instanceof LlmProvidersUnavailableException unavailable
+                                ? unavailable.getCause() : unwrap(ex))));
+    }
 
+    // Maps the last provider failure to the message shown to the user
+    private RuntimeException analysisFailure(Throwable lastFailure) {
+        if (lastFailure instanceof DeadlineExceededException deadlineExceeded) {
+            return deadlineExceeded;
+        }
+        if (lastFailure instanceof HttpClientErrorException || lastFailure instanceof UpstreamThrottledException) {
+            return new RuntimeException("Content analysis unavailable. This topic may be restricted by our AI providers or experiencing high demand. Please try a different topic.", lastFailure);
+        }
+        if (lastFailure instanceof HttpServerErrorException) {
+            return new RuntimeException("Analysis service temporarily unavailable. Please try again in a few moments.", lastFailure);
+        }
+        if (lastFailure instanceof IOException || lastFailure instanceof UncheckedIOException) {
+            return new RuntimeException("All LLM providers returned invalid responses.", lastFailure);
+        }
+        return new RuntimeException("Unable to analyze this topic. Please try a different topic or try again later.", lastFailure);
+    }
+
+    // The prompt for each provider, sized to its token budget; providers sharing a budget share the
+    // prompt. The last prompt handed out is the one the analysis ended with, and only its packing
+    // is recorded.
+    private final class AnalysisPrompts implements Function<LlmProvider, String> {
+        private final String topic;
+        private final List<Article> articles;
+        private final String language;
+        private final Map<Integer, AssembledPrompt> promptsByBudget = new ConcurrentHashMap<>();
+        private final AtomicReference<AssembledPrompt> lastSent = new AtomicReference<>();
+
+        private AnalysisPrompts(String topic, List<Article> articles, String language) {
+            this.topic = topic;
+            this.articles = articles;
+            this.language = language;
+        }
+
+        @Override
+        public String apply(LlmProvider provider) {
+            AssembledPrompt prompt = promptsByBudget.computeIfAbsent(promptAssembler.tokenBudget(provider),
+                    budget -> assembleAnalysisPrompt(topic, articles, language, budget));
+            lastSent.set(prompt);
+            return prompt.text();
+        }
+
+        void recordSent() {
+            AssembledPrompt prompt = lastSent.getAndSet(null);
+            if (prompt != null) {
+                promptAssembler.recordSent(prompt);
+            }
+        }
+    }
+
+    // Package-private, like decodeLlmResponse and sanitizeLlmText, for the benchmarks in src/jmh
+    String buildAnalysisPrompt(String topic, List<Article> articles, String language, int tokenBudget) {
+        return assembleAnalysisPrompt(topic, articles, language, tokenBudget).text();
+    }
+
+    private AssembledPrompt assembleAnalysisPrompt(String topic, List<Article> articles, String language,
+            int tokenBudget) {
         boolean isTamil = "tamil".equalsIgnoreCase(language);
         
         String prompt = isTamil ? 
@@ -129,190 +219,495 @@ public class AnalysisService {
                 %s
                 """;
         
-        prompt = prompt.formatted(topic, consolidatedContent);
-
-        try {
-            String jsonResponseText = callLlmApi(prompt, primaryApiUrl, primaryAnalysisModel, primaryApiKey,
-                    "application/json");
-            try {
-                return objectMapper.readValue(jsonResponseText, ProblemAnalysis.class);
-            } catch (Exception parseEx) {
-                logger.warn("Primary provider (Gemini) returned unparsable JSON. Attempting secondary provider.");
-                // Try secondary provider immediately
-                try {
-                    String secondaryJson = callLlmApi(prompt, secondaryApiUrl, secondaryAnalysisModel, secondaryApiKey,
-                            "application/json");
-                    return objectMapper.readValue(secondaryJson, ProblemAnalysis.class);
-                } catch (Exception secondaryEx) {
-                    logger.warn("Secondary provider also failed to parse JSON. Attempting third provider (OpenRouter).");
-                    // Try third provider
-                    try {
-                        String thirdJson = callLlmApi(prompt, thirdApiUrl, thirdAnalysisModel, thirdApiKey,
-                                "application/json");
-                        return objectMapper.readValue(thirdJson, ProblemAnalysis.class);
-                    } catch (Exception thirdEx) {
-                        logger.error("All three LLM providers failed to parse JSON.", thirdEx);
-                        throw new RuntimeException("All LLM providers returned invalid responses.", thirdEx);
-                    }
-                }
-            }
-        } catch (HttpClientErrorException e) {
-            logger.warn("Primary provider (Gemini) failed with status {}: {}. Failing over to secondary provider.",
-                    e.getStatusCode(), e.getResponseBodyAsString());
-            try {
-                String jsonResponseText = callLlmApi(prompt, secondaryApiUrl, secondaryAnalysisModel, secondaryApiKey,
-                        "application/json");
-                return objectMapper.readValue(jsonResponseText, ProblemAnalysis.class);
-            } catch (Exception secondaryEx) {
-                logger.warn("Secondary provider also failed. Failing over to third provider (OpenRouter).");
-                try {
-                    String thirdJson = callLlmApi(prompt, thirdApiUrl, thirdAnalysisModel, thirdApiKey,
-                            "application/json");
-                    return objectMapper.readValue(thirdJson, ProblemAnalysis.class);
-                } catch (Exception thirdEx) {
-                    logger.error("All three providers failed.", thirdEx);
-                    throw new RuntimeException("Content analysis unavailable. This topic may be restricted by our AI providers or experiencing high demand. Please try a different topic.", thirdEx);
-                }
-            }
-        } catch (HttpServerErrorException e) {
-            logger.warn("Primary provider (Gemini) server error ({}). Failing over to secondary provider.",
-                    e.getClass().getSimpleName());
-            try {
-                String jsonResponseText = callLlmApi(prompt, secondaryApiUrl, secondaryAnalysisModel, secondaryApiKey,
-                        "application/json");
-                return objectMapper.readValue(jsonResponseText, ProblemAnalysis.class);
-            } catch (Exception secondaryEx) {
-                logger.warn("Secondary provider also failed. Failing over to third provider (OpenRouter).");
-                try {
-                    String thirdJson = callLlmApi(prompt, thirdApiUrl, thirdAnalysisModel, thirdApiKey,
-                            "application/json");
-                    return objectMapper.readValue(thirdJson, ProblemAnalysis.class);
-                } catch (Exception thirdEx) {
-                    logger.error("All three providers failed.", thirdEx);
-                    throw new RuntimeException("Analysis service temporarily unavailable. Please try again in a few moments.", thirdEx);
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error during LLM analysis", e);
-            throw new RuntimeException("Unable to analyze this topic. Please try a different topic or try again later.", e);
+        int templateTokens = PromptAssembler.estimateTokens(prompt.formatted(topic, ""));
+        PromptAssembler.PackedArticles packed = promptAssembler.pack(topic, articles, tokenBudget - templateTokens);
+        if (packed.duplicates() > 0 || packed.overBudget() > 0) {
+            logger.info("Analysis prompt for '{}' uses {} of {} articles ({} near-duplicates, {} over the {}-token budget).",
+                    topic, packed.articlesUsed(), articles.size(), packed.duplicates(), packed.overBudget(), tokenBudget);
         }
+        return new AssembledPrompt(prompt.formatted(topic, packed.content()), packed);
     }
 
     @Cacheable("topicSuggestions")
     public String getTopicSuggestions() {
         String prompt = "List 8 current and globally relevant news topics suitable for deep analysis. The topics should be 2-4 words long. Respond ONLY with a valid JSON array of strings. Example: [\"Global AI Regulation\", \"Future of Urban Mobility\"]";
         try {
-            return callLlmApi(prompt, primaryApiUrl, primarySuggestionsModel, primaryApiKey, "application/json");
-        } catch (HttpClientErrorException.TooManyRequests | HttpServerErrorException e) {
-            logger.warn("Primary provider (Gemini) unavailable ({}). Failing over to secondary provider.",
-                    e.getClass().getSimpleName());
-            try {
-                return callLlmApi(prompt, secondaryApiUrl, secondarySuggestionsModel, secondaryApiKey,
-                        "application/json");
-            } catch (Exception secondaryEx) {
-                logger.warn("Secondary provider also failed for suggestions. Failing over to third provider (OpenRouter).");
-                try {
-                    return callLlmApi(prompt, thirdApiUrl, thirdSuggestionsModel, thirdApiKey,
-                            "application/json");
-                } catch (Exception thirdEx) {
-                    logger.error("All three providers failed for suggestions.", thirdEx);
-                    return "[]";
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error fetching topic suggestions", e);
+            return executeWithFailover(Purpose.SUGGESTIONS, provider -> prompt, "application/json", LlmResponseDecoder.AS_STRING);
+        } catch (LlmProvidersUnavailableException e) {
+            logger.error("All providers failed for suggestions.", e.getCause());
             return "[]";
         }
     }
 
-    // @Cacheable("randomTopic")
+    // One topic from a synchronous LLM call; the random-topic endpoint normally serves from RandomTopicPool
     public String getRandomSingleTopic() {
         String prompt = "Generate a single, interesting, and globally relevant news topic suitable for deep analysis. The topic should be 3-5 words long. Respond ONLY with the topic as a single plain text string, without quotes or any other formatting.";
         try {
-            return callLlmApi(prompt, primaryApiUrl, primaryRandomModel, primaryApiKey, "text/plain");
-        } catch (HttpClientErrorException.TooManyRequests | HttpServerErrorException e) {
-            logger.warn("Primary provider (Gemini) unavailable ({}). Failing over to secondary provider.",
-                    e.getClass().getSimpleName());
+            return executeWithFailover(Purpose.RANDOM, provider -> prompt, "text/plain", LlmResponseDecoder.AS_STRING);
+        } catch (LlmProvidersUnavailableException e) {
+            logger.error("All providers failed for random topic.", e.getCause());
+            return "Global economic trends";
+        }
+    }
+
+    // A batch of random topics for the RandomTopicPool; empty if every provider failed
+    public List<String> generateRandomTopics(int count) {
+        String prompt = "Generate " + count + " distinct, interesting, and globally relevant news topics suitable for deep analysis, covering different regions and subjects. Each topic should be 3-5 words long. Respond ONLY with a valid JSON array of strings. Example: [\"Global Semiconductor Supply Chains\", \"Arctic Shipping Route Disputes\"]";
+        try {
+            return executeWithFailover(Purpose.RANDOM, provider -> prompt, "application/json", this::readTopics);
+        } catch (LlmProvidersUnavailableException e) {
+            logger.error("All providers failed for random topics.", e.getCause());
+            return List.of();
+        }
+    }
+
+    public Optional<ProblemAnalysis> getCachedAnalysis(String topic, List<Article> articles, String language) {
+        Cache cache = cacheManager.getCache("analysis");
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(analysisCacheKey(topic, articles, language), ProblemAnalysis.class));
+    }
+
+    // Time left before the cached analysis for these articles expires
+    public Optional<Duration> cachedTimeToLive(String topic, List<Article> articles, String language) {
+        Cache cache = cacheManager.getCache("analysis");
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return CacheEntryAges.timeToLiveOf(cache, analysisCacheKey(topic, articles, language));
+    }
+
+    public void cacheAnalysis(String topic, List<Article> articles, String language, ProblemAnalysis analysis) {
+        Cache cache = cacheManager.getCache("analysis");
+        if (cache != null) {
+            cache.put(analysisCacheKey(topic, articles, language), analysis);
+        }
+    }
+
+    // Same key analysisKeyGenerator builds for @Cacheable analyzeTopic(topic, articles, language)
+    static Object analysisCacheKey(String topic, List<Article> articles, String language) {
+        return AnalysisKey.of(topic, articles, language);
+    }
+
+    /**
+     * Streaming variant of {@link #analyzeTopic(String, List, String)}: uses the providers'
+     * streaming endpoints and reports each analysis field through {@code onField} as soon as
+     * the LLM has produced it. The final result is written into the "analysis" cache.
+     * Fails over to the next provider only while nothing has been emitted yet.
+     */
+    public ProblemAnalysis streamAnalysis(String topic, List<Article> articles, String language,
+            BiConsumer<String, String> onField) {
+        AnalysisPrompts prompts = new AnalysisPrompts(topic, articles, language);
+        try {
+            return streamWithFailover(topic, articles, language, onField, prompts);
+        } finally {
+            prompts.recordSent();
+        }
+    }
+
+    private ProblemAnalysis streamWithFailover(String topic, List<Article> articles, String language,
+            BiConsumer<String, String> onField, AnalysisPrompts prompts) {
+        RequestDeadline deadline = RequestDeadline.current();
+        Exception lastFailure = null;
+        for (LlmProvider provider : providerRegistry.routingOrder()) {
+            checkDeadline(deadline, provider, lastFailure);
+            if (!providerRegistry.tryAcquire(provider)) {
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.CIRCUIT_OPEN);
+                continue;
+            }
+            boolean[] emitted = { false };
+            AnalysisStreamParser parser = new AnalysisStreamParser((field, value) -> {
+                emitted[0] = true;
+                onField.accept(field, value);
+            });
+            long start = System.nanoTime();
             try {
-                return callLlmApi(prompt, secondaryApiUrl, secondaryRandomModel, secondaryApiKey, "text/plain");
-            } catch (Exception secondaryEx) {
-                logger.warn("Secondary provider also failed for random topic. Failing over to third provider (OpenRouter).");
-                try {
-                    return callLlmApi(prompt, thirdApiUrl, thirdRandomModel, thirdApiKey, "text/plain");
-                } catch (Exception thirdEx) {
-                    logger.error("All three providers failed for random topic.", thirdEx);
-                    return "Global economic trends";
+                String prompt = prompts.apply(provider);
+                metrics.recordLlmPayload(provider.displayName(), prompt, -1);
+                rateLimiter.acquire(rateLimitSlot(provider), provider.displayName(), provider.apiKey());
+                streamLlmApi(prompt, provider, provider.model(Purpose.ANALYSIS), "application/json", deadline,
+                        parser::accept);
+                ProblemAnalysis analysis = parser.isComplete()
+                        ? objectMapper.convertValue(parser.fields(), ProblemAnalysis.class)
+                        : objectMapper.readValue(sanitizeLlmText(parser.rawText()), ProblemAnalysis.class);
+                providerRegistry.recordSuccess(provider, elapsedMillis(start));
+                metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, UpstreamMetrics.SUCCESS);
+                cacheAnalysis(topic, articles, language, analysis);
+                return analysis;
+            } catch (DeadlineExceededException e) {
+                // Cut short by the request's budget, so the provider's health is unchanged
+                providerRegistry.release(provider);
+                throw e;
+            } catch (UpstreamThrottledException e) {
+                providerRegistry.release(provider);
+                lastFailure = e;
+                logger.warn("LLM provider {} throttled locally: {} Failing over to next provider.",
+                        provider.displayName(), e.getMessage());
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.causeOf(e));
+            } catch (Exception e) {
+                rateLimiter.recordFailure(rateLimitSlot(provider), provider.displayName(), provider.apiKey(), e);
+                providerRegistry.recordFailure(provider, elapsedMillis(start), e);
+                metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, e);
+                lastFailure = e;
+                if (emitted[0]) {
+                    logger.error("LLM provider {} failed mid-stream; cannot fail over after partial output.",
+                            provider.displayName(), e);
+                    throw new RuntimeException("Analysis stream was interrupted. Please try again.", e);
                 }
+                logger.warn("LLM provider {} failed to stream analysis ({}). Failing over to next provider.",
+                        provider.displayName(), e.getClass().getSimpleName());
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.causeOf(e));
             }
-        } catch (Exception e) {
-            logger.error("Error fetching random topic", e);
-            return "Global economic trends";
         }
+        logger.error("All providers failed to stream analysis.", lastFailure);
+        throw analysisFailure(lastFailure);
     }
 
-    private String callLlmApi(String prompt, String baseUrl, String model, String apiKey, String mimeType) {
+    /**
+     * Tries the providers in the registry's routing order until one returns a response
+     * the reader accepts, recording each outcome so routing adapts to provider health.
+     */
+    private <T> T executeWithFailover(Purpose purpose, Function<LlmProvider, String> prompts, String mimeType,
+            TextReader<T> reader) {
+        RequestDeadline deadline = RequestDeadline.current();
+        Exception lastFailure = null;
+        for (LlmProvider provider : providerRegistry.routingOrder()) {
+            checkDeadline(deadline, provider, lastFailure);
+            if (!providerRegistry.tryAcquire(provider)) {
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.CIRCUIT_OPEN);
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                T result = callLlmApi(prompts.apply(provider), provider, provider.model(purpose), mimeType, reader,
+                        deadline);
+                providerRegistry.recordSuccess(provider, elapsedMillis(start));
+                return result;
+            } catch (DeadlineExceededException e) {
+                // Cut short by the request's budget, so the provider's health is unchanged
+                providerRegistry.release(provider);
+                throw e;
+            } catch (UpstreamThrottledException e) {
+                // Not sent, so the provider's health is unchanged
+                providerRegistry.release(provider);
+                lastFailure = e;
+                logger.warn("LLM provider {} throttled locally: {} Failing over to next provider.",
+                        provider.displayName(), e.getMessage());
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.causeOf(e));
+            } catch (HttpClientErrorException e) {
+                providerRegistry.recordFailure(provider, elapsedMillis(start), e);
+                lastFailure = e;
+                logger.warn("LLM provider {} failed with status {}: {}. Failing over to next provider.",
+                        provider.displayName(), e.getStatusCode(), e.getResponseBodyAsString());
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.causeOf(e));
+            } catch (Exception e) {
+                providerRegistry.recordFailure(provider, elapsedMillis(start), e);
+                lastFailure = e;
+                logger.warn("LLM provider {} failed ({}). Failing over to next provider.",
+                        provider.displayName(), e.getClass().getSimpleName());
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.causeOf(e));
+            }
+        }
+        throw new LlmProvidersUnavailableException(lastFailure);
+    }
+
+    // Non-blocking counterpart of executeWithFailover.
+    private <T> CompletableFuture<T> executeWithFailoverAsync(Iterator<LlmProvider> providers, Purpose purpose,
+            Function<LlmProvider, String> prompts, String mimeType, TextReader<T> reader, RequestDeadline deadline,
+            Throwable lastFailure) {
+        while (providers.hasNext()) {
+            LlmProvider provider = providers.next();
+            try {
+                checkDeadline(deadline, provider, lastFailure);
+            } catch (DeadlineExceededException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            if (!providerRegistry.tryAcquire(provider)) {
+                metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.CIRCUIT_OPEN);
+                continue;
+            }
+            long start = System.nanoTime();
+            return callLlmApiAsync(prompts.apply(provider), provider, provider.model(purpose), mimeType, reader, deadline)
+                    .thenApply(result -> {
+                        providerRegistry.recordSuccess(provider, elapsedMillis(start));
+                        return result;
+                    })
+                    .exceptionallyCompose(ex -> {
+                        Throwable cause = unwrap(ex);
+                        if (cause instanceof DeadlineExceededException) {
+                            providerRegistry.release(provider);
+                            return CompletableFuture.failedFuture(cause);
+                        }
+                        if (cause instanceof UpstreamThrottledException) {
+                            providerRegistry.release(provider);
+                        } else {
+                            providerRegistry.recordFailure(provider, elapsedMillis(start), cause);
+                        }
+                        logger.warn("LLM provider {} failed ({}). Failing over to next provider.",
+                                provider.displayName(), cause.getClass().getSimpleName());
+                        metrics.recordFailover(UpstreamMetrics.LLM, provider.displayName(), UpstreamMetrics.causeOf(cause));
+                        return executeWithFailoverAsync(providers, purpose, prompts, mimeType, reader, deadline, cause);
+                    });
+        }
+        return CompletableFuture.failedFuture(new LlmProvidersUnavailableException(lastFailure));
+    }
+
+    // The first provider needs some budget left, a failover to the next one enough for a whole attempt
+    private static void checkDeadline(RequestDeadline deadline, LlmProvider provider, Throwable lastFailure) {
+        if (lastFailure == null) {
+            deadline.check("calling " + provider.displayName());
+        } else {
+            deadline.checkAttempt("failing over to " + provider.displayName());
+        }
+    }
+
+    // Signals that every provider in the routing order failed; the cause is the last failure.
+    private static class LlmProvidersUnavailableException extends RuntimeException {
+        LlmProvidersUnavailableException(Throwable lastFailure) {
+            super("All LLM providers failed.", lastFailure);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // Calls the provider's streaming endpoint and hands every text delta to onText as it arrives.
+    // Stops reading once the deadline has passed or the client has gone away.
+    private void streamLlmApi(String prompt, LlmProvider provider, String model, String mimeType,
+            RequestDeadline deadline, Consumer<String> onText) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
 
         Object requestBody;
         String fullUrl;
+        String textPointer;
 
-        // Differentiate between Gemini and OpenAI-compatible (OpenRouter) API structures
-        if (baseUrl.contains("openrouter")) {
-            headers.set("Authorization", "Bearer " + apiKey);
+        if (provider.isOpenRouter()) {
+            headers.set("Authorization", "Bearer " + provider.apiKey());
             requestBody = Map.of(
                     "model", model,
+                    "stream", true,
                     "messages", List.of(Map.of("role", "user", "content", prompt)));
-            fullUrl = baseUrl;
+            fullUrl = provider.apiUrl();
+            textPointer = "/choices/0/delta/content";
         } else { // Gemini
             var parts = List.of(new GeminiDto.Part(prompt));
             var contents = List.of(new GeminiDto.Content(parts));
             var generationConfig = new GeminiDto.GenerationConfig(mimeType);
             requestBody = new GeminiDto.GeminiRequest(contents, generationConfig);
-            fullUrl = baseUrl + model + ":generateContent?key=" + apiKey;
+            fullUrl = provider.apiUrl() + model + ":streamGenerateContent?alt=sse&key=" + provider.apiKey();
+            textPointer = "/candidates/0/content/parts/0/text";
         }
 
         HttpEntity<Object> entity = new HttpEntity<>(requestBody, headers);
+        UpstreamHttpClients.withSlot(rateLimitSlot(provider), () -> restTemplate.execute(fullUrl, HttpMethod.POST,
+                restTemplate.httpEntityCallback(entity, String.class),
+                response -> {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            deadline.check("the rest of the " + provider.displayName() + " stream");
+                            // Only "data:" lines carry payloads; comments and blank separators are skipped
+                            if (!line.startsWith("data:")) {
+                                continue;
+                            }
+                            String data = line.substring(5).trim();
+                            if ("[DONE]".equals(data)) {
+                                break;
+                            }
+                            JsonNode text = objectMapper.readTree(data).at(textPointer);
+                            if (text.isTextual()) {
+                                onText.accept(text.asText());
+                            }
+                        }
+                    }
+                    return null;
+                }));
+    }
+
+    // The response is decoded off the wire; an unreadable envelope surfaces as ResourceAccessException and is retried.
+    // A retry is only made while the deadline still covers a whole attempt.
+    private <T> T callLlmApi(String prompt, LlmProvider provider, String model, String mimeType, TextReader<T> reader,
+            RequestDeadline deadline) {
+        LlmRequest request = buildLlmRequest(prompt, provider, model, mimeType);
+        HttpEntity<Object> entity = new HttpEntity<>(request.body(), request.headers());
 
         int attempts = 0;
+        ResourceAccessException lastFailure = null;
         while (attempts < 2) {
+            if (attempts > 0) {
+                deadline.checkAttempt("retrying " + provider.displayName());
+            }
+            rateLimiter.acquire(rateLimitSlot(provider), provider.displayName(), provider.apiKey());
+            long start = System.nanoTime();
             try {
-                var response = restTemplate.postForEntity(fullUrl, entity, String.class);
-                logger.info("LLM API response status={} body={}", response.getStatusCode().value(), response.getBody());
-
-                String responseBody = response.getBody();
-                String jsonText;
-                // Parse the response differently based on the provider
-                if (baseUrl.contains("openrouter")) {
-                    jsonText = objectMapper.readTree(responseBody).at("/choices/0/message/content").asText();
-                } else { // Gemini
-                    jsonText = objectMapper.readTree(responseBody).at("/candidates/0/content/parts/0/text").asText();
-                }
-
-                // SANITIZATION :: Trim whitespace and remove potential markdown code blocks
-                String sanitizedJson = jsonText.trim();
-                if (sanitizedJson.startsWith("```json")) {
-                    sanitizedJson = sanitizedJson.substring(7);
-                    if (sanitizedJson.endsWith("```")) {
-                        sanitizedJson = sanitizedJson.substring(0, sanitizedJson.length() - 3);
-                    }
-                } else if (sanitizedJson.startsWith("`") && sanitizedJson.endsWith("`")) {
-                    sanitizedJson = sanitizedJson.substring(1, sanitizedJson.length() - 1);
-                }
-
-                return sanitizedJson.trim(); // Return the cleaned JSON string
+                Decoded<T> decoded = UpstreamHttpClients.withSlot(rateLimitSlot(provider),
+                        () -> restTemplate.execute(request.url(), HttpMethod.POST,
+                                restTemplate.httpEntityCallback(entity, String.class),
+                                response -> decodeLlmResponse(provider, response.getBody(), reader)));
+                metrics.recordLlmPayload(provider.displayName(), prompt, decoded.responseBytes());
+                metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, UpstreamMetrics.SUCCESS);
+                return decoded.value();
             } catch (ResourceAccessException e) {
                 attempts++;
+                lastFailure = e;
                 logger.warn("LLM API request attempt {} failed due to resource access: {}", attempts, e.getMessage());
-            } catch (IOException e) {
-                attempts++;
-                logger.warn("LLM API request attempt {} failed due to IO: {}", attempts, e.getMessage());
+                recordFailedAttempt(provider, start, attempts, deadline, e);
+            } catch (RuntimeException e) {
+                metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, e);
+                rateLimiter.recordFailure(rateLimitSlot(provider), provider.displayName(), provider.apiKey(), e);
+                throw e;
             }
         }
 
-        logger.error("LLM API request failed after {} attempts; returning fallback response", attempts);
-        return "[]";
+        logger.error("LLM API request to {} failed after {} attempts", provider.displayName(), attempts);
+        throw lastFailure;
+    }
+
+    // Times one attempt of callLlmApi; a failure the deadline leaves room to retry also counts as a retry
+    private void recordFailedAttempt(LlmProvider provider, long start, int attempts, RequestDeadline deadline,
+            Exception failure) {
+        metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, failure);
+        if (attempts < 2 && deadline.allowsAttempt()) {
+            metrics.recordRetry(UpstreamMetrics.LLM, provider.displayName(), failure);
+        }
+    }
+
+    // Non-blocking counterpart of callLlmApi with the same retry rules.
+    private <T> CompletableFuture<T> callLlmApiAsync(String prompt, LlmProvider provider, String model,
+            String mimeType, TextReader<T> reader, RequestDeadline deadline) {
+        return attemptLlmCallAsync(prompt, buildLlmRequest(prompt, provider, model, mimeType), provider, reader,
+                deadline, 1);
+    }
+
+    private <T> CompletableFuture<T> attemptLlmCallAsync(String prompt, LlmRequest request, LlmProvider provider,
+            TextReader<T> reader, RequestDeadline deadline, int attempt) {
+        String slot = rateLimitSlot(provider);
+        return rateLimiter.acquireAsync(slot, provider.displayName(), provider.apiKey())
+                .thenCompose(permit -> sendLlmRequestAsync(prompt, request, provider, reader, deadline, attempt));
+    }
+
+    private <T> CompletableFuture<T> sendLlmRequestAsync(String prompt, LlmRequest request, LlmProvider provider,
+            TextReader<T> reader, RequestDeadline deadline, int attempt) {
+        long start = System.nanoTime();
+        return UpstreamHttpClients.withSlot(rateLimitSlot(provider), () -> nonBlockingHttpClient
+                .postJson(URI.create(request.url()), request.headers(), request.body(), deadline))
+                .thenApply(responseBody -> {
+                    metrics.recordLlmPayload(provider.displayName(), prompt, responseBody.length);
+                    try {
+                        return decodeLlmResponse(provider, responseBody, reader).value();
+                    } catch (IOException e) {
+                        throw new ResourceAccessException(e.getMessage(), e);
+                    }
+                })
+                .whenComplete((text, ex) -> {
+                    if (ex == null) {
+                        metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, UpstreamMetrics.SUCCESS);
+                    } else {
+                        metrics.recordCall(UpstreamMetrics.LLM, provider.displayName(), start, unwrap(ex));
+                        rateLimiter.recordFailure(rateLimitSlot(provider), provider.displayName(), provider.apiKey(), ex);
+                    }
+                })
+                .exceptionallyCompose(ex -> {
+                    Throwable cause = unwrap(ex);
+                    if (cause instanceof ResourceAccessException && attempt < 2) {
+                        if (!deadline.allowsAttempt()) {
+                            return CompletableFuture.failedFuture(new DeadlineExceededException(
+                                    "retrying " + provider.displayName(), deadline.isCancelled()));
+                        }
+                        logger.warn("LLM API async request attempt {} failed: {}", attempt, cause.getMessage());
+                        metrics.recordRetry(UpstreamMetrics.LLM, provider.displayName(), cause);
+                        return attemptLlmCallAsync(prompt, request, provider, reader, deadline, attempt + 1);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    // Rate limits are configured per provider slot, e.g. llm.primary.rate-limit.requests-per-minute
+    private static String rateLimitSlot(LlmProvider provider) {
+        return "llm." + provider.name();
+    }
+
+    private record LlmRequest(String url, HttpHeaders headers, Object body) {}
+
+    private LlmRequest buildLlmRequest(String prompt, LlmProvider provider, String model, String mimeType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        Object requestBody;
+        String fullUrl;
+
+        // Differentiate between Gemini and OpenAI-compatible (OpenRouter) API structures
+        if (provider.isOpenRouter()) {
+            headers.set("Authorization", "Bearer " + provider.apiKey());
+            requestBody = Map.of(
+                    "model", model,
+                    "messages", List.of(Map.of("role", "user", "content", prompt)));
+            fullUrl = provider.apiUrl();
+        } else { // Gemini
+            var parts = List.of(new GeminiDto.Part(prompt));
+            var contents = List.of(new GeminiDto.Content(parts));
+            var generationConfig = new GeminiDto.GenerationConfig(mimeType);
+            requestBody = new GeminiDto.GeminiRequest(contents, generationConfig);
+            fullUrl = provider.apiUrl() + model + ":generateContent?key=" + provider.apiKey();
+        }
+        return new LlmRequest(fullUrl, headers, requestBody);
+    }
+
+    // Package-private, like buildAnalysisPrompt, for the benchmarks in src/jmh
+    <T> Decoded<T> decodeLlmResponse(LlmProvider provider, byte[] responseBody, TextReader<T> reader) throws IOException {
+        if (shouldLogResponse()) {
+            logResponse(provider, responseBody);
+        }
+        return LlmResponseDecoder.decode(objectMapper.getFactory().createParser(responseBody), provider.isOpenRouter(),
+                reader);
+    }
+
+    private <T> Decoded<T> decodeLlmResponse(LlmProvider provider, InputStream responseBody, TextReader<T> reader)
+            throws IOException {
+        if (shouldLogResponse()) {
+            byte[] body = responseBody.readAllBytes();
+            logResponse(provider, body);
+            return LlmResponseDecoder.decode(objectMapper.getFactory().createParser(body), provider.isOpenRouter(), reader);
+        }
+        return LlmResponseDecoder.decode(objectMapper.getFactory().createParser(responseBody), provider.isOpenRouter(),
+                reader);
+    }
+
+    // Deserializes the analysis straight from the decoder's text buffer, without an intermediate String
+    ProblemAnalysis readAnalysis(char[] text, int offset, int length) throws IOException {
+        return objectMapper.readValue(objectMapper.getFactory().createParser(text, offset, length), ProblemAnalysis.class);
+    }
+
+    List<String> readTopics(char[] text, int offset, int length) throws IOException {
+        return objectMapper.readValue(objectMapper.getFactory().createParser(text, offset, length),
+                new TypeReference<List<String>>() {
+                });
+    }
+
+    // Response bodies are logged at DEBUG only, for a sample of responses and cut to a bounded length
+    private boolean shouldLogResponse() {
+        return logger.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < responseLogSampleRate;
+    }
+
+    private void logResponse(LlmProvider provider, byte[] responseBody) {
+        int length = Math.min(responseBody.length, responseLogMaxBytes);
+        logger.debug("LLM API response from {} ({} bytes): {}{}", provider.displayName(), responseBody.length,
+                new String(responseBody, 0, length, StandardCharsets.UTF_8), length < responseBody.length ? "..." : "");
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    // SANITIZATION :: Trim whitespace and remove potential markdown code blocks
+    static String sanitizeLlmText(String jsonText) {
+        return LlmResponseDecoder.stripFence(jsonText);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+/**
+ * Incrementally parses the JSON object an LLM is streaming back and reports
+ * each top-level string field as soon as its value is complete.
+ * Anything before the opening brace (e.g. a markdown code fence) and after
+ * the closing brace is ignored.
+ */
+public class AnalysisStreamParser {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final BiConsumer<String, String> onField;
+    private final Map<String, String> fields = new LinkedHashMap<>();
+    private final StringBuilder rawText = new StringBuilder();
+
+    private boolean started;
+    private boolean finished;
+    private boolean failed;
+    private int depth;
+    private String currentField;
+
+    public AnalysisStreamParser(BiConsumer<String, String> onField) {
+        try {
+            this.parser = new JsonFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create streaming JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.onField = onField;
+    }
+
+    public void accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        rawText.append(chunk);
+        if (finished || failed) {
+            return;
+        }
+
+        String input = chunk;
+        if (!started) {
+            int objectStart = chunk.indexOf('{');
+            if (objectStart < 0) {
+                return;
+            }
+            started = true;
+            input = chunk.substring(objectStart);
+        }
+
+        try {
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            drainTokens();
+        } catch (IOException e) {
+            // Malformed output; the caller falls back to parsing the raw text once the stream ends.
+            failed = true;
+        }
+    }
+
+    private void drainTokens() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (depth == 0) {
+                        finished = true;
+                        feeder.endOfInput();
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        currentField = parser.currentName();
+                    }
+                }
+                case VALUE_STRING -> {
+                    if (depth == 1 && currentField != null) {
+                        String value = parser.getText();
+                        fields.put(currentField, value);
+                        onField.accept(currentField, value);
+                    }
+                }
+                default -> {
+                    // Numbers, booleans and nested values are not part of the analysis schema
+                }
+            }
+        }
+    }
+
+    public boolean isComplete() {
+        return finished && !failed;
+    }
+
+    public Map<String, String> fields() {
+        return fields;
+    }
+
+    public String rawText() {
+        return rawText.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+/**
+ * Periodically pulls the providers' headline feeds into the {@link LocalNewsIndex}, so topic
+ * lookups can be answered without a live search. Does nothing unless news.ingest.enabled=true.
+ */
+@Component
+public class ArticleIngester {
+    private static final Logger logger = LoggerFactory.getLogger(ArticleIngester.class);
+
+    private final NewsService newsService;
+    private final LocalNewsIndex localNewsIndex;
+
+    public ArticleIngester(NewsService newsService, LocalNewsIndex localNewsIndex) {
+        this.newsService = newsService;
+        this.localNewsIndex = localNewsIndex;
+    }
+
+    @Scheduled(initialDelayString = "${news.ingest.initial-delay-ms:5000}",
+            fixedDelayString = "${news.ingest.interval-ms:900000}")
+    public void ingest() {
+        if (!localNewsIndex.isEnabled()) {
+            return;
+        }
+        try {
+            List<Article> headlines = newsService.fetchHeadlines();
+            int added = localNewsIndex.ingest(headlines);
+            logger.info("Ingested {} new of {} headline articles; local index holds {}.", added, headlines.size(),
+                    localNewsIndex.size());
+        } catch (RuntimeException e) {
+            logger.warn("Headline ingestion failed: {}", e.getMessage(), e);
+        }
+    }
+}
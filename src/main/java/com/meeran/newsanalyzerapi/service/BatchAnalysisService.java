@@ -0,0 +1,145 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.BatchResult;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+/**
+ * Analyzes a list of topics with at most {@code analysis.batch.concurrency} of them in flight,
+ * reporting each result as soon as it is ready. Topics that normalize to the same key are
+ * analyzed once; each analysis goes through {@link TopicAnalysisService}, so the batch shares
+ * the news and analysis caches and in-flight computations with regular requests.
+ */
+@Service
+public class BatchAnalysisService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalysisService.class);
+
+    @Value("${analysis.batch.concurrency:4}")
+    private int concurrency;
+    @Value("${analysis.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    private final TopicAnalysisService topicAnalysisService;
+    private final AsyncTaskExecutor batchExecutor;
+
+    public BatchAnalysisService(TopicAnalysisService topicAnalysisService,
+            @Qualifier("analysisBatchExecutor") AsyncTaskExecutor batchExecutor) {
+        this.topicAnalysisService = topicAnalysisService;
+        this.batchExecutor = batchExecutor;
+    }
+
+    /**
+     * Starts the batch and returns once the first topics are in flight. {@code onResult} is
+     * called once per requested topic, never concurrently; if it throws (e.g. the client went
+     * away), no further topics are started. The returned future completes after the last result.
+     */
+    public CompletableFuture<Void> analyze(List<String> topics, String language, Consumer<BatchResult> onResult) {
+        Map<String, List<String>> topicsByKey = new LinkedHashMap<>();
+        for (String topic : topics) {
+            topicsByKey.computeIfAbsent(RequestCoalescer.key(topic, language), key -> new ArrayList<>()).add(topic);
+        }
+        return new Batch(topicsByKey.values().iterator(), topicsByKey.size(), language, onResult).start();
+    }
+
+    private final class Batch {
+        private final Iterator<List<String>> pending;
+        private final AtomicInteger remaining;
+        private final String language;
+        private final Consumer<BatchResult> onResult;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Batch(Iterator<List<String>> pending, int size, String language, Consumer<BatchResult> onResult) {
+            this.pending = pending;
+            this.remaining = new AtomicInteger(size);
+            this.language = language;
+            this.onResult = onResult;
+        }
+
+        CompletableFuture<Void> start() {
+            if (remaining.get() == 0) {
+                done.complete(null);
+            }
+            for (int i = 0; i < Math.max(1, concurrency); i++) {
+                startNext();
+            }
+            return done;
+        }
+
+        private void startNext() {
+            List<String> topics;
+            synchronized (pending) {
+                if (cancelled.get() || !pending.hasNext()) {
+                    return;
+                }
+                topics = pending.next();
+            }
+            String topic = topics.get(0);
+            analyzeOne(topic).whenComplete((analysis, ex) -> {
+                report(topics, analysis, ex);
+                if (remaining.decrementAndGet() == 0 || cancelled.get()) {
+                    done.complete(null);
+                } else {
+                    startNext();
+                }
+            });
+        }
+
+        private CompletableFuture<ProblemAnalysis> analyzeOne(String topic) {
+            try {
+                if (asyncEnabled) {
+                    return topicAnalysisService.analyzeAsync(topic, language);
+                }
+                return CompletableFuture.supplyAsync(() -> topicAnalysisService.analyze(topic, language), batchExecutor);
+            } catch (RuntimeException e) {
+                // e.g. the batch executor's queue is full
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        private void report(List<String> topics, ProblemAnalysis analysis, Throwable failure) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (cause != null && !(cause instanceof NoArticlesFoundException)) {
+                logger.error("Batch analysis failed for topic: {}", topics.get(0), cause);
+            }
+            synchronized (onResult) {
+                if (cancelled.get()) {
+                    return;
+                }
+                try {
+                    for (String topic : topics) {
+                        onResult.accept(result(topic, analysis, cause));
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Stopping batch analysis: {}", e.getMessage());
+                    cancelled.set(true);
+                }
+            }
+        }
+    }
+
+    private static BatchResult result(String topic, ProblemAnalysis analysis, Throwable failure) {
+        if (failure == null) {
+            return new BatchResult(topic, "ok", analysis, null);
+        }
+        return new BatchResult(topic, failure instanceof NoArticlesFoundException ? "not_found" : "error", null,
+                failure.getMessage());
+    }
+}
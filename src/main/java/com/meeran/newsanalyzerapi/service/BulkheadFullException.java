@@ -0,0 +1,9 @@
+package com.meeran.newsanalyzerapi.service;
+
+// Thrown instead of calling an upstream that already has its maximum number of calls in flight
+public class BulkheadFullException extends UpstreamThrottledException {
+
+    public BulkheadFullException(String upstream, long waitedMillis) {
+        super(waitedMillis, "Too many calls in flight to " + upstream + "; gave up after waiting " + waitedMillis + "ms.");
+    }
+}
@@ -0,0 +1,147 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.cache.AnalysisKey.ArticleFingerprint;
+import com.meeran.newsanalyzerapi.cache.CacheEntryAges;
+import com.meeran.newsanalyzerapi.cache.TopicNormalizer;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+/**
+ * Refresh-ahead for the "newsArticles" and "analysis" caches. Once a served entry is older
+ * than its soft TTL, one background task per topic re-fetches the articles, regenerates the
+ * analyses cached for them and only then replaces the cached articles, so callers keep
+ * getting an immediate (slightly stale) answer and only the hard TTL causes a blocking miss.
+ */
+@Component
+public class CacheRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(CacheRefresher.class);
+
+    @Value("${cache.refresh-ahead.enabled:false}")
+    private boolean enabled;
+    @Value("${cache.refresh-ahead.news-soft-ttl-ms:2700000}")
+    private long newsSoftTtlMs;
+    @Value("${cache.refresh-ahead.analysis-soft-ttl-ms:10800000}")
+    private long analysisSoftTtlMs;
+    // Languages whose analyses are regenerated alongside the requesting one, if cached
+    @Value("${cache.refresh-ahead.languages:${warmup.languages:english,tamil}}")
+    private List<String> refreshLanguages;
+
+    private final NewsService newsService;
+    private final AnalysisService analysisService;
+    private final CacheManager cacheManager;
+    private final TaskExecutor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CacheRefresher(NewsService newsService, AnalysisService analysisService, CacheManager cacheManager,
+            @Qualifier("cacheRefreshExecutor") TaskExecutor refreshExecutor) {
+        this.newsService = newsService;
+        this.analysisService = analysisService;
+        this.cacheManager = cacheManager;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Called after a topic has been answered from {@code newsResponse}; schedules a background
+     * refresh if the cached articles or analysis have passed their soft TTL. Never blocks.
+     */
+    public void refreshIfStale(String topic, String language, NewsApiResponse newsResponse) {
+        if (!enabled || newsResponse == null || newsResponse.articles() == null) {
+            return;
+        }
+        boolean newsStale = isOlderThan("newsArticles", topic, newsSoftTtlMs);
+        boolean analysisStale = isOlderThan("analysis",
+                AnalysisService.analysisCacheKey(topic, newsResponse.articles(), language), analysisSoftTtlMs);
+        if (!newsStale && !analysisStale) {
+            return;
+        }
+        if (!refreshing.add(topic)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(topic, language, newsResponse.articles(), analysisStale);
+                } finally {
+                    refreshing.remove(topic);
+                }
+            });
+            logger.info("Scheduled refresh-ahead for topic '{}' (news stale: {}, analysis stale: {}).",
+                    topic, newsStale, analysisStale);
+        } catch (TaskRejectedException e) {
+            refreshing.remove(topic);
+            logger.warn("Refresh-ahead queue is full; topic '{}' will be served stale until it expires.", topic);
+        }
+    }
+
+    boolean isRefreshing(String topic) {
+        return refreshing.contains(topic);
+    }
+
+    private void refresh(String topic, String language, List<Article> servedArticles, boolean analysisStale) {
+        try {
+            NewsApiResponse latest = newsService.fetchLatestArticles(topic);
+            if (latest == null || latest.articles() == null || latest.articles().isEmpty()) {
+                logger.warn("Refresh-ahead found no articles for topic '{}'; keeping the cached ones.", topic);
+                return;
+            }
+
+            // Same fingerprint means the same analysis key, so reordering alone is not a change
+            boolean articlesChanged = !ArticleFingerprint.of(latest.articles()).equals(ArticleFingerprint.of(servedArticles));
+            if (articlesChanged || analysisStale) {
+                for (String refreshLanguage : languagesToRefresh(topic, language, servedArticles)) {
+                    ProblemAnalysis analysis = analysisService.generateAnalysis(topic, latest.articles(), refreshLanguage);
+                    analysisService.cacheAnalysis(topic, latest.articles(), refreshLanguage, analysis);
+                }
+            }
+            // Swap the articles last, so nobody sees new articles before their analysis is cached
+            Cache newsCache = cacheManager.getCache("newsArticles");
+            if (newsCache != null) {
+                newsCache.put(topic, latest);
+            }
+            logger.info("Refresh-ahead completed for topic '{}' (articles changed: {}).", topic, articlesChanged);
+        } catch (RuntimeException e) {
+            logger.warn("Refresh-ahead failed for topic '{}'; cached entries stay until their hard TTL: {}",
+                    topic, e.getMessage());
+        }
+    }
+
+    // The requesting language plus any other language that has an analysis cached for these articles
+    private Set<String> languagesToRefresh(String topic, String language, List<Article> servedArticles) {
+        Set<String> languages = new LinkedHashSet<>();
+        languages.add(language);
+        for (String other : refreshLanguages) {
+            if (!TopicNormalizer.normalize(other).equals(TopicNormalizer.normalize(language))
+                    && analysisService.getCachedAnalysis(topic, servedArticles, other).isPresent()) {
+                languages.add(other);
+            }
+        }
+        return languages;
+    }
+
+    private boolean isOlderThan(String cacheName, Object key, long softTtlMs) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return false;
+        }
+        Optional<Duration> age = CacheEntryAges.ageOf(cache, key);
+        return age.isPresent() && age.get().toMillis() >= softTtlMs;
+    }
+}
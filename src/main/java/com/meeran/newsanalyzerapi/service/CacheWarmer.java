@@ -0,0 +1,171 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.dto.ProviderStatus;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Pre-computes analyses for the topics users are most likely to click: the current
+ * LLM topic suggestions plus the most requested topics, in every warm-up language.
+ * Runs only inside the configured off-peak windows and stops once the provider that
+ * would serve the next call has used up its per-run call budget.
+ */
+@Component
+public class CacheWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    @Value("${warmup.enabled:false}")
+    private boolean enabled;
+    @Value("${warmup.languages:english,tamil}")
+    private List<String> languages;
+    @Value("${warmup.popular-topics:8}")
+    private int popularTopics;
+    @Value("${warmup.max-topics:16}")
+    private int maxTopics;
+    // LLM calls each provider may serve for the warmer in one run
+    @Value("${warmup.max-calls-per-provider:20}")
+    private int maxCallsPerProvider;
+    // Comma-separated HH:mm-HH:mm ranges, may wrap midnight; empty means any time
+    @Value("${warmup.windows:}")
+    private String windows;
+    @Value("${warmup.zone:UTC}")
+    private String zone;
+
+    private final AnalysisService analysisService;
+    private final TopicAnalysisService topicAnalysisService;
+    private final LlmProviderRegistry providerRegistry;
+    private final TopicPopularity topicPopularity;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Clock clock = Clock.systemUTC();
+    private List<LocalTime[]> offPeakWindows = List.of();
+
+    public CacheWarmer(AnalysisService analysisService, TopicAnalysisService topicAnalysisService,
+            LlmProviderRegistry providerRegistry, TopicPopularity topicPopularity) {
+        this.analysisService = analysisService;
+        this.topicAnalysisService = topicAnalysisService;
+        this.providerRegistry = providerRegistry;
+        this.topicPopularity = topicPopularity;
+    }
+
+    @PostConstruct
+    void init() {
+        List<LocalTime[]> parsed = new ArrayList<>();
+        for (String window : windows.split(",")) {
+            if (window.isBlank()) {
+                continue;
+            }
+            String[] bounds = window.trim().split("-");
+            if (bounds.length != 2) {
+                throw new IllegalStateException("Invalid warmup window '" + window + "', expected HH:mm-HH:mm");
+            }
+            parsed.add(new LocalTime[] { LocalTime.parse(bounds[0].trim()), LocalTime.parse(bounds[1].trim()) });
+        }
+        offPeakWindows = parsed;
+    }
+
+    @Scheduled(initialDelayString = "${warmup.initial-delay-ms:60000}", fixedDelayString = "${warmup.interval-ms:1800000}")
+    public void warmUp() {
+        if (!enabled || !inOffPeakWindow()) {
+            return;
+        }
+        List<String> topics = candidateTopics();
+        topicPopularity.decay();
+
+        Map<String, Long> callsUsed = new HashMap<>();
+        int warmed = 0;
+        int failed = 0;
+        for (String topic : topics) {
+            for (String language : languages) {
+                String provider = providerRegistry.routingOrder().get(0).name();
+                if (callsUsed.getOrDefault(provider, 0L) >= maxCallsPerProvider) {
+                    logger.info("Cache warm-up stopped: call budget of {} used up for LLM provider {}.",
+                            maxCallsPerProvider, provider);
+                    logSummary(topics.size(), warmed, failed, callsUsed);
+                    return;
+                }
+                Map<String, Long> before = callCounts();
+                try {
+                    topicAnalysisService.warm(topic, language);
+                    warmed++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    logger.warn("Cache warm-up failed for topic '{}' ({}): {}", topic, language, e.getMessage());
+                }
+                // Charge the warmer for the calls made meanwhile; concurrent user traffic only
+                // makes this more conservative
+                callCounts().forEach((name, calls) ->
+                        callsUsed.merge(name, calls - before.getOrDefault(name, 0L), Long::sum));
+            }
+        }
+        logSummary(topics.size(), warmed, failed, callsUsed);
+    }
+
+    // Suggestions first (what the UI shows), then the most requested topics, without duplicates
+    List<String> candidateTopics() {
+        Map<String, String> topics = new LinkedHashMap<>();
+        for (String suggestion : suggestions()) {
+            topics.putIfAbsent(suggestion.trim().toLowerCase(Locale.ROOT), suggestion.trim());
+        }
+        for (String popular : topicPopularity.top(popularTopics)) {
+            topics.putIfAbsent(popular.toLowerCase(Locale.ROOT), popular);
+        }
+        return topics.values().stream().filter(topic -> !topic.isBlank()).limit(maxTopics).toList();
+    }
+
+    boolean inOffPeakWindow() {
+        if (offPeakWindows.isEmpty()) {
+            return true;
+        }
+        LocalTime now = LocalTime.now(clock.withZone(ZoneId.of(zone)));
+        for (LocalTime[] window : offPeakWindows) {
+            boolean inside = window[0].isBefore(window[1])
+                    ? !now.isBefore(window[0]) && now.isBefore(window[1])
+                    : !now.isBefore(window[0]) || now.isBefore(window[1]);
+            if (inside) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> suggestions() {
+        try {
+            return objectMapper.readValue(analysisService.getTopicSuggestions(), new TypeReference<List<String>>() {
+            });
+        } catch (Exception e) {
+            logger.warn("Cache warm-up could not read topic suggestions: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private Map<String, Long> callCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (ProviderStatus status : providerRegistry.snapshot()) {
+            counts.put(status.name(), status.calls());
+        }
+        return counts;
+    }
+
+    private void logSummary(int topics, int warmed, int failed, Map<String, Long> callsUsed) {
+        logger.info("Cache warm-up finished: {} topics, {} analyses warmed, {} failed, LLM calls per provider: {}",
+                topics, warmed, failed, callsUsed);
+    }
+}
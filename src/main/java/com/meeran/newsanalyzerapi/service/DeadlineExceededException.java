@@ -0,0 +1,18 @@
+package com.meeran.newsanalyzerapi.service;
+
+// Thrown instead of starting upstream work the request's remaining budget cannot cover
+public class DeadlineExceededException extends RuntimeException {
+
+    private final boolean cancelled;
+
+    public DeadlineExceededException(String stage, boolean cancelled) {
+        super(cancelled ? "Request was cancelled before " + stage + "."
+                : "Request deadline exceeded before " + stage + ".");
+        this.cancelled = cancelled;
+    }
+
+    // True if the client went away rather than the budget running out
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,15 @@
+package com.meeran.newsanalyzerapi.service;
+
+public class JobQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public JobQueueFullException(long retryAfterSeconds) {
+        super("Too many analyses are queued right now. Please try again in " + retryAfterSeconds + " seconds.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
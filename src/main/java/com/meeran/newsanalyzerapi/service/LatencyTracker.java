@@ -0,0 +1,47 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latency samples in a fixed-size ring buffer and
+ * answers percentile queries over them.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    public synchronized int sampleCount() {
+        return count;
+    }
+
+    // Nearest-rank percentile, e.g. 0.9 for p90. Returns -1 when no samples were recorded yet.
+    public long percentile(double percentile) {
+        long[] snapshot;
+        synchronized (this) {
+            if (count == 0) {
+                return -1;
+            }
+            snapshot = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(snapshot);
+        int rank = (int) Math.ceil(percentile * snapshot.length);
+        return snapshot[Math.min(Math.max(rank, 1), snapshot.length) - 1];
+    }
+}
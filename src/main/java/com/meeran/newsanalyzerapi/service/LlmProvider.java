@@ -0,0 +1,33 @@
+package com.meeran.newsanalyzerapi.service;
+
+/**
+ * One configured LLM endpoint (llm.primary.*, llm.secondary.*, llm.third.*).
+ */
+public record LlmProvider(
+        String name,         // configuration slot: primary, secondary or third
+        String type,         // e.g. Gemini, OpenRouter
+        String apiUrl,
+        String apiKey,
+        String analysisModel,
+        String suggestionsModel,
+        String randomModel
+) {
+
+    public enum Purpose { ANALYSIS, SUGGESTIONS, RANDOM }
+
+    public String model(Purpose purpose) {
+        return switch (purpose) {
+            case ANALYSIS -> analysisModel;
+            case SUGGESTIONS -> suggestionsModel;
+            case RANDOM -> randomModel;
+        };
+    }
+
+    public boolean isOpenRouter() {
+        return apiUrl.contains("openrouter");
+    }
+
+    public String displayName() {
+        return name + " (" + type + ")";
+    }
+}
@@ -0,0 +1,293 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.meeran.newsanalyzerapi.dto.ProviderStatus;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tracks the health of the configured LLM providers and decides the order in which
+ * they are tried. Each provider keeps an EWMA of its latency, error rate and 429 rate;
+ * providers are ordered by expected response time (latency plus penalties for errors
+ * and rate limiting). A provider whose circuit is open is skipped until its cool-down
+ * has elapsed, after which a single call is let through as a half-open probe.
+ */
+@Component
+public class LlmProviderRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(LlmProviderRegistry.class);
+
+    public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    // --- Primary Provider Config ---
+    @Value("${llm.primary.provider:Gemini}")
+    private String primaryProvider;
+    @Value("${llm.primary.api.key}")
+    private String primaryApiKey;
+    @Value("${llm.primary.api.url}")
+    private String primaryApiUrl;
+    @Value("${llm.primary.model.analysis}")
+    private String primaryAnalysisModel;
+    @Value("${llm.primary.model.suggestions}")
+    private String primarySuggestionsModel;
+    @Value("${llm.primary.model.random}")
+    private String primaryRandomModel;
+
+    // --- Secondary Provider Config ---
+    @Value("${llm.secondary.provider}")
+    private String secondaryProvider;
+    @Value("${llm.secondary.api.key}")
+    private String secondaryApiKey;
+    @Value("${llm.secondary.api.url}")
+    private String secondaryApiUrl;
+    @Value("${llm.secondary.model.analysis}")
+    private String secondaryAnalysisModel;
+    @Value("${llm.secondary.model.suggestions}")
+    private String secondarySuggestionsModel;
+    @Value("${llm.secondary.model.random}")
+    private String secondaryRandomModel;
+
+    // --- Third Provider Config ---
+    @Value("${llm.third.provider}")
+    private String thirdProvider;
+    @Value("${llm.third.api.key}")
+    private String thirdApiKey;
+    @Value("${llm.third.api.url}")
+    private String thirdApiUrl;
+    @Value("${llm.third.model.analysis}")
+    private String thirdAnalysisModel;
+    @Value("${llm.third.model.suggestions}")
+    private String thirdSuggestionsModel;
+    @Value("${llm.third.model.random}")
+    private String thirdRandomModel;
+
+    // --- Routing Config ---
+    @Value("${llm.routing.ewma-alpha:0.3}")
+    private double ewmaAlpha;
+    // Assumed latency of a provider that has not answered yet
+    @Value("${llm.routing.initial-latency-ms:5000}")
+    private long initialLatencyMs;
+    @Value("${llm.routing.error-penalty-ms:20000}")
+    private long errorPenaltyMs;
+    @Value("${llm.routing.rate-limit-penalty-ms:30000}")
+    private long rateLimitPenaltyMs;
+    @Value("${llm.routing.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+    @Value("${llm.routing.minimum-calls:5}")
+    private int minimumCalls;
+    @Value("${llm.routing.consecutive-failures-to-open:3}")
+    private int consecutiveFailuresToOpen;
+    @Value("${llm.routing.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    private Clock clock = Clock.systemUTC();
+    private List<ProviderHealth> providers = List.of();
+
+    @PostConstruct
+    void init() {
+        providers = List.of(
+                new ProviderHealth(new LlmProvider("primary", primaryProvider, primaryApiUrl, primaryApiKey,
+                        primaryAnalysisModel, primarySuggestionsModel, primaryRandomModel), 0),
+                new ProviderHealth(new LlmProvider("secondary", secondaryProvider, secondaryApiUrl, secondaryApiKey,
+                        secondaryAnalysisModel, secondarySuggestionsModel, secondaryRandomModel), 1),
+                new ProviderHealth(new LlmProvider("third", thirdProvider, thirdApiUrl, thirdApiKey,
+                        thirdAnalysisModel, thirdSuggestionsModel, thirdRandomModel), 2));
+    }
+
+    /**
+     * Providers to try for the next call, best first: half-open providers due for a probe,
+     * then closed providers by expected latency. If every circuit is open, all providers are
+     * returned (earliest opened first) rather than failing without trying.
+     */
+    public List<LlmProvider> routingOrder() {
+        return rankedHealth().stream().map(health -> health.provider).toList();
+    }
+
+    private List<ProviderHealth> rankedHealth() {
+        long now = clock.millis();
+        List<ProviderHealth> probes = new ArrayList<>();
+        List<ProviderHealth> closed = new ArrayList<>();
+        List<ProviderHealth> open = new ArrayList<>();
+        for (ProviderHealth health : providers) {
+            switch (health.stateAt(now)) {
+                case CLOSED -> closed.add(health);
+                case HALF_OPEN -> probes.add(health);
+                case OPEN -> open.add(health);
+            }
+        }
+        closed.sort(Comparator.comparingDouble(ProviderHealth::expectedLatencyMs)
+                .thenComparingInt(health -> health.priority));
+
+        List<ProviderHealth> ranked = new ArrayList<>(probes);
+        ranked.addAll(closed);
+        if (ranked.isEmpty()) {
+            open.sort(Comparator.comparingLong(health -> health.openedAt));
+            return open;
+        }
+        return ranked;
+    }
+
+    /**
+     * Must be called right before calling a provider. Returns false when the provider's
+     * circuit is open, or when it is half-open and another call is already probing it.
+     */
+    public boolean tryAcquire(LlmProvider provider) {
+        return healthOf(provider).tryAcquire(clock.millis(), allCircuitsOpen());
+    }
+
+    // Gives back a call acquired with tryAcquire that was not made after all (e.g. throttled locally)
+    public void release(LlmProvider provider) {
+        healthOf(provider).release();
+    }
+
+    public void recordSuccess(LlmProvider provider, long latencyMs) {
+        healthOf(provider).recordSuccess(latencyMs);
+    }
+
+    public void recordFailure(LlmProvider provider, long latencyMs, Throwable cause) {
+        healthOf(provider).recordFailure(latencyMs, cause, clock.millis());
+    }
+
+    public List<ProviderStatus> snapshot() {
+        List<ProviderHealth> ranked = rankedHealth();
+        List<ProviderStatus> statuses = new ArrayList<>();
+        long now = clock.millis();
+        for (ProviderHealth health : providers) {
+            int rank = ranked.indexOf(health);
+            statuses.add(health.toStatus(rank < 0 ? -1 : rank + 1, now));
+        }
+        statuses.sort(Comparator.comparingInt(status -> status.rank() < 0 ? Integer.MAX_VALUE : status.rank()));
+        return statuses;
+    }
+
+    private boolean allCircuitsOpen() {
+        long now = clock.millis();
+        return providers.stream().allMatch(health -> health.stateAt(now) == CircuitState.OPEN);
+    }
+
+    private ProviderHealth healthOf(LlmProvider provider) {
+        for (ProviderHealth health : providers) {
+            if (health.provider.name().equals(provider.name())) {
+                return health;
+            }
+        }
+        throw new IllegalArgumentException("Unknown LLM provider: " + provider.name());
+    }
+
+    private final class ProviderHealth {
+        private final LlmProvider provider;
+        private final int priority;
+
+        private CircuitState state = CircuitState.CLOSED;
+        private boolean probeInFlight;
+        private long openedAt;
+        private double ewmaLatencyMs = -1;
+        private double ewmaErrorRate;
+        private double ewmaRateLimitRate;
+        private int consecutiveFailures;
+        private long calls;
+        private long failures;
+        private long rateLimited;
+
+        private ProviderHealth(LlmProvider provider, int priority) {
+            this.provider = provider;
+            this.priority = priority;
+        }
+
+        synchronized CircuitState stateAt(long now) {
+            if (state == CircuitState.OPEN && now - openedAt >= openDurationMs) {
+                return probeInFlight ? CircuitState.OPEN : CircuitState.HALF_OPEN;
+            }
+            if (state == CircuitState.HALF_OPEN && probeInFlight) {
+                return CircuitState.OPEN;
+            }
+            return state;
+        }
+
+        synchronized boolean tryAcquire(long now, boolean lastResort) {
+            CircuitState current = stateAt(now);
+            if (current == CircuitState.HALF_OPEN) {
+                state = CircuitState.HALF_OPEN;
+                probeInFlight = true;
+                logger.info("LLM provider {} circuit half-open; sending probe request.", provider.displayName());
+                return true;
+            }
+            return current == CircuitState.CLOSED || lastResort;
+        }
+
+        synchronized void release() {
+            if (state == CircuitState.HALF_OPEN && probeInFlight) {
+                probeInFlight = false;
+            }
+        }
+
+        synchronized double expectedLatencyMs() {
+            double latency = ewmaLatencyMs < 0 ? initialLatencyMs : ewmaLatencyMs;
+            return latency + ewmaErrorRate * errorPenaltyMs + ewmaRateLimitRate * rateLimitPenaltyMs;
+        }
+
+        synchronized void recordSuccess(long latencyMs) {
+            calls++;
+            consecutiveFailures = 0;
+            ewmaLatencyMs = ewma(ewmaLatencyMs, latencyMs);
+            ewmaErrorRate = ewma(ewmaErrorRate, 0);
+            ewmaRateLimitRate = ewma(ewmaRateLimitRate, 0);
+            if (state != CircuitState.CLOSED) {
+                logger.info("LLM provider {} recovered; closing circuit.", provider.displayName());
+                state = CircuitState.CLOSED;
+                probeInFlight = false;
+                ewmaErrorRate = 0;
+                ewmaRateLimitRate = 0;
+            }
+        }
+
+        synchronized void recordFailure(long latencyMs, Throwable cause, long now) {
+            calls++;
+            failures++;
+            consecutiveFailures++;
+            boolean isRateLimited = cause instanceof HttpClientErrorException.TooManyRequests;
+            if (isRateLimited) {
+                rateLimited++;
+            }
+            // Timeouts tell us how slow the provider is; fast error responses do not
+            if (cause instanceof ResourceAccessException) {
+                ewmaLatencyMs = ewma(ewmaLatencyMs, latencyMs);
+            }
+            ewmaErrorRate = ewma(ewmaErrorRate, 1);
+            ewmaRateLimitRate = ewma(ewmaRateLimitRate, isRateLimited ? 1 : 0);
+
+            boolean tripped = consecutiveFailures >= consecutiveFailuresToOpen
+                    || (calls >= minimumCalls && ewmaErrorRate >= failureRateThreshold);
+            if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && tripped)) {
+                logger.warn("Opening circuit for LLM provider {} for {}ms (error rate {}, {} consecutive failures).",
+                        provider.displayName(), openDurationMs, String.format("%.2f", ewmaErrorRate), consecutiveFailures);
+                state = CircuitState.OPEN;
+                openedAt = now;
+                probeInFlight = false;
+            }
+        }
+
+        private double ewma(double current, double sample) {
+            return current < 0 ? sample : ewmaAlpha * sample + (1 - ewmaAlpha) * current;
+        }
+
+        synchronized ProviderStatus toStatus(int rank, long now) {
+            CircuitState current = stateAt(now);
+            Instant openUntil = state == CircuitState.OPEN ? Instant.ofEpochMilli(openedAt + openDurationMs) : null;
+            return new ProviderStatus(rank, provider.name(), provider.type(), current.name(),
+                    Math.round(expectedLatencyMs()), ewmaLatencyMs < 0 ? null : Math.round(ewmaLatencyMs),
+                    Math.round(ewmaErrorRate * 1000) / 1000.0, calls, failures, rateLimited, openUntil);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Pulls the generated text out of a Gemini or OpenRouter response without building the
+ * response as a String or a JsonNode tree. The parser walks the envelope token by token to
+ * the text field; the markdown fence and surrounding whitespace are cut off by moving
+ * offsets into the parser's own text buffer, and the remaining characters go straight to a
+ * {@link TextReader} (for an analysis, a second parser deserializing {@code ProblemAnalysis}).
+ *
+ * A broken envelope fails with an {@link IOException}, like any other unreadable response;
+ * a {@link TextReader} failure is rethrown as an {@link UncheckedIOException} so callers can
+ * tell a bad answer from a bad transfer.
+ */
+public final class LlmResponseDecoder {
+
+    /** Receives the generated text as a range of a char buffer that is only valid during the call. */
+    @FunctionalInterface
+    public interface TextReader<T> {
+        T read(char[] text, int offset, int length) throws IOException;
+    }
+
+    public static final TextReader<String> AS_STRING = String::new;
+
+    /** The decoded value and the size of the response body in bytes (-1 if the parser cannot tell). */
+    public record Decoded<T>(T value, long responseBytes) {}
+
+    private static final String[] OPENROUTER_TEXT = { "choices", "0", "message", "content" };
+    private static final String[] GEMINI_TEXT = { "candidates", "0", "content", "parts", "0", "text" };
+    private static final char[] NO_TEXT = new char[0];
+    private static final String JSON_FENCE = "```json";
+    private static final String FENCE = "```";
+
+    private LlmResponseDecoder() {
+    }
+
+    /** Decodes the response read by {@code parser}, and closes it. */
+    public static <T> Decoded<T> decode(JsonParser parser, boolean openRouter, TextReader<T> reader) throws IOException {
+        try (parser) {
+            T value;
+            if (seek(parser, openRouter ? OPENROUTER_TEXT : GEMINI_TEXT)) {
+                char[] text = parser.getTextCharacters();
+                int start = parser.getTextOffset();
+                value = readContent(reader, text, start, start + parser.getTextLength());
+            } else {
+                // Same as the former JsonNode.at(...).asText() on a missing field
+                value = readContent(reader, NO_TEXT, 0, 0);
+            }
+            // Read to the end so truncated bodies are still rejected and the size is known
+            while (parser.nextToken() != null) {
+                parser.skipChildren();
+            }
+            return new Decoded<>(value, parser.currentLocation().getByteOffset());
+        }
+    }
+
+    /** Trims whitespace and a surrounding markdown code fence from the text. */
+    public static String stripFence(String text) {
+        int[] range = contentRange(text, 0, text.length());
+        return text.substring(range[0], range[1]);
+    }
+
+    private static <T> T readContent(TextReader<T> reader, char[] text, int start, int end) {
+        int[] range = contentRange(CharBuffer.wrap(text), start, end);
+        try {
+            return reader.read(text, range[0], range[1] - range[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // [start, end) of the text without whitespace and a ```json ... ``` or `...` fence
+    private static int[] contentRange(CharSequence text, int start, int end) {
+        start = skipWhitespace(text, start, end);
+        end = trimWhitespace(text, start, end);
+        if (regionMatches(text, start, end, start, JSON_FENCE)) {
+            start += JSON_FENCE.length();
+            if (end - start >= FENCE.length() && regionMatches(text, start, end, end - FENCE.length(), FENCE)) {
+                end -= FENCE.length();
+            }
+        } else if (end - start >= 2 && text.charAt(start) == '`' && text.charAt(end - 1) == '`') {
+            start++;
+            end--;
+        }
+        start = skipWhitespace(text, start, end);
+        return new int[] { start, trimWhitespace(text, start, end) };
+    }
+
+    private static int skipWhitespace(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimWhitespace(CharSequence text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean regionMatches(CharSequence text, int start, int end, int at, String expected) {
+        if (at < start || at + expected.length() > end) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(at + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Moves the parser onto the value at path ("0" is an array index); false if it is absent or not text.
+    private static boolean seek(JsonParser parser, String[] path) throws IOException {
+        JsonToken token = parser.nextToken();
+        for (String segment : path) {
+            boolean found;
+            if (token == JsonToken.START_OBJECT) {
+                found = seekField(parser, segment);
+            } else if (token == JsonToken.START_ARRAY) {
+                found = seekIndex(parser, Integer.parseInt(segment));
+            } else {
+                found = false;
+            }
+            if (!found) {
+                return false;
+            }
+            token = parser.currentToken();
+        }
+        return token == JsonToken.VALUE_STRING;
+    }
+
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean match = name.equals(parser.currentName());
+            parser.nextToken();
+            if (match) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static boolean seekIndex(JsonParser parser, int index) throws IOException {
+        for (int i = 0;; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (i == index) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+    }
+}
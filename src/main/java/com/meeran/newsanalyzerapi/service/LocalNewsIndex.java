@@ -0,0 +1,98 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+import com.meeran.newsanalyzerapi.index.ArticleIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Articles collected by the {@link ArticleIngester}, searchable by topic. With
+ * news.ingest.enabled=true, {@link NewsService} asks here first and only calls the news
+ * providers when fewer than news.ingest.min-results indexed articles match the topic.
+ *
+ * Lookups are counted as {@code news.index.lookups} (outcome hit or low_recall) and the
+ * number of indexed articles is exported as {@code news.index.articles}.
+ */
+@Component
+public class LocalNewsIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LocalNewsIndex.class);
+
+    @Value("${news.ingest.enabled:false}")
+    private boolean enabled;
+    @Value("${news.ingest.min-results:8}")
+    private int minResults;
+    @Value("${news.ingest.max-results:20}")
+    private int maxResults;
+    // Share of the topic's words an article must contain to count as a match
+    @Value("${news.ingest.min-term-coverage:0.6}")
+    private double minTermCoverage;
+
+    private final ArticleIndex index;
+    private final Counter hitCounter;
+    private final Counter lowRecallCounter;
+    private Clock clock = Clock.systemUTC();
+
+    public LocalNewsIndex(@Value("${news.ingest.segment-duration:1h}") Duration segmentDuration,
+            @Value("${news.ingest.retention:7d}") Duration retention, MeterRegistry meterRegistry) {
+        this.index = new ArticleIndex(segmentDuration, retention);
+        this.hitCounter = Counter.builder("news.index.lookups")
+                .description("Topic lookups in the local article index")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.lowRecallCounter = Counter.builder("news.index.lookups")
+                .description("Topic lookups in the local article index")
+                .tag("outcome", "low_recall")
+                .register(meterRegistry);
+        Gauge.builder("news.index.articles", index, ArticleIndex::size)
+                .description("Articles held in the local article index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Empty when disabled or when too few indexed articles match; the caller then fetches live
+    public Optional<NewsApiResponse> lookup(String topic) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<ArticleIndex.Hit> hits = index.search(topic, maxResults, minTermCoverage);
+        if (hits.size() < minResults) {
+            lowRecallCounter.increment();
+            logger.debug("Local index has {} matching articles for topic '{}'; fetching live.", hits.size(), topic);
+            return Optional.empty();
+        }
+        hitCounter.increment();
+        logger.info("Answering topic '{}' with {} articles from the local index.", topic, hits.size());
+        List<Article> articles = hits.stream().map(ArticleIndex.Hit::article).toList();
+        return Optional.of(new NewsApiResponse("ok", articles.size(), articles));
+    }
+
+    // Adds the articles and drops expired segments; returns how many articles were new
+    public int ingest(List<Article> articles) {
+        int added = index.add(articles, clock.instant());
+        int evicted = index.evictExpired(clock.instant());
+        if (evicted > 0) {
+            logger.info("Evicted {} expired articles from the local index.", evicted);
+        }
+        return added;
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
@@ -1,15 +1,33 @@
 package com.meeran.newsanalyzerapi.service;
 
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -23,6 +41,13 @@ import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
 public class NewsService {
     private static final Logger logger = LoggerFactory.getLogger(NewsService.class);
 
+    // provider tags for UpstreamMetrics
+    private static final String NEWSAPI = "newsapi";
+    private static final String MEDIASTACK = "mediastack";
+    // rate limit slots, e.g. news.primary.rate-limit.requests-per-minute
+    private static final String NEWSAPI_SLOT = "news.primary";
+    private static final String MEDIASTACK_SLOT = "news.secondary";
+
     @Value("${news.primary.api.key}")
     private String primaryApiKey;
     @Value("${news.primary.api.url}")
@@ -33,18 +58,74 @@ public class NewsService {
     @Value("${news.secondary.api.url}")
     private String secondaryApiUrl;
 
+    // --- Hedged fetch config ---
+    // When enabled, Mediastack is queried in parallel once NewsAPI.org is slower than
+    // its recent latency percentile, and the first non-empty article list wins.
+    @Value("${news.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+    @Value("${news.hedge.percentile:0.9}")
+    private double hedgePercentile;
+    @Value("${news.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+    @Value("${news.hedge.initial-delay-ms:2000}")
+    private long hedgeInitialDelayMs;
+    @Value("${news.hedge.min-delay-ms:250}")
+    private long hedgeMinDelayMs;
+    @Value("${news.hedge.max-delay-ms:8000}")
+    private long hedgeMaxDelayMs;
+    @Value("${news.hedge.merge:false}")
+    private boolean hedgeMerge;
+    // Bounds how long a merge waits for the primary: hedge.max-delay-ms plus this
+    @Value("${news.primary.http.read-timeout-ms:25000}")
+    private long primaryReadTimeoutMs;
+
+    // Headline feeds pulled for the local index; the NewsAPI.org URL defaults to the
+    // top-headlines endpoint next to news.primary.api.url
+    @Value("${news.ingest.headlines-url:}")
+    private String headlinesUrl;
+    @Value("${news.ingest.country:us}")
+    private String headlinesCountry;
+    @Value("${news.ingest.categories:general,business,technology,science,health,sports,entertainment}")
+    private List<String> headlinesCategories;
+
     private final RestTemplate restTemplate;
+    private final NonBlockingHttpClient nonBlockingHttpClient;
+    private final AsyncTaskExecutor fetchExecutor;
+    private final UpstreamMetrics metrics;
+    private final UpstreamRateLimiter rateLimiter;
+    private final LocalNewsIndex localNewsIndex;
+    private final LatencyTracker primaryLatency = new LatencyTracker(256);
 
-    public NewsService(RestTemplate restTemplate) {
+    public NewsService(RestTemplate restTemplate, NonBlockingHttpClient nonBlockingHttpClient,
+            @Qualifier("newsFetchExecutor") AsyncTaskExecutor fetchExecutor, UpstreamMetrics metrics,
+            UpstreamRateLimiter rateLimiter, LocalNewsIndex localNewsIndex) {
         this.restTemplate = restTemplate;
+        this.nonBlockingHttpClient = nonBlockingHttpClient;
+        this.fetchExecutor = fetchExecutor;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+        this.localNewsIndex = localNewsIndex;
     }
 
     @Cacheable("newsArticles")
     public NewsApiResponse fetchArticlesForTopic(String topic) {
+        return fetchLatestArticles(topic);
+    }
+
+    // Uncached fetch; used by the "newsArticles" cache loader and by refresh-ahead.
+    public NewsApiResponse fetchLatestArticles(String topic) {
+        Optional<NewsApiResponse> indexed = localNewsIndex.lookup(topic);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        if (hedgeEnabled) {
+            return fetchHedged(topic);
+        }
+
         NewsApiResponse primaryResponse = null;
         try {
             logger.info("Attempting to fetch articles from primary provider (NewsAPI.org)");
-            primaryResponse = fetchFromNewsAPI(topic);
+            primaryResponse = timedFetchFromNewsAPI(topic);
 
             // Explicitly check if the primary response has articles.
             if (primaryResponse != null && primaryResponse.articles() != null
@@ -57,11 +138,18 @@ public class NewsService {
             // If no articles, log it and proceed to fallback.
             logger.warn("Primary provider returned no articles for topic: {}. Failing over to secondary provider.",
                     topic);
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.EMPTY);
 
+        } catch (UpstreamThrottledException e) {
+            logger.warn("Primary news provider throttled locally: {} Failing over to secondary provider (Mediastack).",
+                    e.getMessage());
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.causeOf(e));
         } catch (HttpClientErrorException.TooManyRequests e) {
             logger.warn("Primary news provider rate limited. Failing over to secondary provider (Mediastack).", e);
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.causeOf(e));
         } catch (Exception e) {
             logger.error("Primary news provider failed with an exception. Attempting fallback.", e);
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.causeOf(e));
         }
 
         // Call the secondary provider if the primary one failed or returned no
@@ -69,12 +157,320 @@ public class NewsService {
         return fetchFromMediastack(topic);
     }
 
+    /**
+     * Non-blocking variant of {@link #fetchArticlesForTopic(String)} over the async HTTP client.
+     * Shares the "newsArticles" cache and key with it; falls back to Mediastack the same way.
+     */
+    @Cacheable("newsArticles")
+    public CompletableFuture<NewsApiResponse> fetchArticlesForTopicAsync(String topic) {
+        Optional<NewsApiResponse> indexed = localNewsIndex.lookup(topic);
+        if (indexed.isPresent()) {
+            return CompletableFuture.completedFuture(indexed.get());
+        }
+        logger.info("Attempting to fetch articles from primary provider (NewsAPI.org) asynchronously");
+        RequestDeadline deadline = RequestDeadline.current();
+        return rateLimiter.acquireAsync(NEWSAPI_SLOT, NEWSAPI, primaryApiKey)
+                .thenCompose(permit -> {
+                    long start = System.nanoTime();
+                    return nonBlockingHttpClient.getJson(newsApiUri(topic), NewsApiResponse.class, deadline)
+                            .whenComplete((response, ex) -> {
+                                recordCall(NEWSAPI, start, response, ex);
+                                rateLimiter.recordFailure(NEWSAPI_SLOT, NEWSAPI, primaryApiKey, ex);
+                            });
+                })
+                .exceptionally(ex -> {
+                    logger.error("Primary news provider failed with an exception. Attempting fallback.", ex);
+                    metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.causeOf(ex));
+                    return null;
+                })
+                .thenCompose(primaryResponse -> {
+                    if (hasArticles(primaryResponse)) {
+                        logger.info("Successfully fetched {} articles from primary provider.",
+                                primaryResponse.articles().size());
+                        return CompletableFuture.completedFuture(primaryResponse);
+                    }
+                    if (primaryResponse != null) {
+                        logger.warn("Primary provider returned no articles for topic: {}. Failing over to secondary provider.",
+                                topic);
+                        metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.EMPTY);
+                    }
+                    return fetchFromMediastackAsync(topic, deadline);
+                });
+    }
+
+    // Fails with DeadlineExceededException, rather than an empty result, when the budget cannot cover the call
+    private CompletableFuture<NewsApiResponse> fetchFromMediastackAsync(String topic, RequestDeadline deadline) {
+        if (!deadline.allowsAttempt()) {
+            return CompletableFuture.failedFuture(
+                    new DeadlineExceededException("the Mediastack fallback", deadline.isCancelled()));
+        }
+        return rateLimiter.acquireAsync(MEDIASTACK_SLOT, MEDIASTACK, secondaryApiKey)
+                .thenCompose(permit -> {
+                    long start = System.nanoTime();
+                    return nonBlockingHttpClient.getJson(mediastackUri(topic), MediastackDto.Response.class, deadline)
+                            .thenApply(NewsService::toNewsApiResponse)
+                            .whenComplete((response, ex) -> {
+                                recordCall(MEDIASTACK, start, response, ex);
+                                rateLimiter.recordFailure(MEDIASTACK_SLOT, MEDIASTACK, secondaryApiKey, ex);
+                            });
+                })
+                .exceptionally(ex -> {
+                    logger.error("Tertiary news provider (Mediastack) also failed.", ex);
+                    return new NewsApiResponse("error", 0, Collections.emptyList());
+                });
+    }
+
+    /**
+     * Latest headlines from both providers for the local index: one NewsAPI.org top-headlines
+     * page per configured category plus Mediastack's newest articles. Feeds that fail or are
+     * throttled are skipped until the next run.
+     */
+    public List<Article> fetchHeadlines() {
+        List<Article> articles = new ArrayList<>();
+        for (String category : headlinesCategories) {
+            articles.addAll(fetchFeed(NEWSAPI_SLOT, NEWSAPI, primaryApiKey,
+                    () -> restTemplate.getForObject(newsApiHeadlinesUri(category), NewsApiResponse.class)));
+        }
+        articles.addAll(fetchFeed(MEDIASTACK_SLOT, MEDIASTACK, secondaryApiKey,
+                () -> toNewsApiResponse(restTemplate.getForObject(mediastackLatestUri(), MediastackDto.Response.class))));
+        return articles;
+    }
+
+    private List<Article> fetchFeed(String slot, String provider, String apiKey, Supplier<NewsApiResponse> fetch) {
+        try {
+            rateLimiter.acquire(slot, provider, apiKey);
+        } catch (UpstreamThrottledException e) {
+            logger.warn("Skipping {} headlines this run: {}", provider, e.getMessage());
+            return List.of();
+        }
+        long start = System.nanoTime();
+        try {
+            NewsApiResponse response = fetch.get();
+            recordCall(provider, start, response, null);
+            return hasArticles(response) ? response.articles() : List.of();
+        } catch (RuntimeException e) {
+            recordCall(provider, start, null, e);
+            rateLimiter.recordFailure(slot, provider, apiKey, e);
+            logger.warn("Failed to fetch {} headlines: {}", provider, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private NewsApiResponse fetchHedged(String topic) {
+        long hedgeDelayMs = currentHedgeDelayMs();
+        long start = System.nanoTime();
+        PrimarySample sample = new PrimarySample();
+        CompletableFuture<NewsApiResponse> primary = submit(() -> timedFetchFromNewsAPI(topic, sample));
+        // A primary abandoned for the hedge still took at least this long; without the sample the
+        // hedge delay would only learn from the calls fast enough to win
+        primary.whenComplete((response, ex) -> {
+            if (primary.isCancelled()) {
+                sample.record(primaryLatency);
+            }
+        });
+
+        try {
+            NewsApiResponse primaryResponse = primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            if (hasArticles(primaryResponse)) {
+                logger.info("Successfully fetched {} articles from primary provider within hedge delay of {}ms.",
+                        primaryResponse.articles().size(), hedgeDelayMs);
+                return primaryResponse;
+            }
+            logger.warn("Primary provider returned no articles for topic: {}. Failing over to secondary provider.",
+                    topic);
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.EMPTY);
+            return fetchFromMediastack(topic);
+        } catch (TimeoutException e) {
+            logger.info("Primary provider slower than hedge delay of {}ms. Querying secondary provider (Mediastack) in parallel.",
+                    hedgeDelayMs);
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.HEDGE);
+        } catch (ExecutionException e) {
+            logger.error("Primary news provider failed with an exception. Attempting fallback.", e.getCause());
+            metrics.recordFailover(UpstreamMetrics.NEWS, NEWSAPI, UpstreamMetrics.causeOf(e.getCause()));
+            return fetchFromMediastack(topic);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            return new NewsApiResponse("error", 0, Collections.emptyList());
+        }
+
+        CompletableFuture<NewsApiResponse> secondary = submit(() -> fetchFromMediastack(topic));
+        if (hedgeMerge) {
+            long waitUntil = start + RequestDeadline.current()
+                    .cap(Duration.ofMillis(hedgeMaxDelayMs + primaryReadTimeoutMs)).toNanos();
+            NewsApiResponse secondaryResponse = awaitForMerge(secondary, waitUntil, MEDIASTACK);
+            return mergeByUrl(awaitForMerge(primary, waitUntil, NEWSAPI), secondaryResponse);
+        }
+        return firstWithArticles(primary, secondary);
+    }
+
+    // Completes with the first response that has articles and cancels the other fetch.
+    // If neither has articles, the secondary (Mediastack) response is returned as before.
+    private NewsApiResponse firstWithArticles(CompletableFuture<NewsApiResponse> primary,
+            CompletableFuture<NewsApiResponse> secondary) {
+        CompletableFuture<NewsApiResponse> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        primary.whenComplete((response, ex) -> {
+            if (hasArticles(response)) {
+                winner.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                winner.complete(secondary.exceptionally(failure -> null).getNow(null));
+            }
+        });
+        secondary.whenComplete((response, ex) -> {
+            if (hasArticles(response)) {
+                winner.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                winner.complete(response);
+            }
+        });
+
+        NewsApiResponse result = winner.join();
+        boolean primaryWon = result != null && primary.isDone() && !primary.isCompletedExceptionally()
+                && primary.join() == result;
+        if (primaryWon) {
+            logger.info("Primary provider won the hedged fetch with {} articles.", result.articles().size());
+            secondary.cancel(true);
+        } else {
+            if (hasArticles(result)) {
+                logger.info("Secondary provider (Mediastack) won the hedged fetch with {} articles.", result.articles().size());
+            }
+            primary.cancel(true);
+        }
+        return result != null ? result : new NewsApiResponse("error", 0, Collections.emptyList());
+    }
+
+    // The fetch's response if it arrives by waitUntil (System.nanoTime()); otherwise it is cancelled
+    // and the merge goes ahead without it
+    private NewsApiResponse awaitForMerge(CompletableFuture<NewsApiResponse> fetch, long waitUntil, String provider) {
+        try {
+            return fetch.get(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("{} did not answer in time for the hedged merge; merging without it.", provider);
+            fetch.cancel(true);
+        } catch (ExecutionException | CancellationException e) {
+            // Already logged and counted by the fetch
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fetch.cancel(true);
+        }
+        return null;
+    }
+
+    private NewsApiResponse mergeByUrl(NewsApiResponse primaryResponse, NewsApiResponse secondaryResponse) {
+        List<Article> merged = new ArrayList<>();
+        Set<String> seenUrls = new HashSet<>();
+        for (NewsApiResponse response : Arrays.asList(primaryResponse, secondaryResponse)) {
+            if (response == null || response.articles() == null) {
+                continue;
+            }
+            for (Article article : response.articles()) {
+                if (article.url() == null || seenUrls.add(article.url())) {
+                    merged.add(article);
+                }
+            }
+        }
+        logger.info("Merged hedged fetch results into {} unique articles.", merged.size());
+        return new NewsApiResponse(merged.isEmpty() ? "error" : "ok", merged.size(), merged);
+    }
+
+    // Runs a fetch on the executor under the caller's deadline; cancelling the returned future
+    // (or the deadline) interrupts the worker.
+    private CompletableFuture<NewsApiResponse> submit(Supplier<NewsApiResponse> fetch) {
+        RequestDeadline deadline = RequestDeadline.current();
+        CompletableFuture<NewsApiResponse> result = new CompletableFuture<>();
+        deadline.onCancel(() -> result.cancel(true));
+        Future<?> task = fetchExecutor.submit(() -> {
+            try {
+                result.complete(deadline.within(fetch));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((response, ex) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    long currentHedgeDelayMs() {
+        if (primaryLatency.sampleCount() < hedgeMinSamples) {
+            return hedgeInitialDelayMs;
+        }
+        long observed = primaryLatency.percentile(hedgePercentile);
+        return Math.min(Math.max(observed, hedgeMinDelayMs), hedgeMaxDelayMs);
+    }
+
+    private NewsApiResponse timedFetchFromNewsAPI(String topic) {
+        return timedFetchFromNewsAPI(topic, new PrimarySample());
+    }
+
+    private NewsApiResponse timedFetchFromNewsAPI(String topic, PrimarySample sample) {
+        rateLimiter.acquire(NEWSAPI_SLOT, NEWSAPI, primaryApiKey);
+        long start = sample.start();
+        NewsApiResponse response;
+        try {
+            response = fetchFromNewsAPI(topic);
+        } catch (RuntimeException e) {
+            if (UpstreamMetrics.TIMEOUT.equals(UpstreamMetrics.causeOf(e))) {
+                // Censored: the call would have taken at least this long
+                sample.record(primaryLatency);
+            }
+            recordCall(NEWSAPI, start, null, e);
+            rateLimiter.recordFailure(NEWSAPI_SLOT, NEWSAPI, primaryApiKey, e);
+            throw e;
+        }
+        sample.record(primaryLatency);
+        recordCall(NEWSAPI, start, response, null);
+        return response;
+    }
+
+    // One primary call's latency sample, recorded once: when the call answers, or when it times out
+    // or is abandoned, as the time it had run by then (a lower bound on its latency)
+    private static final class PrimarySample {
+        private volatile long startNanos;
+        private volatile boolean started;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        long start() {
+            startNanos = System.nanoTime();
+            started = true;
+            return startNanos;
+        }
+
+        // Nothing is recorded for a call cancelled before it was sent
+        void record(LatencyTracker tracker) {
+            if (started && recorded.compareAndSet(false, true)) {
+                tracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+        }
+    }
+
+    private void recordCall(String provider, long start, NewsApiResponse response, Throwable failure) {
+        if (failure != null) {
+            metrics.recordCall(UpstreamMetrics.NEWS, provider, start, failure);
+        } else {
+            metrics.recordCall(UpstreamMetrics.NEWS, provider, start,
+                    hasArticles(response) ? UpstreamMetrics.SUCCESS : UpstreamMetrics.EMPTY);
+        }
+    }
+
+    private static boolean hasArticles(NewsApiResponse response) {
+        return response != null && response.articles() != null && !response.articles().isEmpty();
+    }
+
     private NewsApiResponse fetchFromNewsAPI(String topic) {
+        return restTemplate.getForObject(newsApiUri(topic), NewsApiResponse.class);
+    }
+
+    private URI newsApiUri(String topic) {
         LocalDate toDate = LocalDate.now();
         LocalDate fromDate = toDate.minusDays(30);
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
 
-        String url = UriComponentsBuilder.fromHttpUrl(primaryApiUrl)
+        return UriComponentsBuilder.fromHttpUrl(primaryApiUrl)
                 .queryParam("q", topic)
                 .queryParam("from", fromDate.format(formatter))
                 .queryParam("to", toDate.format(formatter))
@@ -82,32 +478,77 @@ public class NewsService {
                 .queryParam("language", "en")
                 .queryParam("pageSize", 20)
                 .queryParam("apiKey", primaryApiKey)
-                .toUriString();
+                .encode()
+                .build()
+                .toUri();
+    }
 
-        return restTemplate.getForObject(url, NewsApiResponse.class);
+    private URI newsApiHeadlinesUri(String category) {
+        String url = headlinesUrl.isBlank() ? primaryApiUrl.replaceFirst("everything/?$", "top-headlines") : headlinesUrl;
+        return UriComponentsBuilder.fromHttpUrl(url)
+                .queryParam("country", headlinesCountry)
+                .queryParam("category", category)
+                .queryParam("pageSize", 100)
+                .queryParam("apiKey", primaryApiKey)
+                .encode()
+                .build()
+                .toUri();
     }
 
+    // Throws DeadlineExceededException, so that nothing is cached, when the budget cannot cover the call
     private NewsApiResponse fetchFromMediastack(String topic) {
-        String url = UriComponentsBuilder.fromHttpUrl(secondaryApiUrl)
+        RequestDeadline.current().checkAttempt("the Mediastack fallback");
+        URI url = mediastackUri(topic);
+        logger.info("Calling Mediastack with URL: {}", url);
+
+        try {
+            rateLimiter.acquire(MEDIASTACK_SLOT, MEDIASTACK, secondaryApiKey);
+        } catch (UpstreamThrottledException e) {
+            logger.warn("Tertiary news provider (Mediastack) throttled locally: {}", e.getMessage());
+            return new NewsApiResponse("error", 0, Collections.emptyList());
+        }
+        long start = System.nanoTime();
+        try {
+            NewsApiResponse response = toNewsApiResponse(restTemplate.getForObject(url, MediastackDto.Response.class));
+            recordCall(MEDIASTACK, start, response, null);
+            return response;
+        } catch (Exception e) {
+            recordCall(MEDIASTACK, start, null, e);
+            rateLimiter.recordFailure(MEDIASTACK_SLOT, MEDIASTACK, secondaryApiKey, e);
+            logger.error("Tertiary news provider (Mediastack) also failed.", e);
+        }
+        return new NewsApiResponse("error", 0, Collections.emptyList());
+    }
+
+    private URI mediastackUri(String topic) {
+        return UriComponentsBuilder.fromHttpUrl(secondaryApiUrl)
                 .queryParam("access_key", secondaryApiKey)
                 .queryParam("keywords", topic)
                 .queryParam("languages", "en")
                 .queryParam("limit", 20)
-                .toUriString();
+                .encode()
+                .build()
+                .toUri();
+    }
 
-        logger.info("Calling Mediastack with URL: {}", url);
+    private URI mediastackLatestUri() {
+        return UriComponentsBuilder.fromHttpUrl(secondaryApiUrl)
+                .queryParam("access_key", secondaryApiKey)
+                .queryParam("languages", "en")
+                .queryParam("sort", "published_desc")
+                .queryParam("limit", 100)
+                .encode()
+                .build()
+                .toUri();
+    }
 
-        try {
-            MediastackDto.Response response = restTemplate.getForObject(url, MediastackDto.Response.class);
-            if (response != null && response.data() != null && !response.data().isEmpty()) {
-                List<Article> mappedArticles = response.data().stream()
-                        .map(dtoArticle -> new Article(dtoArticle.title(), dtoArticle.description(), dtoArticle.url()))
-                        .collect(Collectors.toList());
-                return new NewsApiResponse("ok", mappedArticles.size(), mappedArticles);
-            }
-        } catch (Exception e) {
-            logger.error("Tertiary news provider (Mediastack) also failed.", e);
+    private static NewsApiResponse toNewsApiResponse(MediastackDto.Response response) {
+        if (response != null && response.data() != null && !response.data().isEmpty()) {
+            List<Article> mappedArticles = response.data().stream()
+                    .map(dtoArticle -> new Article(dtoArticle.title(), dtoArticle.description(), dtoArticle.url()))
+                    .collect(Collectors.toList());
+            return new NewsApiResponse("ok", mappedArticles.size(), mappedArticles);
         }
         return new NewsApiResponse("error", 0, Collections.emptyList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.meeran.newsanalyzerapi.service;
+
+public class NoArticlesFoundException extends RuntimeException {
+
+    public NoArticlesFoundException(String topic) {
+        super("No recent news articles found for the topic: " + topic + ". Please try another topic.");
+    }
+}
@@ -0,0 +1,130 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Non-blocking counterpart of the RestTemplate calls made by the services.
+ * Requests are sent with {@link HttpClient#sendAsync}, so no thread waits on the
+ * network. Failures surface as the same Spring exceptions RestTemplate throws
+ * ({@link HttpClientErrorException}, {@link HttpServerErrorException},
+ * {@link ResourceAccessException}) so callers keep one set of failover rules. Each request
+ * uses the client, read timeout and bulkhead of its upstream from {@link UpstreamHttpClients}.
+ *
+ * Async callbacks do not run on the request's thread, so callers pass the request's
+ * {@link RequestDeadline}: the timeout is cut to what is left of it, nothing is sent once it
+ * has passed, and cancelling it aborts the exchange.
+ */
+@Component
+public class NonBlockingHttpClient {
+
+    private final UpstreamHttpClients upstreamHttpClients;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public NonBlockingHttpClient(UpstreamHttpClients upstreamHttpClients) {
+        this.upstreamHttpClients = upstreamHttpClients;
+    }
+
+    public <T> CompletableFuture<T> getJson(URI uri, Class<T> responseType) {
+        return getJson(uri, responseType, RequestDeadline.current());
+    }
+
+    public <T> CompletableFuture<T> getJson(URI uri, Class<T> responseType, RequestDeadline deadline) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(deadline.cap(upstreamHttpClients.upstream(uri).readTimeout()))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .GET()
+                .build();
+        return send(request, deadline).thenApply(body -> readJson(body, responseType));
+    }
+
+    // The raw body is returned so callers can decode it without first building a String
+    public CompletableFuture<byte[]> postJson(URI uri, HttpHeaders headers, Object body) {
+        return postJson(uri, headers, body, RequestDeadline.current());
+    }
+
+    public CompletableFuture<byte[]> postJson(URI uri, HttpHeaders headers, Object body, RequestDeadline deadline) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(deadline.cap(upstreamHttpClients.upstream(uri).readTimeout()))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload));
+        headers.forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        return send(builder.build(), deadline);
+    }
+
+    private CompletableFuture<byte[]> send(HttpRequest request, RequestDeadline deadline) {
+        UpstreamHttpClients.Upstream upstream = upstreamHttpClients.upstream(request.uri());
+        try {
+            deadline.check("calling " + upstream.name());
+            upstream.tryEnter();
+        } catch (DeadlineExceededException | BulkheadFullException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<HttpResponse<byte[]>> exchange = upstream.asyncClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        deadline.onCancel(() -> exchange.cancel(true));
+        return exchange
+                .handle((response, ex) -> {
+                    upstream.exit();
+                    // Cut short by the deadline (or its cancellation), not a failure of the upstream
+                    if (ex != null && deadline.isExpired()) {
+                        throw new DeadlineExceededException("the response from " + upstream.name(),
+                                deadline.isCancelled());
+                    }
+                    if (ex != null) {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        throw new ResourceAccessException("I/O error on " + request.method() + " request for \""
+                                + request.uri().getHost() + "\": " + cause.getMessage(),
+                                cause instanceof IOException ioException ? ioException : new IOException(cause));
+                    }
+                    return checkStatus(response);
+                });
+    }
+
+    private static byte[] checkStatus(HttpResponse<byte[]> response) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        if (!status.isError()) {
+            return response.body();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        byte[] body = response.body() != null ? response.body() : new byte[0];
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, String.valueOf(status.value()), headers, body,
+                    StandardCharsets.UTF_8);
+        }
+        throw HttpServerErrorException.create(status, String.valueOf(status.value()), headers, body,
+                StandardCharsets.UTF_8);
+    }
+
+    private <T> T readJson(byte[] body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (IOException e) {
+            throw new ResourceAccessException("Unable to read " + responseType.getSimpleName() + " response", e);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Turns the fetched articles into the "consolidated news content" part of the analysis
+ * prompt: syndicated copies of the same story are collapsed (SimHash over their words),
+ * the remaining articles are ranked, and as many as fit are packed into the token budget
+ * of the provider the prompt is sent to.
+ */
+@Component
+public class PromptAssembler {
+
+    // Token budgets for the whole prompt, per provider slot
+    @Value("${prompt.token-budget:3000}")
+    private int defaultTokenBudget;
+    @Value("${llm.primary.prompt-token-budget:${prompt.token-budget:3000}}")
+    private int primaryTokenBudget;
+    @Value("${llm.secondary.prompt-token-budget:${prompt.token-budget:3000}}")
+    private int secondaryTokenBudget;
+    @Value("${llm.third.prompt-token-budget:${prompt.token-budget:3000}}")
+    private int thirdTokenBudget;
+    // Articles whose SimHashes differ in at most this many of 64 bits are treated as copies
+    @Value("${prompt.dedupe.max-hamming-distance:6}")
+    private int maxHammingDistance;
+
+    private final DistributionSummary promptTokens;
+    private final Counter tokensSaved;
+    private final Counter duplicatesDropped;
+    private final Counter overBudgetDropped;
+
+    public PromptAssembler(MeterRegistry meterRegistry) {
+        this.promptTokens = DistributionSummary.builder("analysis.prompt.tokens")
+                .description("Estimated tokens of each assembled analysis prompt")
+                .baseUnit("tokens")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.tokensSaved = Counter.builder("analysis.prompt.tokens.saved")
+                .description("Estimated article tokens left out of prompts as duplicates or over budget")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.duplicatesDropped = Counter.builder("analysis.prompt.articles.dropped")
+                .description("Articles left out of analysis prompts")
+                .tag("reason", "near_duplicate")
+                .register(meterRegistry);
+        this.overBudgetDropped = Counter.builder("analysis.prompt.articles.dropped")
+                .description("Articles left out of analysis prompts")
+                .tag("reason", "over_budget")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Result of packing: the content to embed in the prompt and what was left out.
+     */
+    public record PackedArticles(String content, int articlesUsed, int duplicates, int overBudget,
+            int contentTokens, int tokensSaved) {}
+
+    /**
+     * A complete prompt and the packing of the articles embedded in it.
+     */
+    public record AssembledPrompt(String text, PackedArticles packed) {}
+
+    public int tokenBudget(LlmProvider provider) {
+        return switch (provider.name()) {
+            case "primary" -> primaryTokenBudget;
+            case "secondary" -> secondaryTokenBudget;
+            case "third" -> thirdTokenBudget;
+            default -> defaultTokenBudget;
+        };
+    }
+
+    /**
+     * Dedupes, ranks and packs {@code articles} into at most {@code contentTokenBudget}
+     * estimated tokens. At least one article is always included (truncated if needed).
+     */
+    public PackedArticles pack(String topic, List<Article> articles, int contentTokenBudget) {
+        List<Candidate> candidates = new ArrayList<>();
+        int totalTokens = 0;
+        for (int i = 0; i < articles.size(); i++) {
+            Article article = articles.get(i);
+            String text = format(article);
+            Candidate candidate = new Candidate(article, text, i, simHash(article), estimateTokens(text) + 1);
+            totalTokens += candidate.tokens;
+            candidates.add(candidate);
+        }
+
+        List<Candidate> unique = dedupe(candidates);
+        Set<String> topicTerms = new HashSet<>(words(topic));
+        unique.sort(Comparator.comparingDouble((Candidate candidate) -> -score(candidate, topicTerms))
+                .thenComparingInt(candidate -> candidate.index));
+
+        StringBuilder content = new StringBuilder();
+        int usedTokens = 0;
+        int used = 0;
+        for (Candidate candidate : unique) {
+            if (usedTokens + candidate.tokens <= contentTokenBudget) {
+                appendArticle(content, candidate.text);
+                usedTokens += candidate.tokens;
+                used++;
+            } else if (used == 0) {
+                String truncated = truncateToTokens(candidate.text, Math.max(contentTokenBudget, 1));
+                appendArticle(content, truncated);
+                usedTokens += estimateTokens(truncated);
+                used++;
+            }
+        }
+
+        int duplicates = candidates.size() - unique.size();
+        int overBudget = unique.size() - used;
+        int saved = Math.max(totalTokens - usedTokens, 0);
+        return new PackedArticles(content.toString(), used, duplicates, overBudget, usedTokens, saved);
+    }
+
+    /**
+     * Records the size of a prompt that was sent and what its packing left out. Called once per
+     * analysis: a failover packs again for the next provider's budget, and recording every
+     * packing would count the same articles twice.
+     */
+    public void recordSent(AssembledPrompt prompt) {
+        promptTokens.record(estimateTokens(prompt.text()));
+        duplicatesDropped.increment(prompt.packed().duplicates());
+        overBudgetDropped.increment(prompt.packed().overBudget());
+        tokensSaved.increment(prompt.packed().tokensSaved());
+    }
+
+    /**
+     * Rough token estimate without a tokenizer: about 4 characters per token for Latin text,
+     * while non-Latin scripts such as Tamil take close to a token per character or two.
+     */
+    public static int estimateTokens(String text) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + (other + 1) / 2;
+    }
+
+    private List<Candidate> dedupe(List<Candidate> candidates) {
+        List<Candidate> unique = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Optional<Candidate> original = findDuplicateOf(unique, candidate);
+            if (original.isEmpty()) {
+                unique.add(candidate);
+                continue;
+            }
+            original.get().copies++;
+            // Keep the more informative copy's text, but the first copy's position
+            if (candidate.text.length() > original.get().text.length()) {
+                original.get().replaceWith(candidate);
+            }
+        }
+        return unique;
+    }
+
+    private Optional<Candidate> findDuplicateOf(List<Candidate> unique, Candidate candidate) {
+        for (Candidate existing : unique) {
+            if (Long.bitCount(existing.simHash ^ candidate.simHash) <= maxHammingDistance
+                    || sameUrl(existing.article, candidate.article)) {
+                return Optional.of(existing);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // More coverage (syndicated copies), topic words in the title and a real description rank higher
+    private static double score(Candidate candidate, Set<String> topicTerms) {
+        double score = Math.log1p(candidate.copies);
+        List<String> titleWords = words(candidate.article.title());
+        for (String term : topicTerms) {
+            if (titleWords.contains(term)) {
+                score += 1.0;
+            }
+        }
+        String description = candidate.article.description();
+        score += Math.min(description == null ? 0 : description.length(), 300) / 300.0;
+        return score;
+    }
+
+    private static void appendArticle(StringBuilder content, String text) {
+        if (!content.isEmpty()) {
+            content.append("\n\n");
+        }
+        content.append(text);
+    }
+
+    private static String format(Article article) {
+        return "Title: " + article.title() + "\nDescription: " + article.description();
+    }
+
+    private static String truncateToTokens(String text, int tokens) {
+        int end = Math.min(text.length(), tokens * 4);
+        while (end > 0 && estimateTokens(text.substring(0, end)) > tokens) {
+            end -= Math.max(1, end / 10);
+        }
+        return text.substring(0, end);
+    }
+
+    private static boolean sameUrl(Article a, Article b) {
+        return a.url() != null && b.url() != null && a.url().trim().equalsIgnoreCase(b.url().trim());
+    }
+
+    // 64-bit SimHash over the distinct words of title and description. Word shingles are too
+    // sensitive for snippets this short: a trailing "(Reuters)" alone moved them several bits.
+    static long simHash(Article article) {
+        List<String> words = words(article.title() + " " + (article.description() == null ? "" : article.description()));
+        int[] weights = new int[64];
+        for (String word : new HashSet<>(words)) {
+            long hash = fnv1a64(word);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+        long simHash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                simHash |= 1L << bit;
+            }
+        }
+        return simHash;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static long fnv1a64(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // Final avalanche so words differing in one character flip about half the bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Candidate {
+        private Article article;
+        private String text;
+        private final int index;
+        private final long simHash;
+        private int tokens;
+        private int copies = 1;
+
+        private Candidate(Article article, String text, int index, long simHash, int tokens) {
+            this.article = article;
+            this.text = text;
+            this.index = index;
+            this.simHash = simHash;
+            this.tokens = tokens;
+        }
+
+        private void replaceWith(Candidate other) {
+            article = other.article;
+            text = other.text;
+            tokens = other.tokens;
+        }
+    }
+}
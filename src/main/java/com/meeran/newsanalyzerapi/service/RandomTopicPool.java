@@ -0,0 +1,227 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.cache.TopicNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pre-generated topics for GET /api/v1/analyze/random-topic. Topics wait in a ring buffer and
+ * each request takes the next one, so serving never waits on an LLM. Once the pool is down to
+ * random-topic.pool.low-water-mark, a background refill asks the LLM for batches of topics
+ * until it is full again, skipping topics that are already pooled or were served recently.
+ * While the pool is empty (before the first refill, or if the LLM keeps failing) requests fall
+ * back to one synchronous LLM call, as without the pool.
+ *
+ * Requests are counted as {@code random.topics.requests} (outcome hit or miss), refills as
+ * {@code random.topics.refills} (outcome success or failure), and the pool size is the
+ * {@code random.topics.pool.size} gauge.
+ */
+@Component
+public class RandomTopicPool {
+    private static final Logger logger = LoggerFactory.getLogger(RandomTopicPool.class);
+
+    // Longer answers are not a topic but a sentence or an explanation
+    private static final int MAX_TOPIC_LENGTH = 100;
+
+    @Value("${random-topic.pool.enabled:false}")
+    private boolean enabled;
+    @Value("${random-topic.pool.batch-size:20}")
+    private int batchSize;
+    @Value("${random-topic.pool.low-water-mark:10}")
+    private int lowWaterMark;
+    @Value("${random-topic.pool.max-calls-per-refill:3}")
+    private int maxCallsPerRefill;
+
+    private final AnalysisService analysisService;
+    private final TaskExecutor refillExecutor;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    // Ring buffer of pooled topics and the normalized forms of what it holds; guarded by this
+    private final String[] ring;
+    private int head;
+    private int count;
+    private final Set<String> pooled = new HashSet<>();
+    // Normalized topics served most recently, oldest first
+    private final Map<String, Boolean> recentlyServed;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter refillSuccessCounter;
+    private final Counter refillFailureCounter;
+
+    public RandomTopicPool(AnalysisService analysisService,
+            @Qualifier("randomTopicRefillExecutor") TaskExecutor refillExecutor,
+            @Value("${random-topic.pool.size:50}") int capacity,
+            @Value("${random-topic.pool.recent-size:200}") int recentSize, MeterRegistry meterRegistry) {
+        this.analysisService = analysisService;
+        this.refillExecutor = refillExecutor;
+        this.ring = new String[capacity];
+        this.recentlyServed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentSize;
+            }
+        };
+        this.hitCounter = Counter.builder("random.topics.requests")
+                .description("Random topics served from the pool")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("random.topics.requests")
+                .description("Random topics generated on the request thread because the pool was empty")
+                .tag("outcome", "miss")
+                .register(meterRegistry);
+        this.refillSuccessCounter = Counter.builder("random.topics.refills")
+                .description("Pool refills that added topics")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.refillFailureCounter = Counter.builder("random.topics.refills")
+                .description("Pool refills that added nothing because the LLM calls failed")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("random.topics.pool.size", this, RandomTopicPool::size)
+                .description("Topics waiting in the random topic pool")
+                .register(meterRegistry);
+    }
+
+    public String next() {
+        if (!enabled) {
+            return analysisService.getRandomSingleTopic();
+        }
+        String topic;
+        int remaining;
+        synchronized (this) {
+            topic = poll();
+            remaining = count;
+        }
+        if (remaining <= lowWaterMark) {
+            requestRefill();
+        }
+        if (topic != null) {
+            hitCounter.increment();
+            return topic;
+        }
+        missCounter.increment();
+        return analysisService.getRandomSingleTopic();
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    // Fills the pool after startup, and again if it ran low without requests to trigger a refill
+    @Scheduled(initialDelayString = "${random-topic.pool.initial-delay-ms:10000}",
+            fixedDelayString = "${random-topic.pool.check-interval-ms:300000}")
+    public void topUp() {
+        if (enabled && size() <= lowWaterMark) {
+            requestRefill();
+        }
+    }
+
+    // At most one refill runs at a time; further requests while it runs are dropped
+    private void requestRefill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillExecutor.execute(this::refill);
+        } catch (TaskRejectedException e) {
+            refilling.set(false);
+        }
+    }
+
+    // Asks for batches until the pool is full, a batch adds nothing new, or the call budget is spent
+    int refill() {
+        int added = 0;
+        boolean failed = false;
+        try {
+            for (int call = 0; call < maxCallsPerRefill && size() < ring.length; call++) {
+                List<String> batch = analysisService.generateRandomTopics(batchSize);
+                if (batch.isEmpty()) {
+                    failed = true;
+                    break;
+                }
+                int batchAdded = offer(batch);
+                added += batchAdded;
+                if (batchAdded == 0) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Random topic refill failed: {}", e.getMessage());
+            failed = true;
+        } finally {
+            refilling.set(false);
+        }
+        if (added > 0) {
+            refillSuccessCounter.increment();
+            logger.info("Added {} topics to the random topic pool; {} pooled.", added, size());
+        } else if (failed) {
+            refillFailureCounter.increment();
+        }
+        return added;
+    }
+
+    private synchronized int offer(List<String> topics) {
+        int added = 0;
+        for (String topic : topics) {
+            if (count == ring.length) {
+                break;
+            }
+            String cleaned = clean(topic);
+            String key = TopicNormalizer.normalize(cleaned);
+            if (key.isEmpty() || cleaned.length() > MAX_TOPIC_LENGTH || pooled.contains(key)
+                    || recentlyServed.containsKey(key)) {
+                continue;
+            }
+            ring[(head + count) % ring.length] = cleaned;
+            count++;
+            pooled.add(key);
+            added++;
+        }
+        return added;
+    }
+
+    // Caller holds the lock
+    private String poll() {
+        if (count == 0) {
+            return null;
+        }
+        String topic = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        String key = TopicNormalizer.normalize(topic);
+        pooled.remove(key);
+        recentlyServed.put(key, Boolean.TRUE);
+        return topic;
+    }
+
+    private static String clean(String topic) {
+        if (topic == null) {
+            return "";
+        }
+        String trimmed = topic.strip();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1).strip();
+        }
+        return trimmed;
+    }
+}
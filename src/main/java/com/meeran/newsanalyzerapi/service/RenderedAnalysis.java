@@ -0,0 +1,26 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * An analysis serialized once for HTTP responses: the JSON body, the same body gzipped, and a
+ * hash of the JSON used as the strong entity tag. expiresAt is when the cache entry it was
+ * rendered from expires, or null when that is not known.
+ */
+public record RenderedAnalysis(byte[] json, byte[] gzipped, String contentHash, Instant expiresAt) {
+
+    // Each encoding is a different representation, so it gets its own strong tag
+    public String etag(boolean gzip) {
+        return "\"" + contentHash + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    public Optional<Duration> timeToLive(Instant now) {
+        if (expiresAt == null) {
+            return Optional.empty();
+        }
+        Duration remaining = Duration.between(now, expiresAt);
+        return Optional.of(remaining.isNegative() ? Duration.ZERO : remaining);
+    }
+}
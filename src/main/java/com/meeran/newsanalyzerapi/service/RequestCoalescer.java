@@ -0,0 +1,171 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.cache.TopicNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight execution: concurrent callers asking for the same key share
+ * one in-flight computation instead of each running their own.
+ *
+ * The computation runs under the {@link RequestDeadline} of the caller that started it, which
+ * may be shorter than a joining caller's (clients can shorten theirs). A caller joining it waits
+ * at most for its own deadline; if the computation fails on the leader's deadline while the
+ * joiner still has budget for an attempt, the joiner runs the computation again (leading it or
+ * joining a newer flight) instead of failing with the leader.
+ *
+ * An async joiner also retains the leader's deadline, so the shared computation is only
+ * cancelled once every async caller waiting for it has been cancelled. A blocking joiner does not
+ * hold the computation open; if the leader's client goes away, the joiner retries as above.
+ */
+@Component
+public class RequestCoalescer {
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaderCounter = Counter.builder("analysis.coalescer.requests")
+                .description("Callers that ran the computation themselves")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("analysis.coalescer.requests")
+                .description("Callers that waited on another caller's in-flight computation")
+                .tag("role", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("analysis.coalescer.inflight", inFlight, ConcurrentMap::size)
+                .description("Distinct keys currently being computed")
+                .register(meterRegistry);
+    }
+
+    // Builds the coalescing key for a topic/language pair, ignoring case, Unicode form and extra whitespace.
+    public static String key(String topic, String language) {
+        return TopicNormalizer.normalize(language) + ":" + TopicNormalizer.normalize(topic);
+    }
+
+    // A computation in progress and the deadline it runs under
+    private record Flight(CompletableFuture<Object> promise, RequestDeadline deadline) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> work) {
+        RequestDeadline deadline = RequestDeadline.current();
+        Flight flight = new Flight(new CompletableFuture<>(), deadline);
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.increment();
+            logger.debug("Joining in-flight computation for key: {}", key);
+            try {
+                return (T) join(existing.promise(), deadline);
+            } catch (DeadlineExceededException e) {
+                if (!failedOnLeaderDeadline(existing) || !deadline.allowsAttempt()) {
+                    throw e;
+                }
+                logger.debug("In-flight computation for key {} ran out of its leader's deadline; retrying.", key);
+                return execute(key, work);
+            }
+        }
+
+        leaderCounter.increment();
+        try {
+            T result = work.get();
+            flight.promise().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.promise().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // Async variant: the leader's future is shared with every caller that arrives while it is running.
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> work) {
+        RequestDeadline deadline = RequestDeadline.current();
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        Flight flight = new Flight(promise, deadline);
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.increment();
+            logger.debug("Joining in-flight computation for key: {}", key);
+            existing.deadline().retain();
+            deadline.onCancel(existing.deadline()::cancel);
+            return existing.promise().thenApply(result -> (T) result)
+                    .exceptionallyCompose(ex -> {
+                        if (!failedOnLeaderDeadline(existing) || !deadline.allowsAttempt()) {
+                            return CompletableFuture.failedFuture(ex);
+                        }
+                        logger.debug("In-flight computation for key {} ran out of its leader's deadline; retrying.", key);
+                        return deadline.within(() -> executeAsync(key, work));
+                    });
+        }
+
+        leaderCounter.increment();
+        try {
+            work.get().whenComplete((result, ex) -> {
+                inFlight.remove(key, flight);
+                if (ex != null) {
+                    promise.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            promise.completeExceptionally(e);
+        }
+        return promise.thenApply(result -> (T) result);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // True once the flight has failed because its leader's deadline passed or was cancelled
+    private static boolean failedOnLeaderDeadline(Flight flight) {
+        return flight.promise().isCompletedExceptionally()
+                && flight.promise().handle((result, ex) -> ex).join() instanceof DeadlineExceededException;
+    }
+
+    // Waits for the leader's result, but no longer than the waiting caller's own deadline
+    private static Object join(CompletableFuture<Object> future, RequestDeadline deadline) {
+        try {
+            if (!deadline.isBounded()) {
+                return future.join();
+            }
+            return future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("the shared computation completed", false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("the shared computation completed", true);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
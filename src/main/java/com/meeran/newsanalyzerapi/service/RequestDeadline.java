@@ -0,0 +1,158 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Time budget of one user request, shared by every upstream call made on its behalf. Outbound
+ * calls are given at most the remaining budget as their timeout, and a retry or failover is
+ * only started while at least the minimum attempt budget is left.
+ *
+ * The deadline of the request being served is bound to the thread handling it (see
+ * {@link #current()}); async stages capture it when they are set up and pass it on. Without a
+ * bound deadline, {@link #current()} returns {@link #NONE}, which never expires.
+ *
+ * A deadline is also cancelled when its client goes away. Cancelling cancels the in-flight
+ * calls registered with {@link #onCancel}. Requests coalesced onto another request's computation
+ * {@link #retain() retain} its deadline, so the shared work is only cancelled once every
+ * request waiting for it has been cancelled.
+ */
+public final class RequestDeadline {
+
+    public static final RequestDeadline NONE = new RequestDeadline(Long.MAX_VALUE, Duration.ZERO);
+
+    // What NONE reports as remaining; longer than any timeout it is compared with
+    private static final Duration UNBOUNDED = Duration.ofDays(365);
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final Duration minAttempt;
+    private final AtomicInteger holders = new AtomicInteger(1);
+    private final List<Runnable> cancelActions = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+    // Cancelled while budget was still left, i.e. the client went away
+    private volatile boolean abandoned;
+
+    private RequestDeadline(long deadlineNanos, Duration minAttempt) {
+        this.deadlineNanos = deadlineNanos;
+        this.minAttempt = minAttempt;
+    }
+
+    // A deadline budget from now; retries and failovers need minAttempt of it left
+    public static RequestDeadline after(Duration budget, Duration minAttempt) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos(), minAttempt);
+    }
+
+    public static RequestDeadline current() {
+        RequestDeadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    // Binds this deadline to the current thread until the returned scope is closed
+    public Scope bind() {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    // Runs work with this deadline bound, for work handed to another thread
+    public <T> T within(Supplier<T> work) {
+        try (Scope scope = bind()) {
+            return work.get();
+        }
+    }
+
+    public Duration remaining() {
+        if (!isBounded()) {
+            return UNBOUNDED;
+        }
+        return cancelled ? Duration.ZERO : Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return cancelled || (isBounded() && deadlineNanos - System.nanoTime() <= 0);
+    }
+
+    // True if the deadline was cancelled before it had passed, rather than running out
+    public boolean isCancelled() {
+        return abandoned;
+    }
+
+    // True while enough budget is left to start another attempt against an upstream
+    public boolean allowsAttempt() {
+        return !isExpired() && remaining().compareTo(minAttempt) >= 0;
+    }
+
+    // The timeout for an outbound call: the configured one, but never past the deadline
+    public Duration cap(Duration timeout) {
+        Duration remaining = remaining();
+        if (remaining.compareTo(timeout) >= 0) {
+            return timeout;
+        }
+        return remaining.isZero() ? Duration.ofMillis(1) : remaining;
+    }
+
+    // Throws if nothing is left of the budget; stage names what was about to start
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(stage, abandoned);
+        }
+    }
+
+    // Throws unless the budget still covers another attempt (a retry or a failover)
+    public void checkAttempt(String stage) {
+        if (!allowsAttempt()) {
+            throw new DeadlineExceededException(stage, abandoned);
+        }
+    }
+
+    // Runs action when the deadline is cancelled, or right away if it already was
+    public void onCancel(Runnable action) {
+        if (!isBounded()) {
+            return;
+        }
+        cancelActions.add(action);
+        if (cancelled && cancelActions.remove(action)) {
+            action.run();
+        }
+    }
+
+    // Another request now waits on the work running under this deadline
+    public void retain() {
+        if (isBounded()) {
+            holders.incrementAndGet();
+        }
+    }
+
+    // Gives up one hold; the last one cancels the deadline and its in-flight calls
+    public void cancel() {
+        if (!isBounded() || holders.decrementAndGet() > 0) {
+            return;
+        }
+        abandoned = deadlineNanos - System.nanoTime() > 0;
+        cancelled = true;
+        for (Runnable action : cancelActions) {
+            if (cancelActions.remove(action)) {
+                action.run();
+            }
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,217 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Service;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * End-to-end analysis of a topic: fetch the news, then run the LLM analysis.
+ * Concurrent requests for the same topic and language share one computation, and
+ * entries past their soft TTL are handed to the {@link CacheRefresher} after answering.
+ *
+ * Topics are first passed through the {@link TopicResolver}, so a near-identical variant of a
+ * recently analyzed topic is served as that topic.
+ *
+ * The {@link RequestDeadline} bound to the calling thread limits every upstream call made for
+ * the request; in async mode it is carried from the news stage into the LLM stage.
+ *
+ * Every analysis handed out is also rendered by the {@link AnalysisRenderer}, so cache hits
+ * can be answered with pre-serialized bytes.
+ *
+ * User requests are timed as {@code analysis.requests}, tagged with the mode (sync, async,
+ * stream), the analysis cache outcome (hit, miss, coalesced) and the result.
+ */
+@Service
+public class TopicAnalysisService {
+
+    // Analysis cache outcomes of a request
+    private static final String CACHE_HIT = "hit";
+    private static final String CACHE_MISS = "miss";
+    private static final String COALESCED = "coalesced";
+
+    private final NewsService newsService;
+    private final AnalysisService analysisService;
+    private final RequestCoalescer coalescer;
+    private final CacheRefresher cacheRefresher;
+    private final TopicPopularity topicPopularity;
+    private final AnalysisRenderer renderer;
+    private final TopicResolver topicResolver;
+    private final MeterRegistry meterRegistry;
+
+    public TopicAnalysisService(NewsService newsService, AnalysisService analysisService, RequestCoalescer coalescer,
+            CacheRefresher cacheRefresher, TopicPopularity topicPopularity, AnalysisRenderer renderer,
+            TopicResolver topicResolver, MeterRegistry meterRegistry) {
+        this.newsService = newsService;
+        this.analysisService = analysisService;
+        this.coalescer = coalescer;
+        this.cacheRefresher = cacheRefresher;
+        this.topicPopularity = topicPopularity;
+        this.renderer = renderer;
+        this.topicResolver = topicResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // An analysis together with its rendering; shared by all callers coalesced onto one computation
+    private record Analyzed(ProblemAnalysis analysis, RenderedAnalysis rendered) {
+    }
+
+    // The topic a request for this topic is served as; see TopicResolver
+    public String resolveTopic(String topic) {
+        return topicResolver.resolve(topic);
+    }
+
+    public ProblemAnalysis analyze(String topic, String language) {
+        return analyzeTimed(resolveTopic(topic), language).analysis();
+    }
+
+    // Same as analyze, returning the analysis as pre-serialized response bytes
+    public RenderedAnalysis analyzeRendered(String topic, String language) {
+        return analyzeTimed(resolveTopic(topic), language).rendered();
+    }
+
+    private Analyzed analyzeTimed(String topic, String language) {
+        topicPopularity.record(topic);
+        long start = System.nanoTime();
+        AtomicReference<String> cacheOutcome = new AtomicReference<>(COALESCED);
+        try {
+            Analyzed analyzed = analyzeCoalesced(topic, language, cacheOutcome);
+            recordRequest("sync", cacheOutcome.get(), start, null);
+            return analyzed;
+        } catch (RuntimeException e) {
+            recordRequest("sync", cacheOutcome.get(), start, e);
+            throw e;
+        }
+    }
+
+    // Used by the cache warmer: same as analyze, but does not count as a user request.
+    public ProblemAnalysis warm(String topic, String language) {
+        return analyzeCoalesced(resolveTopic(topic), language, new AtomicReference<>()).analysis();
+    }
+
+    // cacheOutcome stays COALESCED unless this caller is the one computing the result
+    private Analyzed analyzeCoalesced(String topic, String language, AtomicReference<String> cacheOutcome) {
+        return coalescer.execute(RequestCoalescer.key(topic, language), () -> {
+            cacheOutcome.set(CACHE_MISS);
+            NewsApiResponse newsResponse = fetchArticles(topic);
+            Optional<ProblemAnalysis> cached = analysisService.getCachedAnalysis(topic, newsResponse.articles(), language);
+            if (cached.isPresent()) {
+                cacheOutcome.set(CACHE_HIT);
+            }
+            ProblemAnalysis analysis = cached.orElseGet(
+                    () -> analysisService.analyzeTopic(topic, newsResponse.articles(), language));
+            cacheRefresher.refreshIfStale(topic, language, newsResponse);
+            return render(topic, newsResponse, language, analysis);
+        });
+    }
+
+    // Non-blocking variant used in async mode; no thread is held while the providers respond.
+    public CompletableFuture<ProblemAnalysis> analyzeAsync(String topic, String language) {
+        return analyzeTimedAsync(resolveTopic(topic), language).thenApply(Analyzed::analysis);
+    }
+
+    public CompletableFuture<RenderedAnalysis> analyzeRenderedAsync(String topic, String language) {
+        return analyzeTimedAsync(resolveTopic(topic), language).thenApply(Analyzed::rendered);
+    }
+
+    private CompletableFuture<Analyzed> analyzeTimedAsync(String topic, String language) {
+        topicPopularity.record(topic);
+        long start = System.nanoTime();
+        AtomicReference<String> cacheOutcome = new AtomicReference<>(COALESCED);
+        RequestDeadline deadline = RequestDeadline.current();
+        return coalescer.executeAsync(RequestCoalescer.key(topic, language), () -> {
+            cacheOutcome.set(CACHE_MISS);
+            return newsService.fetchArticlesForTopicAsync(topic)
+                    .thenCompose(newsResponse -> {
+                        if (!hasArticles(newsResponse)) {
+                            throw new NoArticlesFoundException(topic);
+                        }
+                        Optional<ProblemAnalysis> cached = analysisService.getCachedAnalysis(topic,
+                                newsResponse.articles(), language);
+                        if (cached.isPresent()) {
+                            cacheOutcome.set(CACHE_HIT);
+                        }
+                        // Runs on the thread that completed the news fetch, so the deadline is bound again
+                        CompletableFuture<ProblemAnalysis> analysis = cached.map(CompletableFuture::completedFuture)
+                                .orElseGet(() -> deadline.within(() -> analysisService.analyzeTopicAsync(topic,
+                                        newsResponse.articles(), language)));
+                        return analysis.thenApply(result -> {
+                            cacheRefresher.refreshIfStale(topic, language, newsResponse);
+                            return render(topic, newsResponse, language, result);
+                        });
+                    });
+        }).whenComplete((analysis, ex) -> recordRequest("async", cacheOutcome.get(), start, ex));
+    }
+
+    // Streams analysis fields to onField as the LLM produces them; a cached analysis is returned without streaming.
+    public ProblemAnalysis analyzeStreaming(String requestedTopic, String language, BiConsumer<String, String> onField) {
+        String topic = resolveTopic(requestedTopic);
+        topicPopularity.record(topic);
+        long start = System.nanoTime();
+        String cacheOutcome = CACHE_MISS;
+        try {
+            NewsApiResponse newsResponse = fetchArticles(topic);
+            Optional<ProblemAnalysis> cached = analysisService.getCachedAnalysis(topic, newsResponse.articles(), language);
+            ProblemAnalysis analysis;
+            if (cached.isPresent()) {
+                cacheOutcome = CACHE_HIT;
+                cacheRefresher.refreshIfStale(topic, language, newsResponse);
+                analysis = cached.get();
+            } else {
+                analysis = analysisService.streamAnalysis(topic, newsResponse.articles(), language, onField);
+            }
+            if (analysis != null) {
+                topicResolver.record(topic);
+            }
+            recordRequest("stream", cacheOutcome, start, null);
+            return analysis;
+        } catch (RuntimeException e) {
+            recordRequest("stream", cacheOutcome, start, e);
+            throw e;
+        }
+    }
+
+    private Analyzed render(String topic, NewsApiResponse newsResponse, String language, ProblemAnalysis analysis) {
+        if (analysis == null) {
+            return new Analyzed(null, null);
+        }
+        topicResolver.record(topic);
+        RenderedAnalysis rendered = renderer.render(analysis,
+                () -> analysisService.cachedTimeToLive(topic, newsResponse.articles(), language));
+        return new Analyzed(analysis, rendered);
+    }
+
+    private void recordRequest(String mode, String cacheOutcome, long startNanos, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        String outcome = cause == null ? "success" : cause instanceof NoArticlesFoundException ? "not_found" : "error";
+        Timer.builder("analysis.requests")
+                .description("End-to-end latency of topic analysis requests")
+                .tags("mode", mode, "cache", cacheOutcome, "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private NewsApiResponse fetchArticles(String topic) {
+        NewsApiResponse newsResponse = newsService.fetchArticlesForTopic(topic);
+        if (!hasArticles(newsResponse)) {
+            throw new NoArticlesFoundException(topic);
+        }
+        return newsResponse;
+    }
+
+    private static boolean hasArticles(NewsApiResponse newsResponse) {
+        return newsResponse != null && newsResponse.articles() != null && !newsResponse.articles().isEmpty();
+    }
+}
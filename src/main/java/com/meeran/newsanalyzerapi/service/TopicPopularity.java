@@ -0,0 +1,71 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.meeran.newsanalyzerapi.cache.TopicNormalizer;
+
+/**
+ * Counts how often each topic is requested so the cache warmer can pre-compute the
+ * most popular ones. Counts are halved by {@link #decay()} so old favourites fade out,
+ * and only the most requested topics are kept once the table is full.
+ */
+@Component
+public class TopicPopularity {
+
+    private static final int MAX_TRACKED_TOPICS = 1000;
+
+    private static final class Counter {
+        private volatile String topic;   // as last typed by a user
+        private final AtomicLong requests = new AtomicLong();
+
+        private Counter(String topic) {
+            this.topic = topic;
+        }
+    }
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public void record(String topic) {
+        if (topic == null || topic.isBlank()) {
+            return;
+        }
+        Counter counter = counters.computeIfAbsent(TopicNormalizer.normalize(topic), key -> new Counter(topic.trim()));
+        counter.topic = topic.trim();
+        counter.requests.incrementAndGet();
+        if (counters.size() > MAX_TRACKED_TOPICS) {
+            trim();
+        }
+    }
+
+    // Most requested topics first
+    public List<String> top(int limit) {
+        return counters.values().stream()
+                .sorted(Comparator.comparingLong((Counter counter) -> counter.requests.get()).reversed())
+                .limit(limit)
+                .map(counter -> counter.topic)
+                .toList();
+    }
+
+    public void decay() {
+        counters.values().removeIf(counter -> counter.requests.updateAndGet(requests -> requests / 2) == 0);
+    }
+
+    private synchronized void trim() {
+        int excess = counters.size() - MAX_TRACKED_TOPICS * 3 / 4;
+        if (excess <= 0) {
+            return;
+        }
+        counters.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().requests.get()))
+                .limit(excess)
+                .map(entry -> entry.getKey())
+                .toList()
+                .forEach(counters::remove);
+    }
+}
@@ -0,0 +1,213 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.meeran.newsanalyzerapi.cache.TopicNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Maps a requested topic onto a recently analyzed one that means the same, so "ai regulations"
+ * and "Regulation of AI" reuse the news and analyses cached for "AI regulation".
+ *
+ * Topics are compared as sets of words, ignoring order and a few English stop words. Two words
+ * match when they are equal or, for words of four or more characters, when their character
+ * trigrams are similar enough (plurals, typos). In scripts that write vowels as combining marks,
+ * such as Tamil, a word also matches its suffixed forms: மாற்றம் and மாற்றங்கள் share the stem
+ * மாற்ற once the final letter is dropped. A topic's similarity to a remembered one is the Dice
+ * coefficient over matched words; the most similar topic at or above topics.resolution.threshold
+ * wins. A remembered topic is only a candidate if it has a match for every word of the requested
+ * one: "climate change india" asks for more than "climate change" and is analyzed on its own,
+ * even though one extra word keeps the Dice coefficient at 0.8. Topics are remembered for as long as their analysis stays cached (topics.resolution.ttl).
+ * Resolutions are counted as {@code analysis.topics.resolved}.
+ */
+@Component
+public class TopicResolver {
+    private static final Logger logger = LoggerFactory.getLogger(TopicResolver.class);
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "about", "for", "in", "of", "on", "the",
+            "to");
+    private static final int MIN_FUZZY_WORD_LENGTH = 4;
+    private static final int MIN_STEM_LENGTH = 3;
+
+    @Value("${topics.resolution.enabled:false}")
+    private boolean enabled;
+    @Value("${topics.resolution.threshold:0.8}")
+    private double threshold;
+    // Trigram similarity at which two words count as the same word
+    @Value("${topics.resolution.word-similarity:0.7}")
+    private double wordSimilarity;
+
+    // Keyed by normalized topic; the value keeps the spelling the topic was first analyzed with
+    private final Cache<String, KnownTopic> knownTopics;
+    private final Counter resolvedCounter;
+
+    private record KnownTopic(String topic, List<Word> words) {}
+
+    // stem is null for words without combining marks
+    private record Word(String text, Set<String> trigrams, String stem) {}
+
+    public TopicResolver(@Value("${topics.resolution.max-topics:1000}") long maxTopics,
+            @Value("${topics.resolution.ttl:4h}") Duration ttl, MeterRegistry meterRegistry) {
+        this.knownTopics = Caffeine.newBuilder()
+                .maximumSize(maxTopics)
+                .expireAfterWrite(ttl)
+                .build();
+        this.resolvedCounter = Counter.builder("analysis.topics.resolved")
+                .description("Requested topics answered with a similar, recently analyzed topic")
+                .register(meterRegistry);
+    }
+
+    // The remembered topic this one should be served as, or the topic itself
+    public String resolve(String topic) {
+        if (!enabled || topic == null) {
+            return topic;
+        }
+        String normalized = TopicNormalizer.normalize(topic);
+        KnownTopic exact = knownTopics.getIfPresent(normalized);
+        if (exact != null) {
+            return exact.topic();
+        }
+        List<Word> words = words(normalized);
+        if (words.isEmpty()) {
+            return topic;
+        }
+        KnownTopic best = null;
+        double bestSimilarity = threshold;
+        for (KnownTopic known : knownTopics.asMap().values()) {
+            int matched = matchedWords(words, known.words());
+            if (matched < words.size()) {
+                continue;
+            }
+            double similarity = dice(matched, words, known.words());
+            if (similarity >= bestSimilarity && (best == null || similarity > bestSimilarity)) {
+                best = known;
+                bestSimilarity = similarity;
+            }
+        }
+        if (best == null) {
+            return topic;
+        }
+        resolvedCounter.increment();
+        logger.info("Resolved topic '{}' to recently analyzed topic '{}' (similarity {}).", topic, best.topic(),
+                String.format("%.2f", bestSimilarity));
+        return best.topic();
+    }
+
+    // Remembers a topic that now has cached news and analyses, restarting its TTL
+    public void record(String topic) {
+        if (!enabled || topic == null) {
+            return;
+        }
+        String normalized = TopicNormalizer.normalize(topic);
+        KnownTopic existing = knownTopics.getIfPresent(normalized);
+        if (existing != null) {
+            knownTopics.put(normalized, existing);
+            return;
+        }
+        List<Word> words = words(normalized);
+        if (!words.isEmpty()) {
+            knownTopics.put(normalized, new KnownTopic(topic, words));
+        }
+    }
+
+    // Dice coefficient over words, each word matched at most once
+    double similarity(List<Word> a, List<Word> b) {
+        return dice(matchedWords(a, b), a, b);
+    }
+
+    double similarity(String a, String b) {
+        return similarity(words(TopicNormalizer.normalize(a)), words(TopicNormalizer.normalize(b)));
+    }
+
+    private static double dice(int matched, List<Word> a, List<Word> b) {
+        return 2.0 * matched / (a.size() + b.size());
+    }
+
+    // Words of a that have a match in b
+    private int matchedWords(List<Word> a, List<Word> b) {
+        boolean[] used = new boolean[b.size()];
+        int matched = 0;
+        for (Word word : a) {
+            for (int i = 0; i < b.size(); i++) {
+                if (!used[i] && sameWord(word, b.get(i))) {
+                    used[i] = true;
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private boolean sameWord(Word a, Word b) {
+        if (a.text().equals(b.text())) {
+            return true;
+        }
+        if (a.text().length() < MIN_FUZZY_WORD_LENGTH || b.text().length() < MIN_FUZZY_WORD_LENGTH) {
+            return false;
+        }
+        if (a.stem() != null && b.stem() != null) {
+            Word shorter = a.text().length() <= b.text().length() ? a : b;
+            Word longer = shorter == a ? b : a;
+            if (shorter.stem().length() >= MIN_STEM_LENGTH && longer.text().startsWith(shorter.stem())) {
+                return true;
+            }
+        }
+        int shared = 0;
+        for (String trigram : a.trigrams()) {
+            if (b.trigrams().contains(trigram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (a.trigrams().size() + b.trigrams().size()) >= wordSimilarity;
+    }
+
+    // Letters keep their combining marks, so Tamil vowel signs stay part of the word
+    private static List<Word> words(String normalized) {
+        List<Word> words = new ArrayList<>();
+        for (String text : normalized.split("[^\\p{L}\\p{M}\\p{N}]+")) {
+            if (!text.isEmpty() && !STOP_WORDS.contains(text)) {
+                words.add(new Word(text, trigrams(text), stem(text)));
+            }
+        }
+        return words;
+    }
+
+    // The word without its final letter and that letter's marks, if it has any combining marks
+    private static String stem(String word) {
+        int lastLetter = -1;
+        boolean hasMarks = false;
+        for (int i = 0; i < word.length(); i++) {
+            int type = Character.getType(word.charAt(i));
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                hasMarks = true;
+            } else {
+                lastLetter = i;
+            }
+        }
+        return hasMarks && lastLetter > 0 ? word.substring(0, lastLetter) : null;
+    }
+
+    private static Set<String> trigrams(String word) {
+        String padded = " " + word + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,368 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * One HTTP client per upstream provider, so a slow provider can only exhaust its own
+ * connections. Each provider slot (news.primary, news.secondary, llm.primary, ...) gets its
+ * own keep-alive connection pool and timeouts from {@code <slot>.http.*}, and a bulkhead that
+ * lets at most {@code <slot>.http.max-concurrency} calls run against it at once. A call made
+ * inside {@link #withSlot} uses that slot; other calls are routed by matching their URL against
+ * the slots' {@code <slot>.api.url}. Slots with the same base URL (llm.primary and llm.secondary
+ * both call Gemini) still get separate clients, so the LLM calls name their slot.
+ *
+ * Blocking calls go through Apache HttpClient pools, or through the JDK client when
+ * {@code <slot>.http.http2} is set; async calls always use a JDK client per slot. A blocking
+ * call waits up to {@code http.bulkhead.max-wait-ms} for a bulkhead permit, an async call
+ * does not wait; either fails with {@link BulkheadFullException} when none is free.
+ *
+ * Under a {@link RequestDeadline}, a blocking call's read timeout and bulkhead wait are cut to
+ * the time the request has left, and a call is not sent at all once the deadline has passed.
+ */
+@Component
+public class UpstreamHttpClients implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamHttpClients.class);
+
+    private static final List<String> SLOTS = List.of("news.primary", "news.secondary", "llm.primary", "llm.secondary",
+            "llm.third");
+    private static final ThreadLocal<String> CURRENT_SLOT = new ThreadLocal<>();
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService asyncExecutor;
+    private final long bulkheadMaxWaitMs;
+    private final Map<String, Upstream> bySlot = new LinkedHashMap<>();
+    // Longest base URL first, so the most specific slot wins
+    private final List<Upstream> upstreams = new ArrayList<>();
+    private final Upstream fallback;
+
+    public UpstreamHttpClients(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.bulkheadMaxWaitMs = environment.getProperty("http.bulkhead.max-wait-ms", Long.class, 500L);
+
+        // A handful of threads only run async response callbacks; in-flight requests do not hold one
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("async-http-");
+        threadFactory.setDaemon(true);
+        this.asyncExecutor = Executors.newFixedThreadPool(environment.getProperty("http.async.threads", Integer.class, 4),
+                threadFactory);
+
+        for (String slot : SLOTS) {
+            String baseUrl = environment.getProperty(slot + ".api.url");
+            if (baseUrl != null && !baseUrl.isBlank()) {
+                bySlot.put(slot, new Upstream(slot, baseUrl));
+            }
+        }
+        upstreams.addAll(bySlot.values());
+        upstreams.sort(Comparator.comparingInt((Upstream upstream) -> upstream.baseUrl.length()).reversed());
+        this.fallback = new Upstream("default", "");
+    }
+
+    // Dispatches each request to the pool of the upstream its URL belongs to
+    public ClientHttpRequestFactory requestFactory() {
+        return (uri, method) -> upstream(uri).createRequest(uri, method);
+    }
+
+    // Holds a bulkhead permit from sending the request until the response is closed
+    public ClientHttpRequestInterceptor bulkheadInterceptor() {
+        return (request, body, execution) -> {
+            Upstream upstream = upstream(request.getURI());
+            RequestDeadline deadline = RequestDeadline.current();
+            deadline.check("calling " + upstream.name);
+            upstream.enter(Math.min(bulkheadMaxWaitMs, deadline.remaining().toMillis()));
+            try {
+                return new PermitReleasingResponse(execution.execute(request, body), upstream);
+            } catch (IOException | RuntimeException e) {
+                upstream.exit();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Runs call with its HTTP requests sent through the given slot's client and bulkhead, for
+     * slots whose URL alone does not tell them apart. Requests are resolved to an upstream on the
+     * calling thread, so this covers the send of an async call, not its completion.
+     */
+    public static <T> T withSlot(String slot, Supplier<T> call) {
+        String previous = CURRENT_SLOT.get();
+        CURRENT_SLOT.set(slot);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SLOT.remove();
+            } else {
+                CURRENT_SLOT.set(previous);
+            }
+        }
+    }
+
+    public Upstream upstream(URI uri) {
+        String slot = CURRENT_SLOT.get();
+        if (slot != null && bySlot.containsKey(slot)) {
+            return bySlot.get(slot);
+        }
+        String url = uri.toString();
+        for (Upstream upstream : upstreams) {
+            if (url.startsWith(upstream.baseUrl)) {
+                return upstream;
+            }
+        }
+        return fallback;
+    }
+
+    @Override
+    public void destroy() {
+        for (Upstream upstream : upstreams) {
+            upstream.close();
+        }
+        fallback.close();
+        asyncExecutor.shutdownNow();
+    }
+
+    public final class Upstream {
+        private final String name;
+        private final String baseUrl;
+        private final Duration readTimeout;
+        private final HttpClient asyncClient;
+        private final ClientHttpRequestFactory requestFactory;
+        private final CloseableHttpClient pooledClient;
+        private final RequestConfig requestConfig;
+        private final Semaphore permits;
+        private final Timer waitTimer;
+        private final Counter rejectedCounter;
+
+        private Upstream(String name, String baseUrl) {
+            this.name = name;
+            this.baseUrl = baseUrl;
+            int maxConnections = property("max-connections", Integer.class, 20);
+            int maxConcurrency = property("max-concurrency", Integer.class, maxConnections);
+            Duration connectTimeout = Duration.ofMillis(property("connect-timeout-ms", Long.class, 25_000L));
+            this.readTimeout = Duration.ofMillis(property("read-timeout-ms", Long.class, 25_000L));
+            long keepAliveMs = property("keep-alive-ms", Long.class, 30_000L);
+            boolean http2 = property("http2", Boolean.class, false);
+
+            this.asyncClient = HttpClient.newBuilder()
+                    .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(connectTimeout)
+                    .executor(asyncExecutor)
+                    .build();
+            if (http2) {
+                JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(asyncClient);
+                factory.setReadTimeout(readTimeout);
+                this.requestFactory = factory;
+                this.pooledClient = null;
+                this.requestConfig = null;
+            } else {
+                PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(connectTimeout))
+                                .setSocketTimeout(Timeout.of(readTimeout))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                .build())
+                        .build();
+                this.requestConfig = RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(bulkheadMaxWaitMs))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build();
+                this.pooledClient = HttpClients.custom()
+                        .setConnectionManager(pool)
+                        .setDefaultRequestConfig(requestConfig)
+                        .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                        .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                        .build();
+                HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(pooledClient);
+                factory.setHttpContextFactory((method, uri) -> deadlineContext());
+                this.requestFactory = factory;
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, name).bindTo(meterRegistry);
+            }
+
+            this.permits = new Semaphore(maxConcurrency);
+            this.waitTimer = Timer.builder("upstream.bulkhead.wait")
+                    .description("Time calls waited for a free slot in the upstream's bulkhead")
+                    .tag("upstream", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.rejectedCounter = Counter.builder("upstream.bulkhead.rejected")
+                    .description("Calls not sent because the upstream's bulkhead was full")
+                    .tag("upstream", name)
+                    .register(meterRegistry);
+            Gauge.builder("upstream.bulkhead.active", permits, semaphore -> maxConcurrency - semaphore.availablePermits())
+                    .description("Calls currently running against the upstream")
+                    .tag("upstream", name)
+                    .register(meterRegistry);
+        }
+
+        private ClientHttpRequest createRequest(URI uri, HttpMethod method) throws IOException {
+            Duration timeout = RequestDeadline.current().cap(readTimeout);
+            if (pooledClient == null && timeout.compareTo(readTimeout) < 0) {
+                // The JDK factory takes its read timeout from the factory, so a shorter one needs its own
+                JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(asyncClient);
+                factory.setReadTimeout(timeout);
+                return factory.createRequest(uri, method);
+            }
+            return requestFactory.createRequest(uri, method);
+        }
+
+        // Request config with the read timeout cut to the deadline; null keeps the client's default
+        private HttpContext deadlineContext() {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (!deadline.isBounded()) {
+                return null;
+            }
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.copy(requestConfig)
+                    .setResponseTimeout(Timeout.of(deadline.cap(readTimeout)))
+                    .build());
+            return context;
+        }
+
+        private <T> T property(String key, Class<T> type, T defaultValue) {
+            return environment.getProperty(name + ".http." + key, type, defaultValue);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public HttpClient asyncClient() {
+            return asyncClient;
+        }
+
+        public Duration readTimeout() {
+            return readTimeout;
+        }
+
+        // Takes a bulkhead permit without waiting, for calls that must not block their thread
+        public void tryEnter() {
+            if (!permits.tryAcquire()) {
+                rejectedCounter.increment();
+                throw new BulkheadFullException(name, 0);
+            }
+            waitTimer.record(0, TimeUnit.MILLISECONDS);
+        }
+
+        void enter(long maxWaitMs) {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            long waitedNanos = System.nanoTime() - start;
+            if (!acquired) {
+                rejectedCounter.increment();
+                throw new BulkheadFullException(name, TimeUnit.NANOSECONDS.toMillis(waitedNanos));
+            }
+            waitTimer.record(waitedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void exit() {
+            permits.release();
+        }
+
+        private void close() {
+            if (pooledClient != null) {
+                try {
+                    pooledClient.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close HTTP client for upstream {}", name, e);
+                }
+            }
+        }
+    }
+
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Upstream upstream;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingResponse(ClientHttpResponse delegate, Upstream upstream) {
+            this.delegate = delegate;
+            this.upstream = upstream;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    upstream.exit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the calls this service makes to news and LLM providers:
+ * <ul>
+ *   <li>{@code upstream.requests}: latency timer per api (news, llm), provider and outcome;</li>
+ *   <li>{@code upstream.retries} and {@code upstream.failovers}: counters per provider and cause;</li>
+ *   <li>{@code llm.prompt.bytes} and {@code llm.response.bytes}: payload sizes per provider;</li>
+ *   <li>{@code upstream.throttle.wait} and {@code upstream.throttle.rejected}: client-side rate limiting.</li>
+ * </ul>
+ * Causes are a small fixed set (see {@link #causeOf(Throwable)}) so tag cardinality stays bounded.
+ */
+@Component
+public class UpstreamMetrics {
+
+    public static final String NEWS = "news";
+    public static final String LLM = "llm";
+
+    // Outcomes of a single upstream call
+    public static final String SUCCESS = "success";
+    public static final String EMPTY = "empty";
+
+    // Failover causes that are not exceptions
+    public static final String CIRCUIT_OPEN = "circuit_open";
+    public static final String HEDGE = "hedge";
+
+    // Cause of a call that ran out of its timeout
+    public static final String TIMEOUT = "timeout";
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordCall(String api, String provider, long startNanos, String outcome) {
+        Timer.builder("upstream.requests")
+                .description("Latency of calls to news and LLM providers")
+                .tags("api", api, "provider", provider, "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCall(String api, String provider, long startNanos, Throwable failure) {
+        recordCall(api, provider, startNanos, causeOf(failure));
+    }
+
+    public void recordRetry(String api, String provider, Throwable failure) {
+        Counter.builder("upstream.retries")
+                .description("Repeated attempts against the same provider")
+                .tags("api", api, "provider", provider, "cause", causeOf(failure))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Counts moving on from provider to the next one for the given cause
+    public void recordFailover(String api, String provider, String cause) {
+        Counter.builder("upstream.failovers")
+                .description("Requests passed on from a provider to the next one")
+                .tags("api", api, "provider", provider, "cause", cause)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Time a call was held back by the client-side rate limiter before going out
+    public void recordThrottleWait(String api, String provider, long waitMillis) {
+        Timer.builder("upstream.throttle.wait")
+                .description("Time calls waited for a client-side rate limit permit")
+                .tags("api", api, "provider", provider)
+                .register(meterRegistry)
+                .record(waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Counts calls not sent because the next rate limit permit was too far away
+    public void recordThrottleRejected(String api, String provider) {
+        Counter.builder("upstream.throttle.rejected")
+                .description("Calls not sent because the client-side rate limit was exhausted")
+                .tags("api", api, "provider", provider)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // responseBytes < 0 when the response size is not known (e.g. streamed responses)
+    public void recordLlmPayload(String provider, String prompt, long responseBytes) {
+        if (prompt != null) {
+            payloadSummary("llm.prompt.bytes", "Size of prompts sent to LLM providers", provider)
+                    .record(utf8Length(prompt));
+        }
+        if (responseBytes >= 0) {
+            payloadSummary("llm.response.bytes", "Size of LLM provider response bodies", provider)
+                    .record(responseBytes);
+        }
+    }
+
+    private DistributionSummary payloadSummary(String name, String description, String provider) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("provider", provider)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    public static String causeOf(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof HttpClientErrorException.TooManyRequests) {
+            return "rate_limited";
+        }
+        if (cause instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        if (cause instanceof UpstreamThrottledException) {
+            return "throttled";
+        }
+        if (cause instanceof DeadlineExceededException) {
+            return "deadline";
+        }
+        if (cause instanceof HttpClientErrorException) {
+            return "client_error";
+        }
+        if (cause instanceof HttpServerErrorException) {
+            return "server_error";
+        }
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            if (current instanceof JsonProcessingException) {
+                return "parse_error";
+            }
+            if (current instanceof SocketTimeoutException || current instanceof HttpTimeoutException
+                    || current instanceof TimeoutException) {
+                return TIMEOUT;
+            }
+        }
+        if (cause instanceof ResourceAccessException || cause instanceof IOException
+                || cause instanceof UncheckedIOException) {
+            return "io_error";
+        }
+        return "error";
+    }
+
+    // UTF-8 length without allocating the encoded bytes
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
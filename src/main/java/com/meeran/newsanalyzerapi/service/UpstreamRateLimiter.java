@@ -0,0 +1,186 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Client-side token buckets in front of the news and LLM providers, so a call that the
+ * provider would reject with 429 is delayed briefly or not sent at all. Each provider slot
+ * (news.primary, news.secondary, llm.primary, ...) is limited by
+ * {@code <slot>.rate-limit.requests-per-minute} with bursts of up to
+ * {@code <slot>.rate-limit.burst}; slots without a limit are only held back by Retry-After.
+ * Buckets are kept per API key, so slots that share a key share its limit (configured by
+ * whichever slot is used first).
+ *
+ * A call waits at most {@code ratelimit.max-wait-ms} for a permit; if the next permit is
+ * further away it fails with {@link UpstreamThrottledException} and the caller fails over
+ * as it would on a 429, without the round trip. A 429 from the provider holds back further
+ * calls with that key until its Retry-After has passed.
+ */
+@Component
+public class UpstreamRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamRateLimiter.class);
+
+    @Value("${ratelimit.max-wait-ms:200}")
+    private long maxWaitMs;
+    // Upper bound on how long a single Retry-After may hold back calls
+    @Value("${ratelimit.max-retry-after-ms:600000}")
+    private long maxRetryAfterMs;
+
+    private final Environment environment;
+    private final UpstreamMetrics metrics;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private Clock clock = Clock.systemUTC();
+
+    public UpstreamRateLimiter(Environment environment, UpstreamMetrics metrics) {
+        this.environment = environment;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Takes a permit for one call to the provider in {@code slot}, sleeping until it is due.
+     * Throws {@link UpstreamThrottledException} if it is more than the wait budget away.
+     */
+    public void acquire(String slot, String provider, String apiKey) {
+        long waitMillis = reserve(slot, provider, apiKey);
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamThrottledException(provider, waitMillis);
+            }
+        }
+    }
+
+    // Non-blocking counterpart of acquire: completes once the permit is due
+    public CompletableFuture<Void> acquireAsync(String slot, String provider, String apiKey) {
+        long waitMillis;
+        try {
+            waitMillis = reserve(slot, provider, apiKey);
+        } catch (UpstreamThrottledException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitMillis == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Applies a 429 answer: calls with the key are held back until its Retry-After has
+     * passed, or until the bucket refills when there is none. Other failures are ignored.
+     */
+    public void recordFailure(String slot, String provider, String apiKey, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (!(cause instanceof HttpClientErrorException.TooManyRequests rateLimited)) {
+            return;
+        }
+        long now = clock.millis();
+        long retryAfterMillis = Math.min(retryAfterMillis(rateLimited.getResponseHeaders(), now), maxRetryAfterMs);
+        if (retryAfterMillis > 0) {
+            logger.warn("{} answered 429; holding back calls for {}ms as asked by Retry-After.", provider, retryAfterMillis);
+        }
+        bucket(slot, apiKey, now).block(now, now + retryAfterMillis);
+    }
+
+    private long reserve(String slot, String provider, String apiKey) {
+        long now = clock.millis();
+        long waitMillis = bucket(slot, apiKey, now).reserve(now, maxWaitMs);
+        String api = slot.substring(0, slot.indexOf('.'));
+        if (waitMillis > maxWaitMs) {
+            metrics.recordThrottleRejected(api, provider);
+            throw new UpstreamThrottledException(provider, waitMillis);
+        }
+        if (waitMillis > 0) {
+            metrics.recordThrottleWait(api, provider, waitMillis);
+        }
+        return waitMillis;
+    }
+
+    private TokenBucket bucket(String slot, String apiKey, long now) {
+        String id = apiKey == null || apiKey.isBlank() ? slot : apiKey;
+        return buckets.computeIfAbsent(id, ignored -> new TokenBucket(
+                environment.getProperty(slot + ".rate-limit.requests-per-minute", Double.class, 0.0),
+                environment.getProperty(slot + ".rate-limit.burst", Integer.class, 1), now));
+    }
+
+    // Retry-After is either a number of seconds or an HTTP date; 0 when absent or unreadable
+    static long retryAfterMillis(HttpHeaders headers, long nowMillis) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                long until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return Math.max(0, until - nowMillis);
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double permitsPerMilli; // 0 when the slot has no configured limit
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+        private long blockedUntil;
+
+        private TokenBucket(double requestsPerMinute, int burst, long now) {
+            this.permitsPerMilli = Math.max(0, requestsPerMinute) / 60_000;
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        // Milliseconds until the next call may go out; the permit is only taken if that is within maxWaitMs
+        synchronized long reserve(long now, long maxWaitMs) {
+            long waitMillis = Math.max(0, blockedUntil - now);
+            if (permitsPerMilli > 0) {
+                refill(now);
+                if (tokens < 1) {
+                    waitMillis = Math.max(waitMillis, (long) Math.ceil((1 - tokens) / permitsPerMilli));
+                }
+                if (waitMillis <= maxWaitMs) {
+                    tokens -= 1;
+                }
+            }
+            return waitMillis;
+        }
+
+        synchronized void block(long now, long until) {
+            blockedUntil = Math.max(blockedUntil, until);
+            if (permitsPerMilli > 0) {
+                refill(now);
+                tokens = Math.min(tokens, 0);
+            }
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerMilli);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.meeran.newsanalyzerapi.service;
+
+// Thrown instead of calling a provider when a client-side limit does not allow the call right now
+public class UpstreamThrottledException extends RuntimeException {
+
+    private final long waitMillis;
+
+    public UpstreamThrottledException(String provider, long waitMillis) {
+        this(waitMillis, "Rate limit for " + provider + " reached; next call allowed in " + waitMillis + "ms.");
+    }
+
+    protected UpstreamThrottledException(long waitMillis, String message) {
+        super(message);
+        this.waitMillis = waitMillis;
+    }
+
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.meeran.newsanalyzerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.meeran.newsanalyzerapi.service.AnalysisService;
+import com.meeran.newsanalyzerapi.service.LlmProviderRegistry;
+import com.meeran.newsanalyzerapi.service.LocalNewsIndex;
+import com.meeran.newsanalyzerapi.service.NewsService;
+import com.meeran.newsanalyzerapi.service.TopicAnalysisService;
+import com.meeran.newsanalyzerapi.service.UpstreamRateLimiter;
+
+/**
+ * Starts the application from the AOT-generated bean definitions and checks the news and
+ * analysis services are wired as in a regular context. Only runs when the build produced AOT
+ * output: ./mvnw -Pfast-start test
+ */
+@EnabledIf("aotInitializerPresent")
+class AotApplicationContextTest {
+
+    static boolean aotInitializerPresent() {
+        return ClassUtils.isPresent(NewsAnalyzerApiApplication.class.getName() + "__ApplicationContextInitializer", null);
+    }
+
+    @Test
+    void aotContextWiresNewsAndAnalysisServices() {
+        SpringApplication application = new SpringApplication(NewsAnalyzerApiApplication.class);
+        // The AOT initializer is looked up by main class, which would otherwise be the test runner's
+        application.setMainApplicationClass(NewsAnalyzerApiApplication.class);
+        System.setProperty(AotDetector.AOT_ENABLED, "true");
+        try (ConfigurableApplicationContext context = application.run("--server.port=0")) {
+            NewsService newsService = context.getBean(NewsService.class);
+            AnalysisService analysisService = context.getBean(AnalysisService.class);
+
+            // Registered from generated code rather than by scanning and parsing the classes
+            assertNotNull(((RootBeanDefinition) context.getBeanFactory().getMergedBeanDefinition("newsService"))
+                    .getInstanceSupplier());
+            assertNotNull(((RootBeanDefinition) context.getBeanFactory().getMergedBeanDefinition("analysisService"))
+                    .getInstanceSupplier());
+
+            assertSame(context.getBean(RestTemplate.class), ReflectionTestUtils.getField(newsService, "restTemplate"));
+            assertSame(context.getBean(UpstreamRateLimiter.class), ReflectionTestUtils.getField(newsService, "rateLimiter"));
+            assertSame(context.getBean(LocalNewsIndex.class), ReflectionTestUtils.getField(newsService, "localNewsIndex"));
+            assertEquals("test-key", ReflectionTestUtils.getField(newsService, "primaryApiKey"));
+            assertSame(context.getBean(LlmProviderRegistry.class),
+                    ReflectionTestUtils.getField(analysisService, "providerRegistry"));
+            assertEquals(0.01, (double) ReflectionTestUtils.getField(analysisService, "responseLogSampleRate"));
+
+            TopicAnalysisService topicAnalysisService = context.getBean(TopicAnalysisService.class);
+            assertSame(newsService, ReflectionTestUtils.getField(topicAnalysisService, "newsService"));
+            assertSame(analysisService, ReflectionTestUtils.getField(topicAnalysisService, "analysisService"));
+        } finally {
+            System.clearProperty(AotDetector.AOT_ENABLED);
+        }
+    }
+}
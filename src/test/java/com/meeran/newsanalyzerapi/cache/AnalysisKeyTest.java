@@ -0,0 +1,61 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+class AnalysisKeyTest {
+
+    private static final Article FIRST = new Article("Heatwave grips Europe", "desc", "https://example.com/heat");
+    private static final Article SECOND = new Article("Floods in Asia", "other desc", "https://example.com/floods");
+
+    @Test
+    void reorderedDuplicatedArticlesAndTopicFormattingShareAKey() {
+        AnalysisKey key = AnalysisKey.of("Climate Change", List.of(FIRST, SECOND), "english");
+
+        assertEquals(key, AnalysisKey.of("  climate   CHANGE ", List.of(SECOND, FIRST, SECOND), "English"));
+        // Full-width letters normalize to their ASCII forms
+        assertEquals(key, AnalysisKey.of("Ｃｌｉｍａｔｅ Change", List.of(FIRST, SECOND), "english"));
+        // Only URL and title are fingerprinted
+        assertEquals(key, AnalysisKey.of("climate change",
+                List.of(new Article(FIRST.title(), "reworded description", FIRST.url()), SECOND), "english"));
+    }
+
+    @Test
+    void differentArticlesOrLanguageGiveDifferentKeys() {
+        AnalysisKey key = AnalysisKey.of("climate change", List.of(FIRST, SECOND), "english");
+
+        assertNotEquals(key, AnalysisKey.of("climate change", List.of(FIRST), "english"));
+        assertNotEquals(key, AnalysisKey.of("climate change", List.of(FIRST, SECOND), "tamil"));
+        assertNotEquals(key, AnalysisKey.of("climate policy", List.of(FIRST, SECOND), "english"));
+    }
+
+    @Test
+    void keyIsCompactWhateverTheNumberOfArticles() {
+        List<Article> many = IntStream.range(0, 100)
+                .mapToObj(i -> new Article("Headline " + i, "Description " + i, "https://example.com/" + i))
+                .toList();
+        String text = AnalysisKey.of("climate change", many, "english").toString();
+
+        assertTrue(text.matches("english\\|climate change\\|[0-9a-f]{32}"), text);
+    }
+
+    @Test
+    void generatorTreatsTheTwoArgumentVariantAsEnglish() throws Exception {
+        AnalysisKeyGenerator generator = new AnalysisKeyGenerator();
+        Method method = Object.class.getMethod("toString");
+
+        assertEquals(generator.generate(this, method, "Climate Change", List.of(FIRST), "english"),
+                generator.generate(this, method, "climate change", List.of(FIRST)));
+        assertEquals(AnalysisKey.of("climate change", List.of(FIRST), null),
+                generator.generate(this, method, "climate change", List.of(FIRST)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> MEMBERS = List.of("http://10.0.0.1:8080", "http://10.0.0.2:8080",
+            "http://10.0.0.3:8080");
+
+    @Test
+    void spreadsKeysEvenlyAndAgreesRegardlessOfMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(MEMBERS.get(2), MEMBERS.get(0), MEMBERS.get(1)),
+                ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            String key = "english|topic " + i;
+            assertEquals(ring.ownerOf(key), reordered.ownerOf(key));
+            owned.merge(ring.ownerOf(key), 1, Integer::sum);
+        }
+        for (String member : MEMBERS) {
+            assertTrue(Math.abs(owned.get(member) - 10_000) < 1_500, member + " owns " + owned.get(member) + " keys");
+        }
+    }
+
+    @Test
+    void addingAMemberOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(MEMBERS, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        String added = "http://10.0.0.4:8080";
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of(MEMBERS.get(0), MEMBERS.get(1), MEMBERS.get(2), added), ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int i = 0; i < 30_000; i++) {
+            String key = "english|topic " + i;
+            if (!before.ownerOf(key).equals(after.ownerOf(key))) {
+                assertEquals(added, after.ownerOf(key));
+                moved++;
+            }
+        }
+        assertTrue(moved > 6_000 && moved < 10_000, moved + " keys moved, expected about a quarter");
+        assertNull(new ConsistentHashRing(List.of(), ConsistentHashRing.DEFAULT_VIRTUAL_NODES).ownerOf("topic"));
+    }
+}
@@ -0,0 +1,205 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.meeran.newsanalyzerapi.NewsAnalyzerApiApplication;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.loadtest.StubProviders;
+import com.meeran.newsanalyzerapi.loadtest.StubProviders.Behavior;
+import com.meeran.newsanalyzerapi.loadtest.StubProviders.Provider;
+
+/**
+ * Three instances of the application on localhost sharing their analysis and news caches over
+ * a peer port of their own, with every upstream replaced by {@link StubProviders}.
+ */
+class PeerCacheClusterTest {
+
+    private static final String TOKEN = "cluster-test-token";
+
+    private static StubProviders stubs;
+    private static final List<Integer> ports = new ArrayList<>();
+    private static final List<Integer> peerPorts = new ArrayList<>();
+    private static final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        stubs = new StubProviders(7);
+        for (Provider provider : Provider.values()) {
+            stubs.set(provider, Behavior.healthy(5, 20));
+        }
+        for (int i = 0; i < 3; i++) {
+            ports.add(freePort());
+            peerPorts.add(freePort());
+        }
+        String members = peerPorts.stream().map(port -> "http://localhost:" + port)
+                .collect(Collectors.joining(","));
+        for (int i = 0; i < 3; i++) {
+            instances.add(new SpringApplicationBuilder(NewsAnalyzerApiApplication.class).run(
+                    "--server.port=" + ports.get(i),
+                    "--spring.cache.cache-names=analysis,newsArticles",
+                    "--cache.peers.enabled=true",
+                    "--cache.peers.members=" + members,
+                    "--cache.peers.self=http://localhost:" + peerPorts.get(i),
+                    "--cache.peers.port=" + peerPorts.get(i),
+                    "--cache.peers.token=" + TOKEN,
+                    "--cache.peers.timeout-ms=2000",
+                    "--news.primary.api.url=" + stubs.url(Provider.NEWSAPI),
+                    "--news.secondary.api.url=" + stubs.url(Provider.MEDIASTACK),
+                    "--llm.primary.api.url=" + stubs.url(Provider.GEMINI_PRIMARY),
+                    "--llm.secondary.api.url=" + stubs.url(Provider.GEMINI_SECONDARY),
+                    "--llm.third.api.url=" + stubs.url(Provider.OPENROUTER)));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        instances.forEach(ConfigurableApplicationContext::close);
+        if (stubs != null) {
+            stubs.close();
+        }
+    }
+
+    @Test
+    void analysisComputedOnOneInstanceIsServedByTheOthers() throws Exception {
+        String topic = "shared cache topic";
+        stubs.resetCounts();
+
+        assertEquals(200, analyze(0, topic));
+        awaitOwnerHas("newsArticles", topic);
+        awaitOwnerHas("analysis", onlyKey(instances.get(0), "analysis"));
+        assertEquals(200, analyze(1, topic));
+        assertEquals(200, analyze(2, topic));
+
+        assertEquals(1, stubs.requests(Provider.NEWSAPI), "news fetched once for the whole cluster");
+        assertEquals(1, llmRequests(), "analysis generated once for the whole cluster");
+    }
+
+    @Test
+    void peerEndpointIsOnlyServedOnThePeerPortWithTheToken() throws Exception {
+        String path = "/internal/cache/newsArticles?key=anything";
+
+        assertEquals(404, internalGet(ports.get(0), path, TOKEN), "not reachable on the public port");
+        assertEquals(403, internalGet(peerPorts.get(0), path, null));
+        assertEquals(403, internalGet(peerPorts.get(0), path, "wrong-token"));
+        assertEquals(404, internalGet(peerPorts.get(0), path, TOKEN), "a miss for an authorized peer");
+    }
+
+    @Test
+    void peersCannotBeEnabledWithoutAToken() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(NewsAnalyzerApiApplication.class);
+        Exception e = assertThrows(Exception.class, () -> builder.run(
+                "--server.port=0",
+                "--spring.cache.cache-names=analysis,newsArticles",
+                "--cache.peers.enabled=true",
+                "--cache.peers.members=http://localhost:1"));
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        assertTrue(root instanceof IllegalStateException && root.getMessage().contains("cache.peers.token"),
+                String.valueOf(root));
+    }
+
+    @Test
+    void unreachableOwnerCountsAsAMiss() {
+        Clock clock = Clock.systemUTC();
+        String deadPeer = "http://localhost:" + freePort();
+        PeerMembership membership = new PeerMembership(List.of(deadPeer), "", 0, "http://localhost:0",
+                ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        CaffeineCache local = new CaffeineCache("analysis", Caffeine.newBuilder()
+                .expireAfter(Expiry.writing((Object key, Object value) -> Duration.ofHours(4))).buildAsync(), true);
+        PeerCache cache = new PeerCache(local, membership,
+                new PeerCacheClient(Duration.ofMillis(500), Duration.ofMinutes(1), "", clock),
+                CacheValueCodec.PROBLEM_ANALYSIS, key -> key, Duration.ofHours(4));
+
+        assertNull(cache.get("topic"));
+        assertNull(cache.get("topic"), "a failed peer is skipped during its backoff");
+        assertEquals(1, cache.peerErrorCount());
+
+        ProblemAnalysis analysis = new ProblemAnalysis("Topic", "Summary", "Problem", "Solution", "Pro", "Con",
+                "History", "Proverb");
+        assertEquals(analysis, cache.get("topic", () -> analysis));
+        assertEquals(analysis, cache.get("topic", ProblemAnalysis.class));
+    }
+
+    private int analyze(int instance, String topic) throws Exception {
+        URI uri = URI.create("http://localhost:" + ports.get(instance) + "/api/v1/analyze?topic="
+                + URLEncoder.encode(topic, StandardCharsets.UTF_8));
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private int internalGet(int port, String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (token != null) {
+            request.header(PeerCacheClient.TOKEN_HEADER, token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Values are handed to their owner asynchronously after the response has been written
+    private void awaitOwnerHas(String cacheName, Object key) throws InterruptedException {
+        PeerCacheManager cacheManager = (PeerCacheManager) instances.get(0).getBean(CacheManager.class);
+        String owner = cacheManager.getMembership().ring().ownerOf(String.valueOf(key));
+        int ownerIndex = peerPorts.indexOf(Integer.parseInt(owner.substring(owner.lastIndexOf(':') + 1)));
+        PeerCacheManager ownerCaches = (PeerCacheManager) instances.get(ownerIndex).getBean(CacheManager.class);
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (ownerCaches.getPeerCache(cacheName).getLocal().get(key) != null) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError(cacheName + " entry " + key + " never reached its owner " + owner);
+    }
+
+    private static Object onlyKey(ConfigurableApplicationContext instance, String cacheName) {
+        PeerCacheManager cacheManager = (PeerCacheManager) instance.getBean(CacheManager.class);
+        CaffeineCache local = (CaffeineCache) cacheManager.getPeerCache(cacheName).getLocal();
+        List<Object> keys = List.copyOf(local.getNativeCache().asMap().keySet());
+        assertEquals(1, keys.size());
+        assertTrue(keys.get(0) instanceof AnalysisKey);
+        return keys.get(0);
+    }
+
+    private static long llmRequests() {
+        return stubs.requests(Provider.GEMINI_PRIMARY) + stubs.requests(Provider.GEMINI_SECONDARY)
+                + stubs.requests(Provider.OPENROUTER);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
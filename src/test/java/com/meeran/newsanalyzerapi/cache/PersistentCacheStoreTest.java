@@ -0,0 +1,207 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+class PersistentCacheStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void entriesSurviveReopeningTheFile() {
+        Path file = tempDir.resolve("analysis.cache");
+        try (PersistentCacheStore store = new PersistentCacheStore(file, clock)) {
+            store.put("a", bytes("first"), Long.MAX_VALUE);
+            store.put("b", bytes("second"), Long.MAX_VALUE);
+            store.put("a", bytes("first, updated"), Long.MAX_VALUE);
+            store.remove("b");
+        }
+
+        try (PersistentCacheStore reopened = new PersistentCacheStore(file, clock)) {
+            assertEquals("first, updated", string(reopened.get("a")));
+            assertNull(reopened.get("b"));
+            assertEquals(1, reopened.size());
+        }
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        try (PersistentCacheStore store = new PersistentCacheStore(tempDir.resolve("news.cache"), clock)) {
+            store.put("old", bytes("stale"), clock.millis() - 1);
+            store.put("new", bytes("fresh"), clock.millis() + 1000);
+
+            assertNull(store.get("old"));
+            assertEquals("fresh", string(store.get("new")));
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndIsDiscardedOnLoad() throws IOException {
+        Path file = tempDir.resolve("analysis.cache");
+        try (PersistentCacheStore store = new PersistentCacheStore(file, clock)) {
+            store.put("kept", bytes("value"), Long.MAX_VALUE);
+        }
+        long intactSize = Files.size(file);
+        // Simulate a crash half way through appending the next record
+        Files.write(file, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (PersistentCacheStore reopened = new PersistentCacheStore(file, clock)) {
+            assertEquals("value", string(reopened.get("kept")));
+            assertEquals(intactSize, reopened.fileSize());
+            reopened.put("next", bytes("after crash"), Long.MAX_VALUE);
+            assertEquals("after crash", string(reopened.get("next")));
+        }
+    }
+
+    @Test
+    void recordsAcrossManySegmentsIncludingRemovalsSurviveReopening() {
+        Path file = tempDir.resolve("analysis.cache");
+        // Segments smaller than a record, so records straddle boundaries and the log spans many mappings
+        try (PersistentCacheStore store = new PersistentCacheStore(file, clock, 48)) {
+            for (int i = 0; i < 50; i++) {
+                store.put("key " + i, bytes("value " + i), Long.MAX_VALUE);
+            }
+            store.remove("key 7");
+            assertEquals("value 49", string(store.get("key 49")));
+            assertNull(store.get("key 7"));
+        }
+
+        try (PersistentCacheStore reopened = new PersistentCacheStore(file, clock, 48)) {
+            assertEquals(49, reopened.size());
+            assertNull(reopened.get("key 7"), "the removal was persisted");
+            for (int i = 0; i < 50; i++) {
+                if (i != 7) {
+                    assertEquals("value " + i, string(reopened.get("key " + i)));
+                }
+            }
+            reopened.put("key 7", bytes("back"), Long.MAX_VALUE);
+            assertTrue(reopened.compact(0.0));
+            assertEquals("back", string(reopened.get("key 7")));
+            assertEquals("value 30", string(reopened.get("key 30")));
+        }
+    }
+
+    @Test
+    void zeroFilledSegmentTailIsDroppedAfterAnUncleanShutdown() throws IOException {
+        Path file = tempDir.resolve("news.cache");
+        PersistentCacheStore crashed = new PersistentCacheStore(file, clock, 4096);
+        crashed.put("kept", bytes("value"), Long.MAX_VALUE);
+        long logSize = crashed.fileSize();
+        assertEquals(4096, Files.size(file), "mapping the segment grew the file");
+
+        try (PersistentCacheStore reopened = new PersistentCacheStore(file, clock, 4096)) {
+            assertEquals("value", string(reopened.get("kept")));
+            assertEquals(logSize, reopened.fileSize());
+        }
+        assertEquals(logSize, Files.size(file), "a clean close leaves only the log");
+        crashed.close();
+    }
+
+    @Test
+    void compactionDropsOverwrittenAndExpiredRecords() {
+        Path file = tempDir.resolve("analysis.cache");
+        try (PersistentCacheStore store = new PersistentCacheStore(file, clock)) {
+            for (int i = 0; i < 20; i++) {
+                store.put("hot", bytes("version " + i), Long.MAX_VALUE);
+            }
+            store.put("expired", bytes("gone"), clock.millis() - 1);
+            store.put("cold", bytes("kept"), Long.MAX_VALUE);
+            long before = store.fileSize();
+
+            assertTrue(store.compact(0.5));
+            assertTrue(store.fileSize() < before / 5);
+            assertEquals("version 19", string(store.get("hot")));
+            assertEquals("kept", string(store.get("cold")));
+            assertFalse(store.compact(0.5), "nothing left to reclaim");
+        }
+
+        try (PersistentCacheStore reopened = new PersistentCacheStore(file, clock)) {
+            assertEquals("version 19", string(reopened.get("hot")));
+            assertEquals(2, reopened.size());
+        }
+    }
+
+    @Test
+    void codecsRoundTripIncludingNulls() {
+        ProblemAnalysis analysis = new ProblemAnalysis("Topic", "Summary — ஒரு சுருக்கம்", null, "Solution",
+                "Pro", "Con", "History", null);
+        assertEquals(analysis, CacheValueCodec.PROBLEM_ANALYSIS.decode(
+                ByteBuffer.wrap(CacheValueCodec.PROBLEM_ANALYSIS.encode(analysis))));
+
+        NewsApiResponse news = new NewsApiResponse("ok", 2, List.of(
+                new Article("Title", null, "https://example.com/1"),
+                new Article("Other", "Description", "https://example.com/2")));
+        assertEquals(news, CacheValueCodec.NEWS_API_RESPONSE.decode(
+                ByteBuffer.wrap(CacheValueCodec.NEWS_API_RESPONSE.encode(news))));
+
+        NewsApiResponse empty = new NewsApiResponse(null, null, null);
+        assertEquals(empty, CacheValueCodec.NEWS_API_RESPONSE.decode(
+                ByteBuffer.wrap(CacheValueCodec.NEWS_API_RESPONSE.encode(empty))));
+    }
+
+    @Test
+    void restartedTieredCacheServesFromDiskWithRemainingTtl() {
+        Path file = tempDir.resolve("analysis.cache");
+        ProblemAnalysis analysis = new ProblemAnalysis("Topic", "Summary", "Problem", "Solution",
+                "Pro", "Con", "History", "Proverb");
+        Duration ttl = Duration.ofHours(4);
+
+        PersistentCacheStore store = new PersistentCacheStore(file, clock);
+        new TieredCache(caffeine(ttl), store, CacheValueCodec.PROBLEM_ANALYSIS, ttl, clock).put("topic-key", analysis);
+        store.close();
+
+        // One hour later, a fresh process with an empty heap cache
+        Clock later = Clock.offset(clock, Duration.ofHours(1));
+        CaffeineCache l1 = caffeine(ttl);
+        TieredCache restarted = new TieredCache(l1, new PersistentCacheStore(file, later),
+                CacheValueCodec.PROBLEM_ANALYSIS, ttl, later);
+
+        assertNull(l1.get("topic-key"));
+        assertEquals(analysis, restarted.get("topic-key", ProblemAnalysis.class));
+        assertNotNull(l1.get("topic-key"), "disk hit should be promoted to the heap cache");
+        Duration remaining = l1.getNativeCache().policy().expireVariably().orElseThrow()
+                .getExpiresAfter("topic-key").orElseThrow();
+        assertTrue(remaining.compareTo(Duration.ofHours(3)) <= 0, "promoted entry keeps only its remaining TTL");
+    }
+
+    private static CaffeineCache caffeine(Duration ttl) {
+        return new CaffeineCache("analysis", Caffeine.newBuilder().recordStats()
+                .expireAfter(Expiry.writing((Object key, Object value) -> ttl)).buildAsync(), true);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(PersistentCacheStore.Entry entry) {
+        return entry == null ? null : StandardCharsets.UTF_8.decode(entry.value()).toString();
+    }
+}
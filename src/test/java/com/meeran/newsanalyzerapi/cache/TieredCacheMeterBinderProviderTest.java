@@ -0,0 +1,56 @@
+package com.meeran.newsanalyzerapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TieredCacheMeterBinderProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void tieredCacheMetricsCoverBothLevels() {
+        Duration ttl = Duration.ofHours(4);
+        Path file = tempDir.resolve("analysis.cache");
+        try (PersistentCacheStore store = new PersistentCacheStore(file, clock)) {
+            store.put("on-disk", CacheValueCodec.PROBLEM_ANALYSIS.encode(new ProblemAnalysis("Topic", "Summary",
+                    "Problem", "Solution", "Pro", "Con", "History", "Proverb")), Long.MAX_VALUE);
+        }
+        TieredCache cache = new TieredCache(caffeine(ttl), new PersistentCacheStore(file, clock),
+                CacheValueCodec.PROBLEM_ANALYSIS, ttl, clock);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TieredCacheMeterBinderProvider().getMeterBinder(cache, Tags.empty()).bindTo(registry);
+
+        cache.get("on-disk");
+        cache.get("on-disk");
+        cache.get("missing");
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "analysis", "result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tags("cache", "analysis", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.disk.gets").tags("cache", "analysis", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.disk.gets").tags("cache", "analysis", "result", "miss").functionCounter().count());
+    }
+
+    private static CaffeineCache caffeine(Duration ttl) {
+        return new CaffeineCache("analysis", Caffeine.newBuilder().recordStats()
+                .expireAfter(Expiry.writing((Object key, Object value) -> ttl)).buildAsync(), true);
+    }
+}
@@ -0,0 +1,110 @@
+package com.meeran.newsanalyzerapi.controller;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.service.AnalysisRenderer;
+import com.meeran.newsanalyzerapi.service.AnalysisService;
+import com.meeran.newsanalyzerapi.service.BatchAnalysisService;
+import com.meeran.newsanalyzerapi.service.DeadlineExceededException;
+import com.meeran.newsanalyzerapi.service.RandomTopicPool;
+import com.meeran.newsanalyzerapi.service.RenderedAnalysis;
+import com.meeran.newsanalyzerapi.service.TopicAnalysisService;
+
+class AnalysisControllerTest {
+
+    private final TopicAnalysisService topicAnalysisService = mock(TopicAnalysisService.class);
+    private MockMvc mockMvc;
+    private RenderedAnalysis rendered;
+
+    @BeforeEach
+    void setUp() {
+        AnalysisController controller = new AnalysisController(topicAnalysisService, mock(AnalysisService.class),
+                mock(BatchAnalysisService.class), mock(RandomTopicPool.class), new SimpleAsyncTaskExecutor());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        rendered = new AnalysisRenderer().render(new ProblemAnalysis("Topic", "Summary", "Problem", "Solution",
+                "Pro", "Con", "History", "Proverb"), () -> Optional.of(Duration.ofHours(2)));
+        when(topicAnalysisService.resolveTopic(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(topicAnalysisService.analyzeRendered("topic", "english")).thenReturn(rendered);
+    }
+
+    @Test
+    void servesPreRenderedBytesWithValidators() throws Exception {
+        perform(get("/api/v1/analyze").param("topic", "topic"))
+                .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, rendered.etag(false)),
+                        header().doesNotExist(HttpHeaders.CONTENT_ENCODING),
+                        header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING),
+                        header().string(HttpHeaders.CACHE_CONTROL, matchesPattern("max-age=(7200|71\\d\\d), public")),
+                        content().bytes(rendered.json()));
+
+        perform(get("/api/v1/analyze").param("topic", "topic")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, rendered.etag(true)),
+                        header().string(HttpHeaders.CONTENT_ENCODING, "gzip"),
+                        content().bytes(rendered.gzipped()));
+    }
+
+    @Test
+    void namesTheTopicARequestWasResolvedTo() throws Exception {
+        when(topicAnalysisService.resolveTopic("ai regulations")).thenReturn("AI regulation");
+        when(topicAnalysisService.analyzeRendered("AI regulation", "english")).thenReturn(rendered);
+
+        perform(get("/api/v1/analyze").param("topic", "ai regulations"))
+                .andExpectAll(status().isOk(),
+                        header().string(AnalysisController.RESOLVED_TOPIC_HEADER, "AI%20regulation"),
+                        content().bytes(rendered.json()));
+        perform(get("/api/v1/analyze").param("topic", "topic"))
+                .andExpect(header().doesNotExist(AnalysisController.RESOLVED_TOPIC_HEADER));
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() throws Exception {
+        perform(get("/api/v1/analyze").param("topic", "topic")
+                .header(HttpHeaders.IF_NONE_MATCH, rendered.etag(false)))
+                .andExpectAll(status().isNotModified(),
+                        header().string(HttpHeaders.ETAG, rendered.etag(false)),
+                        content().bytes(new byte[0]));
+
+        perform(get("/api/v1/analyze").param("topic", "topic")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void answersGatewayTimeoutWhenTheDeadlineRunsOut() throws Exception {
+        when(topicAnalysisService.analyzeRendered("slow topic", "english"))
+                .thenThrow(new DeadlineExceededException("failing over to Gemini Secondary", false));
+
+        perform(get("/api/v1/analyze").param("topic", "slow topic"))
+                .andExpectAll(status().isGatewayTimeout(),
+                        content().json("{\"error\": \"Request deadline exceeded before failing over to Gemini Secondary.\"}"));
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
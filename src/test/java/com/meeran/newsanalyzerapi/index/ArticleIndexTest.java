@@ -0,0 +1,68 @@
+package com.meeran.newsanalyzerapi.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+
+class ArticleIndexTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final ArticleIndex index = new ArticleIndex(Duration.ofHours(1), Duration.ofHours(24));
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        index.add(List.of(
+                new Article("Markets rally", "Investors shrug off climate worries", "https://example.com/1"),
+                new Article("Climate talks stall", "Negotiators leave without a deal", "https://example.com/2"),
+                new Article("Football results", "Weekend scores", "https://example.com/3")), START);
+
+        List<ArticleIndex.Hit> hits = index.search("Climate", 10, 1.0);
+
+        assertEquals(List.of("https://example.com/2", "https://example.com/1"), urls(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void requiresTheConfiguredShareOfQueryTerms() {
+        index.add(List.of(
+                new Article("Climate summit opens in Geneva", null, "https://example.com/1"),
+                new Article("Climate data released", null, "https://example.com/2"),
+                new Article("Summit of the Americas", null, "https://example.com/3")), START);
+
+        assertEquals(List.of("https://example.com/1"), urls(index.search("climate summit", 10, 1.0)));
+        assertEquals(3, index.search("climate summit", 10, 0.5).size());
+        assertEquals(1, index.search("climate summit", 1, 0.5).size());
+        assertEquals(List.of(), index.search("the of", 10, 0.5), "stop words alone match nothing");
+    }
+
+    @Test
+    void deduplicatesByUrlAndEvictsWholeSegments() {
+        assertEquals(2, index.add(List.of(
+                new Article("Election day", "Polls open", "https://example.com/1"),
+                new Article("Election results", "Counting starts", "https://example.com/2")), START));
+        assertEquals(1, index.add(List.of(
+                new Article("Election day", "Polls open", "HTTPS://example.com/1 "),
+                new Article("Election recount", "Court orders recount", "https://example.com/3")),
+                START.plus(Duration.ofHours(2))));
+        assertEquals(3, index.size());
+
+        assertEquals(0, index.evictExpired(START.plus(Duration.ofHours(24))));
+        assertEquals(2, index.evictExpired(START.plus(Duration.ofHours(25))));
+
+        assertEquals(List.of("https://example.com/3"), urls(index.search("election", 10, 1.0)));
+        assertEquals(1, index.add(List.of(new Article("Election day", "Polls open", "https://example.com/1")),
+                START.plus(Duration.ofHours(25))), "an evicted URL can be indexed again");
+    }
+
+    private static List<String> urls(List<ArticleIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.article().url()).toList();
+    }
+}
@@ -0,0 +1,249 @@
+package com.meeran.newsanalyzerapi.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.loadtest.StubProviders.Behavior;
+import com.meeran.newsanalyzerapi.loadtest.StubProviders.Outcome;
+import com.meeran.newsanalyzerapi.loadtest.StubProviders.Provider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Repeatable load scenario against the whole application, with every upstream replaced by
+ * {@link StubProviders}: concurrent clients call {@code GET /api/v1/analyze} for distinct
+ * topics, first with healthy providers and then with a rate-limited, flaky primary and a
+ * secondary LLM that returns broken JSON, and finally as one NDJSON batch request. Each phase prints throughput, client-side p50/p99,
+ * the status codes returned, what each stub answered and the failover counters, and fails
+ * if throughput or success rate drop below the configured floors.
+ *
+ * Excluded from the default build; run with {@code ./mvnw -Pload-test test}. Tunable with
+ * {@code -Dloadtest.requests}, {@code -Dloadtest.clients}, {@code -Dloadtest.async},
+ * {@code -Dloadtest.min-throughput} (requests/s) and {@code -Dloadtest.min-success-rate}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AnalysisLoadScenarioTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 200);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 16);
+    private static final double MIN_THROUGHPUT = Double.parseDouble(System.getProperty("loadtest.min-throughput", "5"));
+    private static final double MIN_SUCCESS_RATE = Double.parseDouble(System.getProperty("loadtest.min-success-rate", "0.9"));
+
+    private static StubProviders stubs;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void pointProvidersAtStubs(DynamicPropertyRegistry registry) throws Exception {
+        stubs = new StubProviders(42);
+        registry.add("news.primary.api.url", () -> stubs.url(Provider.NEWSAPI));
+        registry.add("news.secondary.api.url", () -> stubs.url(Provider.MEDIASTACK));
+        registry.add("llm.primary.api.url", () -> stubs.url(Provider.GEMINI_PRIMARY));
+        registry.add("llm.secondary.api.url", () -> stubs.url(Provider.GEMINI_SECONDARY));
+        registry.add("llm.third.api.url", () -> stubs.url(Provider.OPENROUTER));
+        registry.add("analysis.async.enabled", () -> System.getProperty("loadtest.async", "false"));
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        if (stubs != null) {
+            stubs.close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void healthyProviders() throws Exception {
+        stubs.set(Provider.NEWSAPI, Behavior.healthy(40, 150));
+        stubs.set(Provider.MEDIASTACK, Behavior.healthy(60, 200));
+        stubs.set(Provider.GEMINI_PRIMARY, Behavior.healthy(150, 600));
+        stubs.set(Provider.GEMINI_SECONDARY, Behavior.healthy(120, 500));
+        stubs.set(Provider.OPENROUTER, Behavior.healthy(250, 900));
+
+        PhaseResult result = runPhase("healthy");
+
+        assertTrue(result.successRate() == 1.0, "every request should succeed with healthy providers");
+        assertTrue(result.throughput() >= MIN_THROUGHPUT,
+                "throughput " + result.throughput() + " req/s is below the floor of " + MIN_THROUGHPUT);
+    }
+
+    @Test
+    @Order(2)
+    void degradedProvidersFailOver() throws Exception {
+        stubs.set(Provider.NEWSAPI, Behavior.healthy(40, 150).withRateLimited(0.2));
+        stubs.set(Provider.MEDIASTACK, Behavior.healthy(60, 200));
+        stubs.set(Provider.GEMINI_PRIMARY, Behavior.healthy(150, 600).withRateLimited(0.3).withServerErrors(0.1));
+        stubs.set(Provider.GEMINI_SECONDARY, Behavior.healthy(120, 500).withMalformed(0.2));
+        stubs.set(Provider.OPENROUTER, Behavior.healthy(250, 900));
+        double failoversBefore = failovers();
+
+        PhaseResult result = runPhase("degraded");
+
+        assertTrue(stubs.count(Provider.NEWSAPI, Outcome.RATE_LIMITED) > 0, "fault injection should have fired");
+        assertTrue(failovers() > failoversBefore, "faults should be absorbed by failing over");
+        assertTrue(result.successRate() >= MIN_SUCCESS_RATE,
+                "success rate " + result.successRate() + " is below the floor of " + MIN_SUCCESS_RATE);
+        assertTrue(result.throughput() >= MIN_THROUGHPUT,
+                "throughput " + result.throughput() + " req/s is below the floor of " + MIN_THROUGHPUT);
+    }
+
+    @Test
+    @Order(3)
+    void batchStreamsResultsAsTheyComplete() throws Exception {
+        healthyProviders(Provider.values());
+        List<String> topics = IntStream.range(0, 30).mapToObj(i -> "batch topic " + i).toList();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/analyze/batch"))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("topics", topics, "language", "english"))))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        long firstLineNanos = -1;
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (String line : (Iterable<String>) response.body()::iterator) {
+            if (firstLineNanos < 0) {
+                firstLineNanos = System.nanoTime() - start;
+            }
+            lines.add(objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {}));
+        }
+        long totalNanos = System.nanoTime() - start;
+        System.out.printf("%n=== batch of %d topics: first result after %d ms, all after %d ms ===%n",
+                topics.size(), millis(firstLineNanos), millis(totalNanos));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(topics.size(), lines.size());
+        assertTrue(lines.stream().allMatch(line -> "ok".equals(line.get("status"))));
+        assertTrue(firstLineNanos < totalNanos / 2, "results should be streamed, not sent at the end");
+    }
+
+    private static void healthyProviders(Provider... providers) {
+        for (Provider provider : providers) {
+            stubs.set(provider, Behavior.healthy(100, 400));
+        }
+    }
+
+    private record PhaseResult(double throughput, double successRate) {}
+
+    private PhaseResult runPhase(String phase) throws Exception {
+        stubs.resetCounts();
+        long[] latenciesNanos = new long[REQUESTS];
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.execute(() -> {
+                for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                    // Distinct topics, so every request goes through news and LLM instead of the cache
+                    String topic = URLEncoder.encode(phase + " topic " + i, StandardCharsets.UTF_8);
+                    HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/api/v1/analyze?topic=" + topic))
+                            .timeout(Duration.ofSeconds(60)).GET().build();
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    latenciesNanos[i] = System.nanoTime() - sent;
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.MINUTES), "load phase '" + phase + "' did not finish");
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latenciesNanos);
+        double throughput = REQUESTS / elapsedSeconds;
+        long ok = statuses.getOrDefault(200, new LongAdder()).sum();
+        double successRate = (double) ok / REQUESTS;
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%n=== load phase '%s': %d requests, %d clients, %.1fs ===%n",
+                        phase, REQUESTS, CLIENTS, elapsedSeconds))
+                .append(String.format("throughput %.1f req/s, p50 %d ms, p99 %d ms, success %.1f%%%n", throughput,
+                        millis(percentile(latenciesNanos, 0.50)), millis(percentile(latenciesNanos, 0.99)),
+                        successRate * 100))
+                .append("statuses ").append(new TreeMap<>(statuses)).append('\n');
+        for (Provider provider : Provider.values()) {
+            report.append(String.format("stub %-16s %5d calls", provider, stubs.requests(provider)));
+            for (Outcome outcome : Outcome.values()) {
+                report.append(String.format("  %s=%d", outcome, stubs.count(provider, outcome)));
+            }
+            report.append('\n');
+        }
+        for (Counter counter : meterRegistry.find("upstream.failovers").counters()) {
+            report.append(String.format("upstream.failovers %s %.0f%n", counter.getId().getTags(), counter.count()));
+        }
+        for (Timer timer : meterRegistry.find("analysis.requests").timers()) {
+            report.append(String.format("analysis.requests %s count=%d mean=%.0f ms%n", timer.getId().getTags(),
+                    timer.count(), timer.mean(TimeUnit.MILLISECONDS)));
+        }
+        System.out.print(report);
+        return new PhaseResult(throughput, successRate);
+    }
+
+    private double failovers() {
+        return meterRegistry.find("upstream.failovers").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,242 @@
+package com.meeran.newsanalyzerapi.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-ins for every upstream the service calls, speaking their wire formats:
+ * NewsAPI.org {@code /v2/everything}, Mediastack {@code /v1/news}, Gemini
+ * {@code generateContent} and OpenRouter chat completions. Each one has a {@link Behavior}
+ * that sets its latency distribution and the share of 429, 5xx and malformed-JSON answers;
+ * draws come from a seeded {@link Random}, so a scenario replays the same way.
+ */
+public final class StubProviders implements AutoCloseable {
+
+    public enum Provider {
+        NEWSAPI("/newsapi/v2/everything"),
+        MEDIASTACK("/mediastack/v1/news"),
+        GEMINI_PRIMARY("/gemini-primary/v1beta/models/"),
+        GEMINI_SECONDARY("/gemini-secondary/v1beta/models/"),
+        OPENROUTER("/openrouter/api/v1/chat/completions");
+
+        private final String path;
+
+        Provider(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Latency and fault injection for one stub. Shares are fractions of requests (0..1),
+     * drawn in the order 429, 5xx, malformed; the rest succeed.
+     */
+    public record Behavior(double medianLatencyMs, double p99LatencyMs, double rateLimitedShare,
+            double serverErrorShare, double malformedShare) {
+
+        public static Behavior healthy(double medianLatencyMs, double p99LatencyMs) {
+            return new Behavior(medianLatencyMs, p99LatencyMs, 0, 0, 0);
+        }
+
+        public Behavior withRateLimited(double share) {
+            return new Behavior(medianLatencyMs, p99LatencyMs, share, serverErrorShare, malformedShare);
+        }
+
+        public Behavior withServerErrors(double share) {
+            return new Behavior(medianLatencyMs, p99LatencyMs, rateLimitedShare, share, malformedShare);
+        }
+
+        public Behavior withMalformed(double share) {
+            return new Behavior(medianLatencyMs, p99LatencyMs, rateLimitedShare, serverErrorShare, share);
+        }
+    }
+
+    public enum Outcome { OK, RATE_LIMITED, SERVER_ERROR, MALFORMED }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final double Z_99 = 2.326;
+    private static final String[] VOCABULARY = ("minister council budget strike court ruling election vote market"
+            + " prices inflation drought flood harvest farmers teachers hospital doctors patients schools students"
+            + " police protest reform tax pension energy fuel railway port exports imports tariff bank rates loan"
+            + " housing rent water power outage storm coast fishing tourism festival museum football league coach"
+            + " transfer injury climate emissions factory workers union wages contract talks deal deadline report"
+            + " audit investigation scandal resignation").split(" ");
+
+    private final Map<Provider, HttpServer> servers = new EnumMap<>(Provider.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Random random;
+    private final Map<Provider, Behavior> behaviors = new ConcurrentHashMap<>();
+    private final Map<Provider, Map<Outcome, AtomicLong>> counts = new EnumMap<>(Provider.class);
+
+    public StubProviders(long seed) throws IOException {
+        this.random = new Random(seed);
+        for (Provider provider : Provider.values()) {
+            behaviors.put(provider, Behavior.healthy(20, 60));
+            Map<Outcome, AtomicLong> outcomes = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, new AtomicLong());
+            }
+            counts.put(provider, outcomes);
+            // One port per provider, so HTTP clients pool connections per upstream as in production
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+            server.setExecutor(executor);
+            server.createContext(provider.path, exchange -> handle(provider, exchange));
+            server.start();
+            servers.put(provider, server);
+        }
+    }
+
+    public String url(Provider provider) {
+        return "http://localhost:" + servers.get(provider).getAddress().getPort() + provider.path;
+    }
+
+    public void set(Provider provider, Behavior behavior) {
+        behaviors.put(provider, behavior);
+    }
+
+    public long count(Provider provider, Outcome outcome) {
+        return counts.get(provider).get(outcome).get();
+    }
+
+    public long requests(Provider provider) {
+        return counts.get(provider).values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public void resetCounts() {
+        counts.values().forEach(outcomes -> outcomes.values().forEach(count -> count.set(0)));
+    }
+
+    @Override
+    public void close() {
+        servers.values().forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+
+    private void handle(Provider provider, HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            Behavior behavior = behaviors.get(provider);
+            long latencyMs;
+            Outcome outcome;
+            synchronized (random) {
+                latencyMs = sampleLatencyMs(behavior);
+                outcome = sampleOutcome(behavior);
+            }
+            counts.get(provider).get(outcome).incrementAndGet();
+            Thread.sleep(latencyMs);
+
+            switch (outcome) {
+                case RATE_LIMITED -> send(exchange, 429, "{\"error\":{\"code\":429,\"message\":\"Resource has been exhausted\"}}");
+                case SERVER_ERROR -> send(exchange, 503, "{\"error\":{\"code\":503,\"message\":\"The model is overloaded\"}}");
+                case MALFORMED -> {
+                    String body = responseBody(provider, exchange);
+                    send(exchange, 200, body.substring(0, body.length() / 2));
+                }
+                case OK -> send(exchange, 200, responseBody(provider, exchange));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Log-normal with the given median and 99th percentile
+    private long sampleLatencyMs(Behavior behavior) {
+        if (behavior.p99LatencyMs() <= behavior.medianLatencyMs()) {
+            return Math.round(behavior.medianLatencyMs());
+        }
+        double sigma = Math.log(behavior.p99LatencyMs() / behavior.medianLatencyMs()) / Z_99;
+        return Math.round(behavior.medianLatencyMs() * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    private Outcome sampleOutcome(Behavior behavior) {
+        double draw = random.nextDouble();
+        if ((draw -= behavior.rateLimitedShare()) < 0) {
+            return Outcome.RATE_LIMITED;
+        }
+        if ((draw -= behavior.serverErrorShare()) < 0) {
+            return Outcome.SERVER_ERROR;
+        }
+        if (draw - behavior.malformedShare() < 0) {
+            return Outcome.MALFORMED;
+        }
+        return Outcome.OK;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String responseBody(Provider provider, HttpExchange exchange) throws JsonProcessingException {
+        return switch (provider) {
+            case NEWSAPI -> objectMapper.writeValueAsString(Map.of("status", "ok", "totalResults", 20,
+                    "articles", articles(queryParam(exchange, "q"), "NewsAPI")));
+            case MEDIASTACK -> objectMapper.writeValueAsString(Map.of("data",
+                    articles(queryParam(exchange, "keywords"), "Mediastack")));
+            case GEMINI_PRIMARY, GEMINI_SECONDARY -> objectMapper.writeValueAsString(Map.of("candidates",
+                    List.of(Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", analysisText())))))));
+            case OPENROUTER -> objectMapper.writeValueAsString(Map.of("choices",
+                    List.of(Map.of("index", 0, "message", Map.of("role", "assistant", "content", analysisText())))));
+        };
+    }
+
+    // Distinct stories per topic, so prompt de-duplication keeps most of them as it would live
+    private static List<Map<String, String>> articles(String topic, String source) {
+        Random words = new Random(topic.hashCode());
+        List<Map<String, String>> articles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            articles.add(Map.of(
+                    "title", topic + ": " + sentence(words, 8),
+                    "description", sentence(words, 30),
+                    "url", "https://" + source.toLowerCase() + ".example.com/" + topic.replace(' ', '-') + "/" + i));
+        }
+        return articles;
+    }
+
+    private static String sentence(Random words, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sentence.append(i == 0 ? "" : " ").append(VOCABULARY[words.nextInt(VOCABULARY.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private static String analysisText() throws JsonProcessingException {
+        return "```json\n" + objectMapper.writeValueAsString(new ProblemAnalysis("Topic", "Summary", "Problem",
+                "Solution", "Proposing", "Opposing", "History", "Proverb")) + "\n```";
+    }
+
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return "unknown";
+    }
+}
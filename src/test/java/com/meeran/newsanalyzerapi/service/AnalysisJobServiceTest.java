@@ -0,0 +1,116 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.AnalysisJob;
+import com.meeran.newsanalyzerapi.dto.AnalysisJob.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnalysisJobServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TopicAnalysisService topicAnalysisService;
+    private ThreadPoolTaskExecutor executor;
+    private AnalysisJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        topicAnalysisService = mock(TopicAnalysisService.class);
+        when(topicAnalysisService.analyze(anyString(), eq("english"))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            String topic = invocation.getArgument(0);
+            if (topic.startsWith("unknown")) {
+                throw new NoArticlesFoundException(topic);
+            }
+            return new ProblemAnalysis(topic, "Summary", "Problem", "Solution", "Pro", "Con", "History", "Proverb");
+        });
+
+        // One worker and room for one waiting job
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        jobService = new AnalysisJobService(topicAnalysisService, executor, Duration.ofHours(1), 100, meterRegistry);
+        ReflectionTestUtils.setField(jobService, "defaultRetryAfterSeconds", 10L);
+        ReflectionTestUtils.setField(jobService, "maxRetryAfterSeconds", 120L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void fullQueueRejectsWithRetryAfterInsteadOfQueueingMore() throws Exception {
+        AnalysisJob running = jobService.submit("climate", "english");
+        AnalysisJob queued = jobService.submit("elections", "english");
+
+        JobQueueFullException rejected = assertThrows(JobQueueFullException.class,
+                () -> jobService.submit("inflation", "english"));
+        assertEquals(10, rejected.getRetryAfterSeconds(), "no job has finished yet, so the default applies");
+        assertEquals(1.0, meterRegistry.get("analysis.jobs.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("analysis.jobs.queued").gauge().value());
+
+        release.countDown();
+        assertEquals(Status.SUCCEEDED, awaitDone(running.id()).status());
+        AnalysisJob done = awaitDone(queued.id());
+        assertEquals("elections", done.analysis().topic());
+        assertTrue(done.completedAt() != null);
+        assertEquals(1, jobService.retryAfterSeconds(), "instant jobs bring the estimate down to the minimum");
+    }
+
+    @Test
+    void sameTopicWhileActiveReturnsTheExistingJob() throws Exception {
+        AnalysisJob first = jobService.submit("Climate Change", "english");
+        assertEquals(first.id(), jobService.submit("climate  change", "english").id());
+
+        release.countDown();
+        awaitDone(first.id());
+        assertNotEquals(first.id(), jobService.submit("Climate Change", "english").id(),
+                "a finished job is not reused; the cache makes the new one cheap");
+    }
+
+    @Test
+    void missingArticlesEndTheJobAsNotFound() throws Exception {
+        release.countDown();
+        AnalysisJob job = awaitDone(jobService.submit("unknown topic", "english").id());
+
+        assertEquals(Status.NOT_FOUND, job.status());
+        assertTrue(job.error().contains("unknown topic"));
+        assertTrue(jobService.find("no-such-job").isEmpty());
+    }
+
+    private AnalysisJob awaitDone(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            AnalysisJob job = jobService.find(id).orElseThrow();
+            if (job.isDone()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("job " + id + " did not finish");
+    }
+}
@@ -0,0 +1,76 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+class AnalysisRendererTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final AnalysisRenderer renderer = new AnalysisRenderer();
+
+    AnalysisRendererTest() {
+        ReflectionTestUtils.setField(renderer, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void rendersEachAnalysisInstanceOnce() throws IOException {
+        ProblemAnalysis analysis = analysis("Summary");
+        AtomicInteger ttlLookups = new AtomicInteger();
+
+        RenderedAnalysis first = renderer.render(analysis, () -> {
+            ttlLookups.incrementAndGet();
+            return Optional.of(Duration.ofHours(3));
+        });
+        RenderedAnalysis second = renderer.render(analysis, () -> {
+            ttlLookups.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertSame(first, second);
+        assertEquals(1, ttlLookups.get());
+        assertEquals(analysis, new ObjectMapper().readValue(first.json(), ProblemAnalysis.class));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzipped()))) {
+            assertArrayEquals(first.json(), gzip.readAllBytes());
+        }
+        assertEquals(NOW.plus(Duration.ofHours(3)), first.expiresAt());
+        assertEquals(Duration.ofHours(1), first.timeToLive(NOW.plus(Duration.ofHours(2))).orElseThrow());
+        assertEquals(Duration.ZERO, first.timeToLive(NOW.plus(Duration.ofHours(4))).orElseThrow());
+    }
+
+    @Test
+    void entityTagsFollowTheContent() {
+        RenderedAnalysis original = renderer.render(analysis("Summary"), Optional::empty);
+        RenderedAnalysis sameContent = renderer.render(analysis("Summary"), Optional::empty);
+        RenderedAnalysis refreshed = renderer.render(analysis("Updated summary"), Optional::empty);
+
+        assertEquals(original.etag(false), sameContent.etag(false));
+        assertNotEquals(original.etag(false), refreshed.etag(false));
+        assertNotEquals(original.etag(false), original.etag(true));
+        assertNull(original.expiresAt());
+        assertEquals(Optional.empty(), original.timeToLive(NOW));
+    }
+
+    private static ProblemAnalysis analysis(String summary) {
+        return new ProblemAnalysis("Topic", summary, "Problem", "Solution", "Pro", "Con", "History", "Proverb");
+    }
+}
@@ -0,0 +1,51 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AnalysisStreamParserTest {
+
+    @Test
+    void accept_emitsEachFieldOnceItsValueIsComplete() {
+        List<String> emitted = new ArrayList<>();
+        AnalysisStreamParser parser = new AnalysisStreamParser((field, value) -> emitted.add(field + "=" + value));
+
+        parser.accept("```json\n{\"topic\": \"Global AI");
+        assertTrue(emitted.isEmpty());
+
+        parser.accept(" Regulation\", \"summary\": \"Lawmakers ");
+        assertEquals(List.of("topic=Global AI Regulation"), emitted);
+
+        parser.accept("debate\\n\\\"guardrails\\\".\"}\n```");
+        assertEquals(List.of("topic=Global AI Regulation", "summary=Lawmakers debate\n\"guardrails\"."), emitted);
+        assertTrue(parser.isComplete());
+    }
+
+    @Test
+    void accept_handlesTamilTextSplitAcrossChunks() {
+        List<String> emitted = new ArrayList<>();
+        AnalysisStreamParser parser = new AnalysisStreamParser((field, value) -> emitted.add(value));
+
+        parser.accept("{\"topic\": \"செயற்கை ");
+        parser.accept("நுண்ணறிவு\"}");
+
+        assertEquals(List.of("செயற்கை நுண்ணறிவு"), emitted);
+        assertEquals("செயற்கை நுண்ணறிவு", parser.fields().get("topic"));
+    }
+
+    @Test
+    void accept_keepsRawTextWhenOutputIsMalformed() {
+        AnalysisStreamParser parser = new AnalysisStreamParser((field, value) -> { });
+
+        parser.accept("{\"topic\": oops}");
+
+        assertFalse(parser.isComplete());
+        assertEquals("{\"topic\": oops}", parser.rawText());
+    }
+}
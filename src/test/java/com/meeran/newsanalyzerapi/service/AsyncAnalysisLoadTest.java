@@ -0,0 +1,159 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Drives the same burst of slow LLM calls through the blocking and the non-blocking
+ * analysis paths against a local Gemini stub, with the same small number of threads,
+ * and compares how many requests each keeps in flight at once. Asserts on wall-clock time, so it
+ * runs with the load scenarios (-Pload-test) rather than in the default build.
+ */
+@Tag("load")
+class AsyncAnalysisLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAnalysisLoadTest.class);
+
+    private static final int REQUESTS = 64;
+    private static final int THREADS = 4;
+    private static final long STUB_LATENCY_MS = 300;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private HttpServer server;
+    private UpstreamHttpClients upstreamHttpClients;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void startGeminiStub() throws IOException {
+        String analysisJson = new ObjectMapper().writeValueAsString(new ProblemAnalysis("Topic", "Summary",
+                "Problem", "Solution", "Proposing", "Opposing", "History", "Proverb"));
+        byte[] body = new ObjectMapper().writeValueAsBytes(
+                Map.of("candidates", List.of(Map.of("content",
+                        Map.of("parts", List.of(Map.of("text", analysisJson)))))));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/v1beta/models/", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(STUB_LATENCY_MS);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopGeminiStub() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        if (upstreamHttpClients != null) {
+            upstreamHttpClients.destroy();
+        }
+    }
+
+    @Test
+    void asyncModeKeepsFarMoreAnalysesInFlightThanThreads() throws Exception {
+        AnalysisService service = analysisService();
+
+        // Blocking mode: one thread per in-flight analysis
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        long blockingStart = System.nanoTime();
+        List<CompletableFuture<ProblemAnalysis>> blockingResults = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String topic = "blocking topic " + i;
+            blockingResults.add(CompletableFuture.supplyAsync(
+                    () -> service.analyzeTopic(topic, articles(topic), "english"), workers));
+        }
+        CompletableFuture.allOf(blockingResults.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        long blockingMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - blockingStart);
+        int blockingPeak = peakInFlight.getAndSet(0);
+        workers.shutdown();
+
+        // Async mode: the same number of threads only run response callbacks
+        long asyncStart = System.nanoTime();
+        List<CompletableFuture<ProblemAnalysis>> asyncResults = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String topic = "async topic " + i;
+            asyncResults.add(service.analyzeTopicAsync(topic, articles(topic), "english"));
+        }
+        CompletableFuture.allOf(asyncResults.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        long asyncMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - asyncStart);
+        int asyncPeak = peakInFlight.get();
+
+        logger.info("{} analyses with {} threads, {}ms stub latency: blocking peak in-flight={}, {} req/s, "
+                + "wall={}ms; async peak in-flight={}, {} req/s, wall={}ms", REQUESTS, THREADS, STUB_LATENCY_MS,
+                blockingPeak, String.format("%.1f", REQUESTS * 1000.0 / blockingMs), blockingMs,
+                asyncPeak, String.format("%.1f", REQUESTS * 1000.0 / asyncMs), asyncMs);
+
+        for (CompletableFuture<ProblemAnalysis> result : asyncResults) {
+            assertEquals("Summary", result.join().summary());
+        }
+        assertTrue(blockingPeak <= THREADS, "blocking mode is bounded by its thread count");
+        assertTrue(asyncPeak > THREADS * 4, "async mode should not be bounded by threads, peak was " + asyncPeak);
+        assertTrue(asyncMs < blockingMs, "async mode should finish the burst sooner");
+    }
+
+    private AnalysisService analysisService() {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+        factory.setReadTimeout(Duration.ofSeconds(10));
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/v1beta/models/";
+        LlmProviderRegistry registry = TestLlmProviders.registry(baseUrl, baseUrl, baseUrl);
+        // The async client gets the same number of threads, and a bulkhead wide enough for the whole burst
+        upstreamHttpClients = new UpstreamHttpClients(new MockEnvironment()
+                .withProperty("llm.primary.api.url", baseUrl)
+                .withProperty("llm.primary.http.read-timeout-ms", "10000")
+                .withProperty("llm.primary.http.max-concurrency", String.valueOf(REQUESTS))
+                .withProperty("http.async.threads", String.valueOf(THREADS)), new SimpleMeterRegistry());
+        return new AnalysisService(new RestTemplate(factory), new NonBlockingHttpClient(upstreamHttpClients),
+                registry, new ConcurrentMapCacheManager(), TestLlmProviders.promptAssembler(),
+                new UpstreamMetrics(new SimpleMeterRegistry()), TestLlmProviders.rateLimiter());
+    }
+
+    private static List<Article> articles(String topic) {
+        return List.of(new Article(topic + " headline", topic + " description", "https://example.com/"
+                + topic.replace(' ', '-')));
+    }
+}
@@ -0,0 +1,127 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.BatchResult;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+
+class BatchAnalysisServiceTest {
+
+    private TopicAnalysisService topicAnalysisService;
+    private ThreadPoolTaskExecutor executor;
+    private final Map<String, CompletableFuture<ProblemAnalysis>> pending = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        topicAnalysisService = mock(TopicAnalysisService.class);
+        // Async mode: each topic stays in flight until the test completes its future
+        when(topicAnalysisService.analyzeAsync(anyString(), eq("english"))).thenAnswer(invocation ->
+                pending.computeIfAbsent(invocation.getArgument(0), topic -> new CompletableFuture<>()));
+        executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void resultsStreamInCompletionOrderWithinTheConcurrencyLimit() throws Exception {
+        List<BatchResult> results = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = service(2).analyze(List.of("slow", "fast", "third"), "english", results::add);
+
+        assertEquals(2, pending.size(), "only two topics may be in flight");
+        pending.get("fast").complete(analysis("fast"));
+        assertEquals(List.of("fast"), topics(results));
+        assertTrue(pending.containsKey("third"), "a finished topic frees a slot for the next one");
+
+        pending.get("third").completeExceptionally(new NoArticlesFoundException("third"));
+        pending.get("slow").complete(analysis("slow"));
+        done.get(1, TimeUnit.SECONDS);
+
+        assertEquals(List.of("fast", "third", "slow"), topics(results));
+        assertEquals("not_found", results.get(1).status());
+        assertEquals("ok", results.get(2).status());
+        assertEquals("slow", results.get(2).analysis().topic());
+    }
+
+    @Test
+    void topicsWithTheSameKeyAreAnalyzedOnce() throws Exception {
+        List<BatchResult> results = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = service(4).analyze(List.of("Climate Change", "climate  change", "Elections"),
+                "english", results::add);
+        pending.values().forEach(future -> future.complete(analysis("any")));
+        done.get(1, TimeUnit.SECONDS);
+
+        verify(topicAnalysisService, times(2)).analyzeAsync(anyString(), eq("english"));
+        assertEquals(Set.of("Climate Change", "climate  change", "Elections"), Set.copyOf(topics(results)));
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    void blockingModeRunsOnTheBatchExecutor() throws Exception {
+        when(topicAnalysisService.analyze(anyString(), eq("english"))).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith(executor.getThreadNamePrefix()));
+            return analysis(invocation.getArgument(0));
+        });
+        BatchAnalysisService service = service(2);
+        ReflectionTestUtils.setField(service, "asyncEnabled", false);
+        List<BatchResult> results = new CopyOnWriteArrayList<>();
+
+        service.analyze(List.of("a", "b", "c"), "english", results::add).get(1, TimeUnit.SECONDS);
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> "ok".equals(result.status())));
+    }
+
+    @Test
+    void failingConsumerStopsTheBatch() throws Exception {
+        CompletableFuture<Void> done = service(1).analyze(List.of("a", "b", "c"), "english", result -> {
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        });
+        pending.get("a").complete(analysis("a"));
+        done.get(1, TimeUnit.SECONDS);
+
+        assertEquals(1, pending.size(), "no further topics are started once the client is gone");
+    }
+
+    private BatchAnalysisService service(int concurrency) {
+        BatchAnalysisService service = new BatchAnalysisService(topicAnalysisService, executor);
+        ReflectionTestUtils.setField(service, "concurrency", concurrency);
+        ReflectionTestUtils.setField(service, "asyncEnabled", true);
+        return service;
+    }
+
+    private static List<String> topics(List<BatchResult> results) {
+        return results.stream().map(BatchResult::topic).collect(Collectors.toList());
+    }
+
+    private static ProblemAnalysis analysis(String topic) {
+        return new ProblemAnalysis(topic, "Summary", "Problem", "Solution", "Pro", "Con", "History", "Proverb");
+    }
+}
@@ -0,0 +1,161 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
+
+class CacheRefresherTest {
+
+    private static final String TOPIC = "climate change";
+    private static final NewsApiResponse CACHED_NEWS = new NewsApiResponse("ok", 1,
+            List.of(new Article("Old headline", "Old description", "https://example.com/old")));
+    private static final NewsApiResponse LATEST_NEWS = new NewsApiResponse("ok", 1,
+            List.of(new Article("New headline", "New description", "https://example.com/new")));
+    private static final ProblemAnalysis CACHED_ANALYSIS = analysis("old");
+
+    private final AtomicLong ticker = new AtomicLong();
+    private NewsService newsService;
+    private AnalysisService analysisService;
+    private CaffeineCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        newsService = mock(NewsService.class);
+        analysisService = mock(AnalysisService.class);
+        when(analysisService.getCachedAnalysis(anyString(), any(), anyString())).thenReturn(Optional.empty());
+
+        cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.registerCustomCache("newsArticles", Caffeine.newBuilder().ticker(ticker::get)
+                .expireAfterWrite(Duration.ofHours(1)).buildAsync());
+        cacheManager.registerCustomCache("analysis", Caffeine.newBuilder().ticker(ticker::get)
+                .expireAfterWrite(Duration.ofHours(4)).buildAsync());
+        cacheManager.getCache("newsArticles").put(TOPIC, CACHED_NEWS);
+        cacheManager.getCache("analysis").put(
+                AnalysisService.analysisCacheKey(TOPIC, CACHED_NEWS.articles(), "english"), CACHED_ANALYSIS);
+    }
+
+    @Test
+    void entriesWithinSoftTtlAreNotRefreshed() {
+        CacheRefresher refresher = refresher(new SyncTaskExecutor());
+        advance(Duration.ofMinutes(10));
+
+        refresher.refreshIfStale(TOPIC, "english", CACHED_NEWS);
+
+        verifyNoInteractions(newsService);
+    }
+
+    @Test
+    void staleNewsIsRefetchedAndSwappedInOnlyAfterTheNewAnalysisIsCached() {
+        CacheRefresher refresher = refresher(new SyncTaskExecutor());
+        Cache newsCache = cacheManager.getCache("newsArticles");
+        ProblemAnalysis latestAnalysis = analysis("new");
+        when(newsService.fetchLatestArticles(TOPIC)).thenReturn(LATEST_NEWS);
+        when(analysisService.generateAnalysis(TOPIC, LATEST_NEWS.articles(), "english")).thenReturn(latestAnalysis);
+        doAnswer(invocation -> {
+            assertSame(CACHED_NEWS, newsCache.get(TOPIC).get(), "articles must not be swapped before the analysis");
+            return null;
+        }).when(analysisService).cacheAnalysis(TOPIC, LATEST_NEWS.articles(), "english", latestAnalysis);
+
+        advance(Duration.ofMinutes(50));
+        refresher.refreshIfStale(TOPIC, "english", CACHED_NEWS);
+
+        verify(analysisService).cacheAnalysis(TOPIC, LATEST_NEWS.articles(), "english", latestAnalysis);
+        assertSame(LATEST_NEWS, newsCache.get(TOPIC).get());
+    }
+
+    @Test
+    void unchangedArticlesOnlyResetTheNewsEntry() {
+        CacheRefresher refresher = refresher(new SyncTaskExecutor());
+        when(newsService.fetchLatestArticles(TOPIC)).thenReturn(
+                new NewsApiResponse("ok", 1, List.copyOf(CACHED_NEWS.articles())));
+
+        advance(Duration.ofMinutes(50));
+        refresher.refreshIfStale(TOPIC, "english", CACHED_NEWS);
+
+        verify(analysisService, never()).generateAnalysis(anyString(), any(), anyString());
+        assertEquals(CACHED_NEWS.articles(), ((NewsApiResponse) cacheManager.getCache("newsArticles").get(TOPIC).get()).articles());
+    }
+
+    @Test
+    void onlyOneRefreshIsScheduledPerTopic() {
+        List<Runnable> queued = new ArrayList<>();
+        CacheRefresher refresher = refresher(queued::add);
+
+        advance(Duration.ofMinutes(50));
+        refresher.refreshIfStale(TOPIC, "english", CACHED_NEWS);
+        refresher.refreshIfStale(TOPIC, "english", CACHED_NEWS);
+        refresher.refreshIfStale(TOPIC, "tamil", CACHED_NEWS);
+
+        assertEquals(1, queued.size());
+        when(newsService.fetchLatestArticles(TOPIC)).thenReturn(LATEST_NEWS);
+        queued.get(0).run();
+        assertFalse(refresher.isRefreshing(TOPIC));
+        verify(newsService).fetchLatestArticles(eq(TOPIC));
+    }
+
+    @Test
+    void cachedAnalysesInConfiguredLanguagesAreRefreshedWhateverLanguagesWereRequested() {
+        CacheRefresher refresher = refresher(new SyncTaskExecutor());
+        when(analysisService.getCachedAnalysis(TOPIC, CACHED_NEWS.articles(), "tamil"))
+                .thenReturn(Optional.of(CACHED_ANALYSIS));
+        when(newsService.fetchLatestArticles(TOPIC)).thenReturn(LATEST_NEWS);
+        for (int i = 0; i < 10; i++) {
+            refresher.refreshIfStale(TOPIC, "junk-" + i, CACHED_NEWS);
+        }
+
+        advance(Duration.ofMinutes(50));
+        refresher.refreshIfStale(TOPIC, "english", CACHED_NEWS);
+
+        verify(analysisService).generateAnalysis(TOPIC, LATEST_NEWS.articles(), "english");
+        verify(analysisService).generateAnalysis(TOPIC, LATEST_NEWS.articles(), "tamil");
+        verify(analysisService, never()).getCachedAnalysis(anyString(), any(), startsWith("junk-"));
+    }
+
+    private CacheRefresher refresher(TaskExecutor executor) {
+        CacheRefresher refresher = new CacheRefresher(newsService, analysisService, cacheManager, executor);
+        ReflectionTestUtils.setField(refresher, "enabled", true);
+        ReflectionTestUtils.setField(refresher, "newsSoftTtlMs", Duration.ofMinutes(45).toMillis());
+        ReflectionTestUtils.setField(refresher, "analysisSoftTtlMs", Duration.ofHours(3).toMillis());
+        ReflectionTestUtils.setField(refresher, "refreshLanguages", List.of("english", "tamil"));
+        return refresher;
+    }
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(TimeUnit.NANOSECONDS.convert(duration));
+    }
+
+    private static ProblemAnalysis analysis(String version) {
+        return new ProblemAnalysis(TOPIC, "Summary " + version, "Problem", "Solution", "Pro", "Con", "History", "Proverb");
+    }
+}
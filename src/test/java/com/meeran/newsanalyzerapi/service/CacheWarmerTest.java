@@ -0,0 +1,94 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CacheWarmerTest {
+
+    private AnalysisService analysisService;
+    private TopicAnalysisService topicAnalysisService;
+    private LlmProviderRegistry registry;
+    private TopicPopularity popularity;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = mock(AnalysisService.class);
+        topicAnalysisService = mock(TopicAnalysisService.class);
+        registry = TestLlmProviders.registry("http://primary", "http://secondary", "http://openrouter.third");
+        popularity = new TopicPopularity();
+        when(analysisService.getTopicSuggestions()).thenReturn("[\"Global AI Regulation\", \"Urban Mobility\"]");
+    }
+
+    @Test
+    void warmsSuggestionsAndPopularTopicsInEveryLanguage() {
+        popularity.record("water scarcity");
+        popularity.record("Water  Scarcity");
+        popularity.record("urban mobility");
+        CacheWarmer warmer = warmer("", 20);
+
+        assertEquals(List.of("Global AI Regulation", "Urban Mobility", "Water  Scarcity"), warmer.candidateTopics());
+        warmer.warmUp();
+
+        for (String topic : List.of("Global AI Regulation", "Urban Mobility", "Water  Scarcity")) {
+            verify(topicAnalysisService).warm(topic, "english");
+            verify(topicAnalysisService).warm(topic, "tamil");
+        }
+    }
+
+    @Test
+    void stopsOnceTheServingProviderHasUsedItsBudget() {
+        // Every warmed analysis costs one call on the provider currently ranked first
+        doAnswer(invocation -> {
+            registry.recordSuccess(registry.routingOrder().get(0), 100);
+            return null;
+        }).when(topicAnalysisService).warm(anyString(), anyString());
+        CacheWarmer warmer = warmer("", 3);
+
+        warmer.warmUp();
+
+        verify(topicAnalysisService, times(3)).warm(anyString(), anyString());
+    }
+
+    @Test
+    void doesNothingOutsideTheOffPeakWindows() {
+        CacheWarmer warmer = warmer("01:00-05:00,22:30-00:30", 20);
+        ReflectionTestUtils.setField(warmer, "clock", Clock.fixed(Instant.parse("2025-01-01T12:00:00Z"), ZoneOffset.UTC));
+        assertFalse(warmer.inOffPeakWindow());
+
+        warmer.warmUp();
+        verifyNoInteractions(topicAnalysisService);
+
+        ReflectionTestUtils.setField(warmer, "clock", Clock.fixed(Instant.parse("2025-01-01T00:10:00Z"), ZoneOffset.UTC));
+        assertTrue(warmer.inOffPeakWindow(), "windows may wrap midnight");
+    }
+
+    private CacheWarmer warmer(String windows, int maxCallsPerProvider) {
+        CacheWarmer warmer = new CacheWarmer(analysisService, topicAnalysisService, registry, popularity);
+        ReflectionTestUtils.setField(warmer, "enabled", true);
+        ReflectionTestUtils.setField(warmer, "languages", List.of("english", "tamil"));
+        ReflectionTestUtils.setField(warmer, "popularTopics", 8);
+        ReflectionTestUtils.setField(warmer, "maxTopics", 16);
+        ReflectionTestUtils.setField(warmer, "maxCallsPerProvider", maxCallsPerProvider);
+        ReflectionTestUtils.setField(warmer, "windows", windows);
+        ReflectionTestUtils.setField(warmer, "zone", "UTC");
+        ReflectionTestUtils.invokeMethod(warmer, "init");
+        return warmer;
+    }
+}
@@ -0,0 +1,135 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+class LlmProviderRegistryTest {
+
+    private final MutableClock clock = new MutableClock();
+    private LlmProviderRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = TestLlmProviders.registry("http://gemini/", "http://gemini-lite/", "http://openrouter/chat");
+        ReflectionTestUtils.setField(registry, "clock", clock);
+    }
+
+    @Test
+    void routingOrder_keepsConfiguredOrderUntilLatencyIsKnown() {
+        assertEquals(List.of("primary", "secondary", "third"), names(registry.routingOrder()));
+    }
+
+    @Test
+    void routingOrder_prefersFastestProvider() {
+        registry.recordSuccess(provider("primary"), 4_000);
+        registry.recordSuccess(provider("secondary"), 3_000);
+        registry.recordSuccess(provider("third"), 800);
+
+        assertEquals(List.of("third", "secondary", "primary"), names(registry.routingOrder()));
+    }
+
+    @Test
+    void rateLimitedProviderIsRankedBehindHealthyOnes() {
+        registry.recordSuccess(provider("primary"), 500);
+        registry.recordSuccess(provider("secondary"), 2_000);
+        registry.recordFailure(provider("primary"), 50, HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests", new HttpHeaders(), new byte[0], null));
+
+        assertEquals("secondary", registry.routingOrder().get(0).name());
+        assertEquals(1, registry.snapshot().stream().filter(s -> s.name().equals("primary")).findFirst().get().rateLimited());
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndRecoversThroughHalfOpenProbe() {
+        LlmProvider primary = provider("primary");
+        for (int i = 0; i < 3; i++) {
+            registry.recordFailure(primary, 100, new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+
+        assertFalse(names(registry.routingOrder()).contains("primary"));
+        assertFalse(registry.tryAcquire(primary));
+
+        clock.advanceMillis(30_000);
+        assertEquals("primary", registry.routingOrder().get(0).name(), "probe goes first once the cool-down elapsed");
+        assertTrue(registry.tryAcquire(primary));
+        assertFalse(registry.tryAcquire(primary), "only one probe at a time");
+
+        registry.recordSuccess(primary, 300);
+        assertTrue(registry.tryAcquire(primary));
+        assertEquals("CLOSED", registry.snapshot().stream().filter(s -> s.name().equals("primary")).findFirst().get().circuitState());
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        LlmProvider primary = provider("primary");
+        for (int i = 0; i < 3; i++) {
+            registry.recordFailure(primary, 100, new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        }
+        clock.advanceMillis(30_000);
+        assertTrue(registry.tryAcquire(primary));
+
+        registry.recordFailure(primary, 100, new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+        assertFalse(registry.tryAcquire(primary));
+        assertFalse(names(registry.routingOrder()).contains("primary"));
+    }
+
+    @Test
+    void allCircuitsOpenStillReturnsProvidersAsLastResort() {
+        for (LlmProvider provider : registry.routingOrder()) {
+            for (int i = 0; i < 3; i++) {
+                registry.recordFailure(provider, 100, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+            }
+        }
+
+        List<LlmProvider> order = registry.routingOrder();
+        assertEquals(3, order.size());
+        assertTrue(registry.tryAcquire(order.get(0)));
+    }
+
+    private LlmProvider provider(String name) {
+        return registry.routingOrder().stream().filter(p -> p.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static List<String> names(List<LlmProvider> providers) {
+        return providers.stream().map(LlmProvider::name).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advanceMillis(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeran.newsanalyzerapi.dto.AnalysisDto.ProblemAnalysis;
+import com.meeran.newsanalyzerapi.service.LlmResponseDecoder.Decoded;
+
+class LlmResponseDecoderTest {
+
+    private static final ProblemAnalysis ANALYSIS = new ProblemAnalysis("Topic", "Summary with \"quotes\" — தமிழ்",
+            "Problem", "Solution", "Proposing", "Opposing", "History", "Proverb");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decodesFencedGeminiAnalysisStraightFromTheStream() throws IOException {
+        Map<String, Object> content = Map.of("role", "model",
+                "parts", List.of(Map.of("text", "\n```json\n" + json(ANALYSIS) + "\n```  ")));
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                "candidates", List.of(Map.of("content", content, "finishReason", "STOP")),
+                "usageMetadata", Map.of("totalTokenCount", 1234)));
+
+        Decoded<ProblemAnalysis> decoded = LlmResponseDecoder.decode(
+                objectMapper.getFactory().createParser(new ByteArrayInputStream(body)), false, this::readAnalysis);
+
+        assertEquals(ANALYSIS, decoded.value());
+        assertEquals(body.length, decoded.responseBytes());
+    }
+
+    @Test
+    void skipsUnrelatedOpenRouterFieldsAndChoices() throws IOException {
+        String body = """
+                {"id":"gen-1","provider":{"name":"x","tags":["a",{"b":[1,2]}]},
+                 "choices":[{"index":0,"message":{"role":"assistant","reasoning":{"steps":["x"]},
+                   "content":"`Global AI Regulation`"}},
+                  {"index":1,"message":{"content":"ignored"}}]}
+                """;
+
+        Decoded<String> decoded = LlmResponseDecoder.decode(objectMapper.getFactory().createParser(body), true,
+                LlmResponseDecoder.AS_STRING);
+
+        assertEquals("Global AI Regulation", decoded.value());
+    }
+
+    @Test
+    void truncatedEnvelopeIsAnIoErrorButBadContentIsNot() throws IOException {
+        String complete = objectMapper.writeValueAsString(Map.of("choices",
+                List.of(Map.of("message", Map.of("content", json(ANALYSIS)))), "usage", Map.of("total_tokens", 10)));
+        String truncated = complete.substring(0, complete.length() - 5);
+        assertThrows(IOException.class, () -> LlmResponseDecoder.decode(
+                objectMapper.getFactory().createParser(truncated), true, this::readAnalysis));
+
+        String notJson = objectMapper.writeValueAsString(Map.of("choices",
+                List.of(Map.of("message", Map.of("content", "I cannot help with that.")))));
+        UncheckedIOException failure = assertThrows(UncheckedIOException.class, () -> LlmResponseDecoder.decode(
+                objectMapper.getFactory().createParser(notJson), true, this::readAnalysis));
+        assertInstanceOf(JsonProcessingException.class, failure.getCause());
+    }
+
+    @Test
+    void missingTextFieldReadsAsEmpty() throws IOException {
+        String blocked = "{\"candidates\":[{\"finishReason\":\"SAFETY\"}],\"promptFeedback\":{\"blockReason\":\"OTHER\"}}";
+
+        assertEquals("", LlmResponseDecoder.decode(objectMapper.getFactory().createParser(blocked), false,
+                LlmResponseDecoder.AS_STRING).value());
+    }
+
+    @Test
+    void stripFenceMatchesFormerSanitization() {
+        assertEquals("{\"a\":1}", LlmResponseDecoder.stripFence("  ```json\n{\"a\":1}\n```\n"));
+        assertEquals("{\"a\":1}", LlmResponseDecoder.stripFence("```json{\"a\":1}"));
+        assertEquals("topic", LlmResponseDecoder.stripFence("`topic`"));
+        assertEquals("`", LlmResponseDecoder.stripFence(" ` "));
+        assertEquals("", LlmResponseDecoder.stripFence("   "));
+    }
+
+    private ProblemAnalysis readAnalysis(char[] text, int offset, int length) throws IOException {
+        return objectMapper.readValue(objectMapper.getFactory().createParser(text, offset, length), ProblemAnalysis.class);
+    }
+
+    private String json(ProblemAnalysis analysis) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(analysis);
+    }
+}
@@ -1,29 +1,45 @@
 package com.meeran.newsanalyzerapi.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.dto.MediastackDto;
 import com.meeran.newsanalyzerapi.dto.NewsApiResponse;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class NewsServiceTest {
 
     @Test
     void fetchArticlesForTopic_encodesTopicWithSpaces() {
         RestTemplate restTemplate = mock(RestTemplate.class);
-        NewsService service = new NewsService(restTemplate);
-        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        NewsService service = new NewsService(restTemplate, mock(NonBlockingHttpClient.class), new SimpleAsyncTaskExecutor(),
+                new UpstreamMetrics(new SimpleMeterRegistry()), TestLlmProviders.rateLimiter(), localNewsIndex());
+        ReflectionTestUtils.setField(service, "primaryApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "primaryApiUrl", "https://newsapi.org/v2/everything");
+        ReflectionTestUtils.setField(service, "secondaryApiUrl", "http://api.mediastack.com/v1/news");
 
         when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenReturn(new NewsApiResponse("ok", 0, Collections.emptyList()));
 
@@ -40,8 +56,11 @@ class NewsServiceTest {
     @Test
     void fetchArticlesForTopic_encodesSpecialCharacters() {
         RestTemplate restTemplate = mock(RestTemplate.class);
-        NewsService service = new NewsService(restTemplate);
-        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        NewsService service = new NewsService(restTemplate, mock(NonBlockingHttpClient.class), new SimpleAsyncTaskExecutor(),
+                new UpstreamMetrics(new SimpleMeterRegistry()), TestLlmProviders.rateLimiter(), localNewsIndex());
+        ReflectionTestUtils.setField(service, "primaryApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "primaryApiUrl", "https://newsapi.org/v2/everything");
+        ReflectionTestUtils.setField(service, "secondaryApiUrl", "http://api.mediastack.com/v1/news");
 
         when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenReturn(new NewsApiResponse("ok", 0, Collections.emptyList()));
 
@@ -54,4 +73,197 @@ class NewsServiceTest {
         String uri = calledUri.toString();
         assertTrue(uri.contains("q=c%23%20%26%20kotlin"));
     }
+
+    @Test
+    void fetchArticlesForTopic_hedgesToSecondaryWhenPrimaryIsSlow() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        NewsService service = hedgingService(restTemplate);
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return new NewsApiResponse("ok", 1, List.of(new Article("slow", "primary", "https://a.example/1")));
+        });
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenReturn(
+                new MediastackDto.Response(List.of(new MediastackDto.Article("fast", "secondary", "https://b.example/1"))));
+
+        long start = System.nanoTime();
+        NewsApiResponse response = service.fetchArticlesForTopic("climate change");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("fast", response.articles().get(0).title());
+        assertTrue(elapsedMs < 1_500, "hedged fetch should not wait for the slow primary, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void fetchArticlesForTopic_mergesHedgedResultsByUrl() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        NewsService service = hedgingService(restTemplate);
+        ReflectionTestUtils.setField(service, "hedgeMerge", true);
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return new NewsApiResponse("ok", 2, List.of(
+                    new Article("shared", "primary", "https://a.example/shared"),
+                    new Article("primary only", "primary", "https://a.example/1")));
+        });
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenReturn(
+                new MediastackDto.Response(List.of(
+                        new MediastackDto.Article("shared", "secondary", "https://a.example/shared"),
+                        new MediastackDto.Article("secondary only", "secondary", "https://b.example/1"))));
+
+        NewsApiResponse response = service.fetchArticlesForTopic("climate change");
+
+        assertEquals(3, response.articles().size());
+        assertEquals("primary", response.articles().get(0).description());
+    }
+
+    @Test
+    void fetchArticlesForTopic_countsAnAbandonedPrimaryTowardsTheHedgeDelay() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        NewsService service = hedgingService(restTemplate);
+        ReflectionTestUtils.setField(service, "hedgeMinSamples", 1);
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return new NewsApiResponse("ok", 1, List.of(new Article("slow", "primary", "https://a.example/1")));
+        });
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return new MediastackDto.Response(List.of(new MediastackDto.Article("fast", "secondary", "https://b.example/1")));
+        });
+
+        assertEquals("fast", service.fetchArticlesForTopic("climate change").articles().get(0).title());
+        assertTrue(service.currentHedgeDelayMs() >= 300,
+                "the cancelled primary was sampled at its elapsed time, got " + service.currentHedgeDelayMs() + "ms");
+    }
+
+    @Test
+    void fetchArticlesForTopic_mergeDoesNotWaitForeverOnTheHedgedPrimary() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        NewsService service = hedgingService(restTemplate);
+        ReflectionTestUtils.setField(service, "hedgeMerge", true);
+        ReflectionTestUtils.setField(service, "hedgeMaxDelayMs", 200L);
+        ReflectionTestUtils.setField(service, "primaryReadTimeoutMs", 300L);
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return new NewsApiResponse("ok", 1, List.of(new Article("slow", "primary", "https://a.example/1")));
+        });
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenReturn(
+                new MediastackDto.Response(List.of(new MediastackDto.Article("fast", "secondary", "https://b.example/1"))));
+
+        long start = System.nanoTime();
+        NewsApiResponse response = service.fetchArticlesForTopic("climate change");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("fast"), response.articles().stream().map(Article::title).toList());
+        assertTrue(elapsedMs < 2_000, "merge gave up on the primary after its bound, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void fetchArticlesForTopic_recordsProviderLatencyAndFailoverCause() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NewsService service = new NewsService(restTemplate, mock(NonBlockingHttpClient.class), new SimpleAsyncTaskExecutor(),
+                new UpstreamMetrics(meterRegistry), TestLlmProviders.rateLimiter(), localNewsIndex());
+        ReflectionTestUtils.setField(service, "primaryApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "primaryApiUrl", "https://newsapi.org/v2/everything");
+        ReflectionTestUtils.setField(service, "secondaryApiUrl", "http://api.mediastack.com/v1/news");
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenThrow(
+                HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenReturn(
+                new MediastackDto.Response(List.of(new MediastackDto.Article("title", "secondary", "https://b.example/1"))));
+
+        service.fetchArticlesForTopic("climate change");
+
+        assertEquals(1.0, meterRegistry.get("upstream.failovers")
+                .tags("api", "news", "provider", "newsapi", "cause", "rate_limited").counter().count());
+        assertEquals(1, meterRegistry.get("upstream.requests")
+                .tags("provider", "newsapi", "outcome", "rate_limited").timer().count());
+        assertEquals(1, meterRegistry.get("upstream.requests")
+                .tags("provider", "mediastack", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void fetchArticlesForTopic_failsOverWithoutCallingThrottledPrimary() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(new MockEnvironment()
+                .withProperty("news.primary.rate-limit.requests-per-minute", "1")
+                .withProperty("news.primary.rate-limit.burst", "1"), new UpstreamMetrics(meterRegistry));
+        ReflectionTestUtils.setField(rateLimiter, "maxWaitMs", 200L);
+        NewsService service = new NewsService(restTemplate, mock(NonBlockingHttpClient.class), new SimpleAsyncTaskExecutor(),
+                new UpstreamMetrics(meterRegistry), rateLimiter, localNewsIndex());
+        ReflectionTestUtils.setField(service, "primaryApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "primaryApiUrl", "https://newsapi.org/v2/everything");
+        ReflectionTestUtils.setField(service, "secondaryApiUrl", "http://api.mediastack.com/v1/news");
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenReturn(new NewsApiResponse("ok", 0, Collections.emptyList()));
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenReturn(
+                new MediastackDto.Response(List.of(new MediastackDto.Article("title", "secondary", "https://b.example/1"))));
+
+        service.fetchLatestArticles("climate change");
+        NewsApiResponse response = service.fetchLatestArticles("elections");
+
+        assertEquals("secondary", response.articles().get(0).description());
+        verify(restTemplate, times(1)).getForObject(any(URI.class), eq(NewsApiResponse.class));
+        assertEquals(1.0, meterRegistry.get("upstream.failovers")
+                .tags("provider", "newsapi", "cause", "throttled").counter().count());
+    }
+
+    @Test
+    void fetchLatestArticles_answersFromIngestedHeadlinesWithoutLiveSearch() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        LocalNewsIndex localNewsIndex = localNewsIndex();
+        ReflectionTestUtils.setField(localNewsIndex, "enabled", true);
+        ReflectionTestUtils.setField(localNewsIndex, "minResults", 2);
+        NewsService service = new NewsService(restTemplate, mock(NonBlockingHttpClient.class), new SimpleAsyncTaskExecutor(),
+                new UpstreamMetrics(new SimpleMeterRegistry()), TestLlmProviders.rateLimiter(), localNewsIndex);
+        ReflectionTestUtils.setField(service, "primaryApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "primaryApiUrl", "https://newsapi.org/v2/everything");
+        ReflectionTestUtils.setField(service, "secondaryApiUrl", "http://api.mediastack.com/v1/news");
+        ReflectionTestUtils.setField(service, "headlinesUrl", "");
+        ReflectionTestUtils.setField(service, "headlinesCountry", "us");
+        ReflectionTestUtils.setField(service, "headlinesCategories", List.of("science"));
+
+        when(restTemplate.getForObject(any(URI.class), eq(NewsApiResponse.class))).thenReturn(new NewsApiResponse("ok", 2,
+                List.of(new Article("Climate summit opens", "Leaders meet", "https://a.example/1"),
+                        new Article("Markets rally", "Stocks up", "https://a.example/2"))));
+        when(restTemplate.getForObject(any(URI.class), eq(MediastackDto.Response.class))).thenReturn(
+                new MediastackDto.Response(List.of(
+                        new MediastackDto.Article("Summit on climate ends", "Deal reached", "https://b.example/1"),
+                        new MediastackDto.Article("Climate summit opens", "Leaders meet", "https://a.example/1"))));
+
+        new ArticleIngester(service, localNewsIndex).ingest();
+        NewsApiResponse response = service.fetchLatestArticles("climate summit");
+
+        assertEquals(3, localNewsIndex.size(), "the repeated URL is indexed once");
+        assertEquals(List.of("https://a.example/1", "https://b.example/1"),
+                response.articles().stream().map(Article::url).toList());
+        ArgumentCaptor<URI> captor = ArgumentCaptor.forClass(URI.class);
+        verify(restTemplate, times(1)).getForObject(captor.capture(), eq(NewsApiResponse.class));
+        assertTrue(captor.getValue().toString().startsWith("https://newsapi.org/v2/top-headlines?country=us&category=science"));
+    }
+
+    private static LocalNewsIndex localNewsIndex() {
+        LocalNewsIndex localNewsIndex = new LocalNewsIndex(Duration.ofHours(1), Duration.ofDays(7), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(localNewsIndex, "maxResults", 20);
+        ReflectionTestUtils.setField(localNewsIndex, "minTermCoverage", 0.6);
+        return localNewsIndex;
+    }
+
+    private static NewsService hedgingService(RestTemplate restTemplate) {
+        NewsService service = new NewsService(restTemplate, mock(NonBlockingHttpClient.class), new SimpleAsyncTaskExecutor(),
+                new UpstreamMetrics(new SimpleMeterRegistry()), TestLlmProviders.rateLimiter(), localNewsIndex());
+        ReflectionTestUtils.setField(service, "primaryApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "primaryApiUrl", "https://newsapi.org/v2/everything");
+        ReflectionTestUtils.setField(service, "secondaryApiUrl", "http://api.mediastack.com/v1/news");
+        ReflectionTestUtils.setField(service, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(service, "hedgeInitialDelayMs", 100L);
+        ReflectionTestUtils.setField(service, "hedgeMinSamples", 20);
+        ReflectionTestUtils.setField(service, "hedgeMaxDelayMs", 8_000L);
+        ReflectionTestUtils.setField(service, "primaryReadTimeoutMs", 25_000L);
+        return service;
+    }
 }
@@ -0,0 +1,97 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.meeran.newsanalyzerapi.service.PromptAssembler.AssembledPrompt;
+import com.meeran.newsanalyzerapi.service.PromptAssembler.PackedArticles;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PromptAssemblerTest {
+
+    private static final Article WIRE = new Article("Central bank raises interest rates to curb inflation",
+            "The central bank raised its benchmark rate by a quarter point on Wednesday, citing persistent inflation "
+                    + "and a tight labour market, and signalled further increases may follow this year.",
+            "https://wire.example.com/rates");
+    // The same wire story as republished by another outlet, with a credit line appended
+    private static final Article SYNDICATED = new Article("Central bank raises interest rates to curb inflation",
+            "The central bank raised its benchmark rate by a quarter point on Wednesday, citing persistent inflation "
+                    + "and a tight labour market, and signalled further increases may follow this year. (Reuters)",
+            "https://local.example.com/business/rates");
+    private static final Article DIFFERENT = new Article("Farmers protest new water rules",
+            "Thousands of farmers marched on the capital to oppose irrigation limits.",
+            "https://example.com/farmers");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void syndicatedCopiesAreCollapsedIntoOne() {
+        PromptAssembler assembler = assembler();
+        PackedArticles packed = assembler.pack("interest rates", List.of(WIRE, SYNDICATED, DIFFERENT, WIRE), 10_000);
+
+        assertEquals(2, packed.articlesUsed());
+        assertEquals(2, packed.duplicates());
+        assertEquals(1, count(packed.content(), "Central bank raises interest rates"));
+        assertTrue(packed.content().contains("Farmers protest"));
+        assertEquals(0.0, meterRegistry.get("analysis.prompt.articles.dropped").tag("reason", "near_duplicate")
+                .counter().count(), "packing alone records nothing; a failover may pack again");
+        assembler.recordSent(new AssembledPrompt(packed.content(), packed));
+        assertEquals(2.0, meterRegistry.get("analysis.prompt.articles.dropped").tag("reason", "near_duplicate")
+                .counter().count());
+    }
+
+    @Test
+    void articlesArePackedIntoTheTokenBudgetBestFirst() {
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            articles.add(new Article("Unrelated story number " + i + " about local sports " + "x".repeat(i),
+                    "Match report " + i + " with scores, quotes and highlights from the weekend fixtures.",
+                    "https://example.com/sports/" + i));
+        }
+        articles.add(DIFFERENT);
+
+        PromptAssembler assembler = assembler();
+        PackedArticles packed = assembler.pack("farmers protest", articles, 200);
+        assembler.recordSent(new AssembledPrompt(packed.content(), packed));
+
+        assertTrue(packed.contentTokens() <= 200, "used " + packed.contentTokens());
+        assertTrue(packed.content().startsWith("Title: Farmers protest"), "topic match should rank first");
+        assertTrue(packed.overBudget() > 0);
+        assertTrue(packed.tokensSaved() > 0);
+        assertEquals(packed.tokensSaved(), meterRegistry.get("analysis.prompt.tokens.saved").counter().count());
+    }
+
+    @Test
+    void keepsOneTruncatedArticleWhenNothingFits() {
+        PackedArticles packed = assembler().pack("interest rates", List.of(WIRE), 10);
+
+        assertEquals(1, packed.articlesUsed());
+        assertFalse(packed.content().isEmpty());
+        assertTrue(PromptAssembler.estimateTokens(packed.content()) <= 10);
+    }
+
+    @Test
+    void nearDuplicatesAreCloseInSimHashButDistinctStoriesAreNot() {
+        assertTrue(Long.bitCount(PromptAssembler.simHash(WIRE) ^ PromptAssembler.simHash(SYNDICATED)) <= 6);
+        assertTrue(Long.bitCount(PromptAssembler.simHash(WIRE) ^ PromptAssembler.simHash(DIFFERENT)) > 10);
+    }
+
+    private PromptAssembler assembler() {
+        PromptAssembler assembler = new PromptAssembler(meterRegistry);
+        ReflectionTestUtils.setField(assembler, "maxHammingDistance", 6);
+        return assembler;
+    }
+
+    private static int count(String text, String needle) {
+        return text.split(java.util.regex.Pattern.quote(needle), -1).length - 1;
+    }
+}
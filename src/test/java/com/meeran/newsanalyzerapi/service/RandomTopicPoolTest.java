@@ -0,0 +1,91 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RandomTopicPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AnalysisService analysisService;
+    private RandomTopicPool pool;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = mock(AnalysisService.class);
+        // Refills run inline, so each test sees their effect immediately
+        pool = new RandomTopicPool(analysisService, new SyncTaskExecutor(), 6, 100, meterRegistry);
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "batchSize", 4);
+        ReflectionTestUtils.setField(pool, "lowWaterMark", 2);
+        ReflectionTestUtils.setField(pool, "maxCallsPerRefill", 3);
+    }
+
+    @Test
+    void refillsInBatchesWithoutDuplicatesAndServesInOrder() {
+        when(analysisService.generateRandomTopics(4)).thenReturn(
+                List.of("Arctic Shipping Routes", "\"Global Water Scarcity\"", "arctic  shipping routes", "Lithium Mining Boom"),
+                List.of("Global water scarcity", "Urban Heat Islands", "Deep Sea Mining", "Space Debris Cleanup"));
+
+        assertEquals(6, pool.refill());
+
+        assertEquals(6, pool.size());
+        assertEquals("Arctic Shipping Routes", pool.next());
+        assertEquals("Global Water Scarcity", pool.next());
+        assertEquals("Lithium Mining Boom", pool.next());
+        verify(analysisService, times(2)).generateRandomTopics(4);
+        verify(analysisService, never()).getRandomSingleTopic();
+        assertEquals(3.0, meterRegistry.get("random.topics.requests").tag("outcome", "hit").counter().count());
+        assertEquals(3.0, meterRegistry.get("random.topics.pool.size").gauge().value());
+    }
+
+    @Test
+    void refillsAtTheLowWaterMarkSkippingRecentlyServedTopics() {
+        when(analysisService.generateRandomTopics(anyInt())).thenReturn(
+                List.of("Topic A", "Topic B", "Topic C"),
+                List.of("Topic A", "Topic B", "Topic C"),
+                List.of(),
+                List.of("Topic A", "Topic B", "Topic D", "Topic E"));
+        assertEquals(3, pool.refill(), "a batch with nothing new ends the refill");
+
+        // Falling to the low-water mark triggers a refill, which fails
+        assertEquals("Topic A", pool.next());
+        assertEquals(1.0, meterRegistry.get("random.topics.refills").tag("outcome", "failure").counter().count());
+
+        // The next one returns the two topics just served as well; only the new ones are pooled
+        assertEquals("Topic B", pool.next());
+        assertEquals(3, pool.size());
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            served.add(pool.next());
+        }
+        assertEquals(List.of("Topic C", "Topic D", "Topic E"), served);
+    }
+
+    @Test
+    void emptyPoolFallsBackToASingleTopicCall() {
+        when(analysisService.generateRandomTopics(anyInt())).thenReturn(List.of());
+        when(analysisService.getRandomSingleTopic()).thenReturn("Global economic trends");
+
+        assertEquals("Global economic trends", pool.next());
+        assertEquals(1.0, meterRegistry.get("random.topics.requests").tag("outcome", "miss").counter().count());
+
+        ReflectionTestUtils.setField(pool, "enabled", false);
+        assertEquals("Global economic trends", pool.next());
+        verify(analysisService, times(2)).getRandomSingleTopic();
+    }
+}
@@ -0,0 +1,190 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestCoalescerTest {
+
+    @Test
+    void execute_concurrentCallersForSameKeyShareOneComputation() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> coalescer.execute(RequestCoalescer.key("Climate  Change", "english"), () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "analysis";
+                })));
+            }
+            // Wait until every caller is either computing or waiting on the leader.
+            while (meterRegistry.get("analysis.coalescer.requests").counters().stream()
+                    .mapToDouble(c -> c.count()).sum() < callers) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("analysis", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(callers - 1, meterRegistry.get("analysis.coalescer.requests").tag("role", "coalesced").counter().count());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void execute_propagatesFailureAndAllowsRetry() {
+        RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("english:topic", () -> {
+            throw new IllegalStateException("provider down");
+        }));
+
+        assertEquals("ok", coalescer.execute("english:topic", () -> "ok"));
+    }
+
+    @Test
+    void execute_joiningCallerWaitsNoLongerThanItsOwnDeadline() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> coalescer.execute("english:topic", () -> {
+                started.countDown();
+                await(release);
+                return "analysis";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(100), Duration.ZERO);
+            assertThrows(DeadlineExceededException.class,
+                    () -> deadline.within(() -> coalescer.execute("english:topic", () -> "second computation")));
+
+            release.countDown();
+            assertEquals("analysis", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_joinerWithBudgetLeftRecomputesWhenTheLeaderRunsOutOfItsDeadline() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+        // The leader's client asked for a tiny budget (X-Request-Deadline-Ms); the joiner did not
+        RequestDeadline shortLeader = RequestDeadline.after(Duration.ofMillis(100), Duration.ZERO);
+        RequestDeadline longJoiner = RequestDeadline.after(Duration.ofSeconds(30), Duration.ofMillis(500));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> shortLeader.within(() ->
+                    coalescer.execute("english:topic", () -> {
+                        started.countDown();
+                        await(joined);
+                        sleep(200);
+                        RequestDeadline.current().check("the leader's analysis");
+                        return "leader's analysis";
+                    })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> joiner = executor.submit(() -> longJoiner.within(() ->
+                    coalescer.execute("english:topic", () -> "joiner's analysis")));
+            while (meterRegistry.get("analysis.coalescer.requests").tag("role", "coalesced").counter().count() < 1) {
+                Thread.sleep(5);
+            }
+            joined.countDown();
+
+            assertEquals("joiner's analysis", joiner.get(5, TimeUnit.SECONDS));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeAsync_joinerWithBudgetLeftRecomputesWhenTheLeaderRunsOutOfItsDeadline() {
+        RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+        RequestDeadline shortLeader = RequestDeadline.after(Duration.ofMillis(1), Duration.ZERO);
+        RequestDeadline longJoiner = RequestDeadline.after(Duration.ofSeconds(30), Duration.ofMillis(500));
+        CompletableFuture<String> leaderWork = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = shortLeader.within(() -> coalescer.executeAsync("english:topic", () -> leaderWork));
+        CompletableFuture<String> joiner = longJoiner.within(() -> coalescer.executeAsync("english:topic",
+                () -> CompletableFuture.completedFuture("joiner's analysis")));
+        leaderWork.completeExceptionally(new DeadlineExceededException("the leader's analysis", false));
+
+        assertEquals("joiner's analysis", joiner.join());
+        assertTrue(leader.isCompletedExceptionally());
+    }
+
+    @Test
+    void executeAsync_sharedComputationIsCancelledOnceEveryCallerIsGone() {
+        RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+        RequestDeadline leader = RequestDeadline.after(Duration.ofSeconds(10), Duration.ZERO);
+        RequestDeadline follower = RequestDeadline.after(Duration.ofSeconds(10), Duration.ZERO);
+        CompletableFuture<String> work = new CompletableFuture<>();
+        leader.onCancel(() -> work.cancel(true));
+
+        leader.within(() -> coalescer.executeAsync("english:topic", () -> work));
+        follower.within(() -> coalescer.executeAsync("english:topic", () -> CompletableFuture.completedFuture("other")));
+
+        leader.cancel();
+        assertFalse(work.isDone(), "the joined caller still waits for the result");
+        follower.cancel();
+        assertTrue(work.isCancelled());
+    }
+
+    @Test
+    void key_ignoresCaseAndWhitespace() {
+        assertEquals(RequestCoalescer.key("AI regulation", "English"), RequestCoalescer.key("  ai   Regulation ", "english"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
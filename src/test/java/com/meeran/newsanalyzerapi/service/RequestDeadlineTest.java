@@ -0,0 +1,181 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestTemplate;
+
+import com.meeran.newsanalyzerapi.dto.Article;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Deadline bookkeeping, and the analysis cascade against three LLM stubs that are all slower
+ * than the request's budget.
+ */
+class RequestDeadlineTest {
+
+    private static final long STUB_LATENCY_MS = 3_000;
+
+    private final AtomicInteger llmRequests = new AtomicInteger();
+    private final CountDownLatch firstRequest = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private UpstreamHttpClients upstreamHttpClients;
+
+    @BeforeEach
+    void startSlowProviders() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 16);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            llmRequests.incrementAndGet();
+            firstRequest.countDown();
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(STUB_LATENCY_MS);
+                exchange.sendResponseHeaders(500, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopSlowProviders() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        if (upstreamHttpClients != null) {
+            upstreamHttpClients.destroy();
+        }
+    }
+
+    @Test
+    void capsTimeoutsAndRequiresTheMinimumBudgetForAnotherAttempt() throws InterruptedException {
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(200), Duration.ofMillis(150));
+
+        assertEquals(Duration.ofSeconds(25), RequestDeadline.NONE.cap(Duration.ofSeconds(25)));
+        assertTrue(deadline.cap(Duration.ofSeconds(25)).compareTo(Duration.ofMillis(200)) <= 0);
+        assertEquals(Duration.ofMillis(50), deadline.cap(Duration.ofMillis(50)));
+        assertTrue(deadline.allowsAttempt());
+
+        Thread.sleep(100);
+        assertFalse(deadline.allowsAttempt(), "less than the minimum attempt budget is left");
+        deadline.check("a call that only needs some budget");
+        assertThrows(DeadlineExceededException.class, () -> deadline.checkAttempt("a retry"));
+
+        Thread.sleep(150);
+        assertTrue(deadline.isExpired());
+        assertFalse(deadline.isCancelled(), "ran out rather than being cancelled");
+        assertEquals(Duration.ofMillis(1), deadline.cap(Duration.ofSeconds(25)));
+    }
+
+    @Test
+    void sharedDeadlineIsCancelledOnlyWhenEveryHolderLetGo() {
+        RequestDeadline leader = RequestDeadline.after(Duration.ofSeconds(10), Duration.ZERO);
+        AtomicInteger cancelled = new AtomicInteger();
+        leader.onCancel(cancelled::incrementAndGet);
+        leader.retain();
+
+        leader.cancel();
+        assertFalse(leader.isExpired(), "a coalesced request still waits for the result");
+        leader.cancel();
+        assertTrue(leader.isCancelled());
+        assertEquals(1, cancelled.get());
+
+        leader.onCancel(cancelled::incrementAndGet);
+        assertEquals(2, cancelled.get(), "actions registered after cancelling run right away");
+    }
+
+    @Test
+    void bindingIsScopedToTheCallingThread() {
+        RequestDeadline outer = RequestDeadline.after(Duration.ofSeconds(10), Duration.ZERO);
+        RequestDeadline inner = RequestDeadline.after(Duration.ofSeconds(5), Duration.ZERO);
+
+        assertSame(RequestDeadline.NONE, RequestDeadline.current());
+        try (RequestDeadline.Scope scope = outer.bind()) {
+            assertSame(inner, inner.within(RequestDeadline::current));
+            assertSame(outer, RequestDeadline.current());
+            assertSame(RequestDeadline.NONE, CompletableFuture.supplyAsync(RequestDeadline::current).join());
+        }
+        assertSame(RequestDeadline.NONE, RequestDeadline.current());
+    }
+
+    @Test
+    void blockingCascadeStopsWhenTheBudgetCannotCoverAFailover() {
+        AnalysisService service = analysisService();
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(800), Duration.ofMillis(500));
+
+        long start = System.nanoTime();
+        DeadlineExceededException e = assertThrows(DeadlineExceededException.class,
+                () -> deadline.within(() -> service.generateAnalysis("topic", articles(), "english")));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertFalse(e.isCancelled());
+        assertEquals(1, llmRequests.get(), "no retry or failover was started after the first call ran out");
+        assertTrue(elapsedMs < 2_000, "the first call was cut to the budget, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void cancellingTheDeadlineAbortsTheAsyncCascade() throws Exception {
+        AnalysisService service = analysisService();
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(20), Duration.ofMillis(500));
+
+        CompletableFuture<?> analysis = deadline.within(() -> service.analyzeTopicAsync("topic", articles(), "english"));
+        assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+        long start = System.nanoTime();
+        deadline.cancel();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> analysis.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+        assertTrue(((DeadlineExceededException) e.getCause()).isCancelled());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < STUB_LATENCY_MS);
+        assertEquals(1, llmRequests.get(), "no failover after the client went away");
+    }
+
+    private AnalysisService analysisService() {
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        String primary = baseUrl + "/primary/";
+        String secondary = baseUrl + "/secondary/";
+        String third = baseUrl + "/third/";
+        upstreamHttpClients = new UpstreamHttpClients(new MockEnvironment()
+                .withProperty("llm.primary.api.url", primary)
+                .withProperty("llm.secondary.api.url", secondary)
+                .withProperty("llm.third.api.url", third), new SimpleMeterRegistry());
+        RestTemplate restTemplate = new RestTemplate(upstreamHttpClients.requestFactory());
+        restTemplate.getInterceptors().add(upstreamHttpClients.bulkheadInterceptor());
+        return new AnalysisService(restTemplate, new NonBlockingHttpClient(upstreamHttpClients),
+                TestLlmProviders.registry(primary, secondary, third), new ConcurrentMapCacheManager(),
+                TestLlmProviders.promptAssembler(), new UpstreamMetrics(new SimpleMeterRegistry()),
+                TestLlmProviders.rateLimiter());
+    }
+
+    private static List<Article> articles() {
+        return List.of(new Article("Topic headline", "Topic description", "https://example.com/topic"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.meeran.newsanalyzerapi.service;
+
+import java.util.List;
+
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Builds LLM collaborators the way Spring would, for tests that construct services by hand
+final class TestLlmProviders {
+
+    private TestLlmProviders() {
+    }
+
+    static LlmProviderRegistry registry(String primaryUrl, String secondaryUrl, String thirdUrl) {
+        LlmProviderRegistry registry = new LlmProviderRegistry();
+        List<String> slots = List.of("primary", "secondary", "third");
+        List<String> urls = List.of(primaryUrl, secondaryUrl, thirdUrl);
+        for (int i = 0; i < slots.size(); i++) {
+            String slot = slots.get(i);
+            ReflectionTestUtils.setField(registry, slot + "Provider", urls.get(i).contains("openrouter") ? "OpenRouter" : "Gemini");
+            ReflectionTestUtils.setField(registry, slot + "ApiUrl", urls.get(i));
+            ReflectionTestUtils.setField(registry, slot + "ApiKey", "test-key");
+            ReflectionTestUtils.setField(registry, slot + "AnalysisModel", slot + "-model");
+            ReflectionTestUtils.setField(registry, slot + "SuggestionsModel", slot + "-model");
+            ReflectionTestUtils.setField(registry, slot + "RandomModel", slot + "-model");
+        }
+        ReflectionTestUtils.setField(registry, "ewmaAlpha", 0.3);
+        ReflectionTestUtils.setField(registry, "initialLatencyMs", 5_000L);
+        ReflectionTestUtils.setField(registry, "errorPenaltyMs", 20_000L);
+        ReflectionTestUtils.setField(registry, "rateLimitPenaltyMs", 30_000L);
+        ReflectionTestUtils.setField(registry, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(registry, "minimumCalls", 5);
+        ReflectionTestUtils.setField(registry, "consecutiveFailuresToOpen", 3);
+        ReflectionTestUtils.setField(registry, "openDurationMs", 30_000L);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+        return registry;
+    }
+
+    // A PromptAssembler with the default budgets, as Spring would configure it
+    static PromptAssembler promptAssembler() {
+        PromptAssembler assembler = new PromptAssembler(new SimpleMeterRegistry());
+        for (String budget : List.of("defaultTokenBudget", "primaryTokenBudget", "secondaryTokenBudget", "thirdTokenBudget")) {
+            ReflectionTestUtils.setField(assembler, budget, 3000);
+        }
+        ReflectionTestUtils.setField(assembler, "maxHammingDistance", 6);
+        return assembler;
+    }
+
+    // A rate limiter with no configured limits; it only honours Retry-After
+    static UpstreamRateLimiter rateLimiter() {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(new MockEnvironment(),
+                new UpstreamMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(rateLimiter, "maxWaitMs", 200L);
+        ReflectionTestUtils.setField(rateLimiter, "maxRetryAfterMs", 600_000L);
+        return rateLimiter;
+    }
+}
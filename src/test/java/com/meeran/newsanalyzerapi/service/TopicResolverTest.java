@@ -0,0 +1,73 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TopicResolverTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TopicResolver resolver = new TopicResolver(100, Duration.ofHours(4), meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(resolver, "enabled", true);
+        ReflectionTestUtils.setField(resolver, "threshold", 0.8);
+        ReflectionTestUtils.setField(resolver, "wordSimilarity", 0.7);
+    }
+
+    @Test
+    void resolvesVariantsToTheRecordedTopic() {
+        resolver.record("AI regulation");
+
+        assertEquals("AI regulation", resolver.resolve("ai  regulation"));
+        assertEquals("AI regulation", resolver.resolve("ai regulations"));
+        assertEquals("AI regulation", resolver.resolve("Regulation of AI"));
+        assertEquals(2.0, meterRegistry.get("analysis.topics.resolved").counter().count(),
+                "an exact match after normalization is not counted as a resolution");
+    }
+
+    @Test
+    void keepsDistinctTopicsApart() {
+        resolver.record("US elections");
+        resolver.record("climate change");
+
+        assertEquals("UK elections", resolver.resolve("UK elections"));
+        assertEquals("climate chance", resolver.resolve("climate chance"));
+        assertEquals("global AI regulation and ethics", resolver.resolve("global AI regulation and ethics"));
+    }
+
+    @Test
+    void doesNotMergeATopicWithAnExtraQualifier() {
+        resolver.record("climate change");
+        resolver.record("AI regulation");
+
+        assertEquals(0.8, resolver.similarity("climate change india", "climate change"), 1e-9);
+        assertEquals("climate change india", resolver.resolve("climate change india"));
+        assertEquals("AI regulation in India", resolver.resolve("AI regulation in India"));
+        assertEquals("global AI regulation", resolver.resolve("global AI regulation"));
+    }
+
+    @Test
+    void matchesInflectedTamilWords() {
+        resolver.record("காலநிலை மாற்றம்");
+
+        assertTrue(resolver.similarity("காலநிலை மாற்றங்கள்", "காலநிலை மாற்றம்") >= 0.8);
+        assertEquals("காலநிலை மாற்றம்", resolver.resolve("காலநிலை மாற்றங்கள்"));
+    }
+
+    @Test
+    void returnsTopicUnchangedWhenDisabled() {
+        resolver.record("AI regulation");
+        ReflectionTestUtils.setField(resolver, "enabled", false);
+
+        assertEquals("ai regulations", resolver.resolve("ai regulations"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UpstreamHttpClientsTest {
+
+    private final CountDownLatch slowRequestArrived = new CountDownLatch(1);
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private UpstreamHttpClients upstreamHttpClients;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 16);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/openrouter/", this::respondSlowly);
+        server.createContext("/gemini/", exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("slow")) {
+                respondSlowly(exchange);
+            } else {
+                respond(exchange, "fast");
+            }
+        });
+        server.createContext("/newsapi/", exchange -> respond(exchange, "fast"));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        upstreamHttpClients = new UpstreamHttpClients(new MockEnvironment()
+                .withProperty("llm.third.api.url", baseUrl + "/openrouter/")
+                .withProperty("llm.third.http.max-concurrency", "1")
+                .withProperty("news.primary.api.url", baseUrl + "/newsapi/")
+                .withProperty("news.primary.http.max-connections", "8")
+                .withProperty("llm.primary.api.url", baseUrl + "/gemini/")
+                .withProperty("llm.primary.http.max-connections", "6")
+                .withProperty("llm.secondary.api.url", baseUrl + "/gemini/")
+                .withProperty("llm.secondary.http.max-concurrency", "1")
+                .withProperty("llm.secondary.http.max-connections", "2")
+                .withProperty("http.bulkhead.max-wait-ms", "100"), meterRegistry);
+        restTemplate = new RestTemplate(upstreamHttpClients.requestFactory());
+        restTemplate.getInterceptors().add(upstreamHttpClients.bulkheadInterceptor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        upstreamHttpClients.destroy();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void slowProviderOnlyExhaustsItsOwnBulkhead() throws Exception {
+        CompletableFuture<String> held = CompletableFuture.supplyAsync(
+                () -> restTemplate.getForObject(baseUrl + "/openrouter/chat", String.class));
+        slowRequestArrived.await(5, TimeUnit.SECONDS);
+
+        assertThrows(BulkheadFullException.class, () -> restTemplate.getForObject(baseUrl + "/openrouter/chat", String.class));
+        assertEquals("fast", restTemplate.getForObject(baseUrl + "/newsapi/everything?q=x", String.class));
+
+        releaseSlow.countDown();
+        assertEquals("slow", held.get(5, TimeUnit.SECONDS));
+        assertEquals("slow", restTemplate.getForObject(baseUrl + "/openrouter/chat", String.class),
+                "the permit is given back once the response is closed");
+
+        assertEquals(1.0, meterRegistry.get("upstream.bulkhead.rejected").tag("upstream", "llm.third").counter().count());
+        assertEquals(0.0, meterRegistry.get("upstream.bulkhead.active").tag("upstream", "llm.third").gauge().value());
+        assertEquals(8.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "news.primary")
+                .gauge().value());
+    }
+
+    @Test
+    void asyncCallsAreRejectedWithoutWaitingWhenTheBulkheadIsFull() throws Exception {
+        NonBlockingHttpClient client = new NonBlockingHttpClient(upstreamHttpClients);
+        CompletableFuture<String> held = CompletableFuture.supplyAsync(
+                () -> restTemplate.getForObject(baseUrl + "/openrouter/chat", String.class));
+        slowRequestArrived.await(5, TimeUnit.SECONDS);
+
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> client.postJson(URI.create(baseUrl + "/openrouter/chat"), new HttpHeaders(), "{}")
+                        .get(1, TimeUnit.SECONDS));
+        assertEquals(BulkheadFullException.class, rejected.getCause().getClass());
+
+        releaseSlow.countDown();
+        held.get(5, TimeUnit.SECONDS);
+        assertEquals("slow", new String(client.postJson(URI.create(baseUrl + "/openrouter/chat"),
+                new HttpHeaders(), "{}").get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void slotsSharingABaseUrlKeepTheirOwnClientAndBulkhead() throws Exception {
+        NonBlockingHttpClient client = new NonBlockingHttpClient(upstreamHttpClients);
+        CompletableFuture<String> held = CompletableFuture.supplyAsync(() -> UpstreamHttpClients.withSlot(
+                "llm.secondary", () -> restTemplate.getForObject(baseUrl + "/gemini/slow", String.class)));
+        slowRequestArrived.await(5, TimeUnit.SECONDS);
+
+        assertThrows(BulkheadFullException.class, () -> UpstreamHttpClients.withSlot("llm.secondary",
+                () -> restTemplate.getForObject(baseUrl + "/gemini/fast", String.class)));
+        assertEquals("fast", UpstreamHttpClients.withSlot("llm.primary",
+                () -> restTemplate.getForObject(baseUrl + "/gemini/fast", String.class)));
+        assertEquals("fast", new String(UpstreamHttpClients.withSlot("llm.primary",
+                () -> client.postJson(URI.create(baseUrl + "/gemini/fast"), new HttpHeaders(), "{}"))
+                .get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+
+        releaseSlow.countDown();
+        assertEquals("slow", held.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("upstream.bulkhead.rejected").tag("upstream", "llm.secondary").counter()
+                .count());
+        assertEquals(0.0, meterRegistry.get("upstream.bulkhead.rejected").tag("upstream", "llm.primary").counter()
+                .count());
+        assertEquals(6.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "llm.primary")
+                .gauge().value());
+        assertEquals(2.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "llm.secondary").gauge().value());
+    }
+
+    private void respondSlowly(HttpExchange exchange) throws IOException {
+        slowRequestArrived.countDown();
+        try {
+            releaseSlow.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        respond(exchange, "slow");
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
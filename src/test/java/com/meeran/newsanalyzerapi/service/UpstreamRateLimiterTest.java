@@ -0,0 +1,118 @@
+package com.meeran.newsanalyzerapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UpstreamRateLimiterTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpstreamRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("news.primary.rate-limit.requests-per-minute", "600")
+                .withProperty("news.primary.rate-limit.burst", "2");
+        rateLimiter = new UpstreamRateLimiter(environment, new UpstreamMetrics(meterRegistry));
+        ReflectionTestUtils.setField(rateLimiter, "maxWaitMs", 200L);
+        ReflectionTestUtils.setField(rateLimiter, "maxRetryAfterMs", 600_000L);
+        ReflectionTestUtils.setField(rateLimiter, "clock", clock);
+    }
+
+    @Test
+    void burstGoesOutAtOnceThenCallsWaitUntilTheWaitBudgetIsSpent() {
+        rateLimiter.acquire("news.primary", "newsapi", "news-key");
+        rateLimiter.acquire("news.primary", "newsapi", "news-key");
+        // One permit per 100ms: the next two wait 100ms and 200ms, the one after that would wait 300ms
+        rateLimiter.acquire("news.primary", "newsapi", "news-key");
+        rateLimiter.acquire("news.primary", "newsapi", "news-key");
+        UpstreamThrottledException throttled = assertThrows(UpstreamThrottledException.class,
+                () -> rateLimiter.acquire("news.primary", "newsapi", "news-key"));
+
+        assertEquals(300, throttled.getWaitMillis());
+        assertEquals(2, meterRegistry.get("upstream.throttle.wait").tags("provider", "newsapi").timer().count());
+        assertEquals(300, meterRegistry.get("upstream.throttle.wait").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1.0, meterRegistry.get("upstream.throttle.rejected").tags("api", "news").counter().count());
+
+        clock.advanceMillis(1_000);
+        assertDoesNotThrow(() -> rateLimiter.acquire("news.primary", "newsapi", "news-key"));
+    }
+
+    @Test
+    void retryAfterHoldsBackEverySlotUsingTheKey() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "30");
+        rateLimiter.recordFailure("llm.primary", "primary (Gemini)", "gemini-key", HttpClientErrorException.create(
+                HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, new byte[0], null));
+
+        assertEquals(30_000, assertThrows(UpstreamThrottledException.class,
+                () -> rateLimiter.acquire("llm.secondary", "secondary (Gemini)", "gemini-key")).getWaitMillis());
+        assertDoesNotThrow(() -> rateLimiter.acquire("llm.third", "third (OpenRouter)", "openrouter-key"));
+
+        clock.advanceMillis(30_000);
+        assertDoesNotThrow(() -> rateLimiter.acquire("llm.primary", "primary (Gemini)", "gemini-key"));
+    }
+
+    @Test
+    void otherFailuresDoNotHoldBackCalls() {
+        rateLimiter.recordFailure("llm.primary", "primary (Gemini)", "gemini-key",
+                HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", new HttpHeaders(), new byte[0], null));
+
+        assertTrue(rateLimiter.acquireAsync("llm.primary", "primary (Gemini)", "gemini-key").isDone());
+    }
+
+    @Test
+    void retryAfterMayBeAnHttpDate() {
+        long now = clock.millis();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER,
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(clock.instant().plusSeconds(90).atZone(ZoneOffset.UTC)));
+
+        assertEquals(90_000, UpstreamRateLimiter.retryAfterMillis(headers, now));
+        headers.set(HttpHeaders.RETRY_AFTER, "soon");
+        assertEquals(0, UpstreamRateLimiter.retryAfterMillis(headers, now));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advanceMillis(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}